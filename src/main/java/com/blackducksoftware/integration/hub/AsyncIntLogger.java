@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.log.LogLevel;
+
+/**
+ * Hands messages to another IntLogger on a thread of its own, so a slow logger does not hold up the thread that logs,
+ * such as the one draining the output of the CLI. The messages wait in a bounded queue, which the delivery thread
+ * drains in batches, and each message is still passed on to the logger on its own.
+ *
+ * Error, warn, info and always messages are never dropped: when the queue is full the caller waits for room. Debug and
+ * trace messages are only sampled once the queue is half full, one in every debugSampleRate, and are dropped when it is
+ * full. Close the logger to deliver what is left in the queue.
+ */
+public class AsyncIntLogger extends IntLogger implements Closeable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    public static final int DEFAULT_DEBUG_SAMPLE_RATE = 100;
+
+    private static final LogEntry END_OF_LOG = new LogEntry(LogLevel.OFF, null, null);
+
+    private final IntLogger logger;
+
+    private final BlockingQueue<LogEntry> queue;
+
+    private final int maxBatchSize;
+
+    private final int debugSampleRate;
+
+    private final Thread deliveryThread;
+
+    private final AtomicLong processedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    // guarded by closeLock
+    private boolean closed;
+
+    private final Object afterCloseDeliveryLock = new Object();
+
+    public AsyncIntLogger(final IntLogger logger) {
+        this(logger, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_DEBUG_SAMPLE_RATE);
+    }
+
+    public AsyncIntLogger(final IntLogger logger, final int queueCapacity, final int maxBatchSize, final int debugSampleRate) {
+        if (queueCapacity <= 1 || maxBatchSize <= 0 || debugSampleRate <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be greater than one, and the batch size and sample rate greater than zero.");
+        }
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.debugSampleRate = debugSampleRate;
+        deliveryThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                deliverMessages();
+            }
+        }, "Hub Async Logger");
+        deliveryThread.setDaemon(true);
+        deliveryThread.start();
+    }
+
+    /**
+     * @return the messages the logger accepted so far. Together with getDroppedCount() this accounts for every message
+     *         logged that was not skipped for its level.
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return the debug and trace messages dropped because the queue was filling up, and the messages the logger failed
+     *         on.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Waits until every message already logged has been passed on. Messages logged afterwards are passed on
+     * straight away, on the thread that logs them, once the delivery thread is done.
+     */
+    @Override
+    public void close() {
+        boolean interrupted = false;
+        // no message can be queued behind the end of the log while the write lock is held
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            interrupted = putUninterruptibly(END_OF_LOG);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        interrupted |= awaitDeliveryThread();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void alwaysLog(final String txt) {
+        enqueue(new LogEntry(null, txt, null));
+    }
+
+    @Override
+    public void info(final String txt) {
+        enqueue(new LogEntry(LogLevel.INFO, txt, null));
+    }
+
+    @Override
+    public void error(final Throwable t) {
+        enqueue(new LogEntry(LogLevel.ERROR, null, t));
+    }
+
+    @Override
+    public void error(final String txt, final Throwable t) {
+        enqueue(new LogEntry(LogLevel.ERROR, txt, t));
+    }
+
+    @Override
+    public void error(final String txt) {
+        enqueue(new LogEntry(LogLevel.ERROR, txt, null));
+    }
+
+    @Override
+    public void warn(final String txt) {
+        enqueue(new LogEntry(LogLevel.WARN, txt, null));
+    }
+
+    @Override
+    public void trace(final String txt) {
+        enqueue(new LogEntry(LogLevel.TRACE, txt, null));
+    }
+
+    @Override
+    public void trace(final String txt, final Throwable t) {
+        enqueue(new LogEntry(LogLevel.TRACE, txt, t));
+    }
+
+    @Override
+    public void debug(final String txt) {
+        enqueue(new LogEntry(LogLevel.DEBUG, txt, null));
+    }
+
+    @Override
+    public void debug(final String txt, final Throwable t) {
+        enqueue(new LogEntry(LogLevel.DEBUG, txt, t));
+    }
+
+    @Override
+    public void setLogLevel(final LogLevel level) {
+        logger.setLogLevel(level);
+    }
+
+    @Override
+    public LogLevel getLogLevel() {
+        return logger.getLogLevel();
+    }
+
+    private void enqueue(final LogEntry entry) {
+        if (entry.isDebugOrTrace()) {
+            final LogLevel loggerLevel = logger.getLogLevel();
+            if (loggerLevel != null && !LogLevel.isLoggable(loggerLevel, entry.level)) {
+                return;
+            }
+        }
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                if (entry.isDebugOrTrace()) {
+                    // sampled once the queue is half full, then dropped when it is full
+                    final boolean sampled = queue.remainingCapacity() > queue.size() || sampleCounter.incrementAndGet() % debugSampleRate == 0;
+                    if (!sampled || !queue.offer(entry)) {
+                        droppedCount.incrementAndGet();
+                    }
+                } else if (putUninterruptibly(entry)) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        deliverAfterClose(entry);
+    }
+
+    /**
+     * The delivery thread keeps running until close() has queued the end of the log, so the wait for room always ends.
+     *
+     * @return true if the thread was interrupted while it waited.
+     */
+    private boolean putUninterruptibly(final LogEntry entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(entry);
+                return interrupted;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+
+    /**
+     * @return true if the thread was interrupted while it waited.
+     */
+    private boolean awaitDeliveryThread() {
+        boolean interrupted = false;
+        while (deliveryThread.isAlive()) {
+            try {
+                deliveryThread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        return interrupted;
+    }
+
+    /**
+     * Messages logged after close() are passed on by the thread that logs them, one at a time and only once the delivery
+     * thread is done, so the logger is still never called from two threads at once.
+     */
+    private void deliverAfterClose(final LogEntry entry) {
+        final boolean interrupted = awaitDeliveryThread();
+        synchronized (afterCloseDeliveryLock) {
+            deliver(entry);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliverMessages() {
+        final List<LogEntry> batch = new ArrayList<>(maxBatchSize);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (final InterruptedException e) {
+                // only close() stops this thread, and it does so through the queue
+                interrupted = true;
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            if (deliverBatch(batch)) {
+                break;
+            }
+            batch.clear();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true once the end of the log has been reached.
+     */
+    private boolean deliverBatch(final List<LogEntry> batch) {
+        for (final LogEntry entry : batch) {
+            if (entry == END_OF_LOG) {
+                return true;
+            }
+            deliver(entry);
+        }
+        return false;
+    }
+
+    private void deliver(final LogEntry entry) {
+        try {
+            if (entry.level == null) {
+                logger.alwaysLog(entry.message);
+            } else if (LogLevel.ERROR == entry.level) {
+                if (entry.message == null) {
+                    logger.error(entry.throwable);
+                } else if (entry.throwable == null) {
+                    logger.error(entry.message);
+                } else {
+                    logger.error(entry.message, entry.throwable);
+                }
+            } else if (LogLevel.WARN == entry.level) {
+                logger.warn(entry.message);
+            } else if (LogLevel.INFO == entry.level) {
+                logger.info(entry.message);
+            } else if (LogLevel.DEBUG == entry.level) {
+                if (entry.throwable == null) {
+                    logger.debug(entry.message);
+                } else {
+                    logger.debug(entry.message, entry.throwable);
+                }
+            } else if (LogLevel.TRACE == entry.level) {
+                if (entry.throwable == null) {
+                    logger.trace(entry.message);
+                } else {
+                    logger.trace(entry.message, entry.throwable);
+                }
+            }
+            processedCount.incrementAndGet();
+        } catch (final RuntimeException e) {
+            // the logger is the only place this could be reported, so keep delivering the rest
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private static class LogEntry {
+        /** null for a message that is always logged. */
+        private final LogLevel level;
+
+        private final String message;
+
+        private final Throwable throwable;
+
+        public LogEntry(final LogLevel level, final String message, final Throwable throwable) {
+            this.level = level;
+            this.message = message;
+            this.throwable = throwable;
+        }
+
+        public boolean isDebugOrTrace() {
+            return LogLevel.DEBUG == level || LogLevel.TRACE == level;
+        }
+    }
+
+}
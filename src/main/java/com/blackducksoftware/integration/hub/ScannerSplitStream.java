@@ -24,13 +24,27 @@ package com.blackducksoftware.integration.hub;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.blackducksoftware.integration.log.IntLogger;
 
+/**
+ * Copies the output of the CLI to a file and logs the lines that carry a log level. The bytes are decoded as UTF-8
+ * through reusable buffers, so a character split across writes is decoded whole. Only the first maxOutputLength
+ * characters of a line are kept, and lines without a log level are added to the message before them up to
+ * maxOutputLength characters, so the rest is only counted; getOutput() keeps only the last maxOutputLength characters
+ * of what was logged.
+ */
 public class ScannerSplitStream extends OutputStream {
+    public static final int DEFAULT_MAX_OUTPUT_LENGTH = 1024 * 1024;
+
     // https://www.cs.cmu.edu/~pattis/15-1XX/common/handouts/ascii.html
     private static final int EOF = -1; // End of file
 
@@ -42,6 +56,8 @@ public class ScannerSplitStream extends OutputStream {
 
     private static final int CR = 13; // Carriage return
 
+    private static final int BUFFER_SIZE = 8192;
+
     private static final String EXCEPTION = "Exception:";
 
     private static final String FINISHED = "Finished in";
@@ -56,25 +72,51 @@ public class ScannerSplitStream extends OutputStream {
 
     private static final String TRACE = "TRACE:";
 
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
     private final OutputStream outputFileStream;
 
     private final IntLogger logger;
 
-    private String output = "";
+    private final int maxOutputLength;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+
+    private final StringBuilder output = new StringBuilder();
+
+    private final StringBuilder lineBuffer = new StringBuilder();
 
-    private String lineBuffer = "";
+    private final StringBuilder currentLine = new StringBuilder();
 
-    private String currentLine = "";
+    private int omittedLineBufferLength;
 
-    private int previousCodePoint = -1;
+    private int omittedCurrentLineLength;
+
+    private boolean previousCarriageReturn;
 
     public ScannerSplitStream(final IntLogger logger, final OutputStream outputFileStream) {
+        this(logger, outputFileStream, DEFAULT_MAX_OUTPUT_LENGTH);
+    }
+
+    public ScannerSplitStream(final IntLogger logger, final OutputStream outputFileStream, final int maxOutputLength) {
+        if (maxOutputLength <= 0) {
+            throw new IllegalArgumentException("The maximum output length must be greater than zero.");
+        }
         this.outputFileStream = outputFileStream;
         this.logger = logger;
+        this.maxOutputLength = maxOutputLength;
     }
 
     public String getOutput() {
-        return output;
+        if (output.length() > maxOutputLength) {
+            return output.substring(output.length() - maxOutputLength);
+        }
+        return output.toString();
     }
 
     public Boolean hasOutput() {
@@ -83,37 +125,80 @@ public class ScannerSplitStream extends OutputStream {
 
     @Override
     public void write(final int codePoint) throws IOException {
-        outputFileStream.write(codePoint);
-
         if (EOF == codePoint) {
             throw new EOFException();
         }
+        outputFileStream.write(codePoint);
 
-        boolean atLineEnd = false;
-        if (ETX == codePoint || EOT == codePoint) {
-            atLineEnd = true;
-        } else if (LF == codePoint && CR != previousCodePoint) {
-            atLineEnd = true;
-        } else if (LF == codePoint && CR == previousCodePoint) {
-            atLineEnd = true;
-            // also need to remove the previously consumed CR
-            currentLine = currentLine.substring(0, currentLine.length() - 1);
-        } else if (LF != codePoint && CR == previousCodePoint) {
-            processLine(currentLine);
-            currentLine = "";
-        }
-        previousCodePoint = codePoint;
-
-        if (atLineEnd) {
-            processLine(currentLine);
-            currentLine = "";
-        } else {
-            final String stringAscii = new String(Character.toChars(codePoint));
-            currentLine += stringAscii;
+        byteBuffer.put((byte) codePoint);
+        // these bytes never occur inside a multi-byte character, so only they need the line decoded straight away
+        if (!byteBuffer.hasRemaining() || LF == codePoint || CR == codePoint || ETX == codePoint || EOT == codePoint) {
+            decodeBytes();
         }
     }
 
-    private Boolean isLoggableLine(final String line) {
+    @Override
+    public void write(final byte[] byteArray) throws IOException {
+        write(byteArray, 0, byteArray.length);
+    }
+
+    @Override
+    public void write(final byte[] byteArray, final int offset, final int length) throws IOException {
+        outputFileStream.write(byteArray, offset, length);
+
+        int position = offset;
+        final int end = offset + length;
+        while (position < end) {
+            final int count = Math.min(byteBuffer.remaining(), end - position);
+            byteBuffer.put(byteArray, position, count);
+            position += count;
+            decodeBytes();
+        }
+    }
+
+    private void decodeBytes() {
+        byteBuffer.flip();
+        CoderResult result;
+        do {
+            result = decoder.decode(byteBuffer, charBuffer, false);
+            charBuffer.flip();
+            splitLines(charBuffer);
+            charBuffer.clear();
+        } while (result.isOverflow());
+        // an incomplete character stays in the buffer until the rest of its bytes are written
+        byteBuffer.compact();
+    }
+
+    private void splitLines(final CharBuffer chars) {
+        while (chars.hasRemaining()) {
+            final char character = chars.get();
+            if (previousCarriageReturn) {
+                previousCarriageReturn = false;
+                // a CR ends the line on its own as well as in a CR LF pair
+                endLine();
+                if (LF == character) {
+                    continue;
+                }
+            }
+            if (CR == character) {
+                previousCarriageReturn = true;
+            } else if (LF == character || ETX == character || EOT == character) {
+                endLine();
+            } else if (currentLine.length() < maxOutputLength) {
+                currentLine.append(character);
+            } else {
+                omittedCurrentLineLength++;
+            }
+        }
+    }
+
+    private void endLine() {
+        processLine(currentLine, omittedCurrentLineLength);
+        currentLine.setLength(0);
+        omittedCurrentLineLength = 0;
+    }
+
+    private boolean isLoggableLine(final CharSequence line) {
         if (StringUtils.containsIgnoreCase(line, ERROR)) {
             return true;
         }
@@ -138,61 +223,43 @@ public class ScannerSplitStream extends OutputStream {
         return false;
     }
 
-    private void processLine(final String line) throws UnsupportedEncodingException {
+    /**
+     * @param omittedLength
+     *            the characters cut off the end of the line, which are counted in the message it ends up in.
+     */
+    private void processLine(final CharSequence line, final int omittedLength) {
         if (lineBuffer.length() == 0) {
             // First log line found, put it in the buffer
-            lineBuffer = line;
+            lineBuffer.append(line);
+            omittedLineBufferLength += omittedLength;
         } else if (isLoggableLine(line)) {
             // next real log message came in, print the log in the buffer
-            // print stored lines
-            writeToConsole(lineBuffer);
+            writeLineBuffer();
 
             // replace with the current line
-            lineBuffer = line;
-        } else {
+            lineBuffer.append(line);
+            omittedLineBufferLength += omittedLength;
+        } else if (lineBuffer.length() + LINE_SEPARATOR.length() + line.length() <= maxOutputLength) {
             // We assume that each new log starts with the log level, if this
             // line does not contain a log level it
             // must only be a piece of a log
             // needs to be added into the buffer
-            final StringBuilder builder = new StringBuilder();
-            builder.append(lineBuffer);
-
-            builder.append(System.getProperty("line.separator"));
-            builder.append(line);
-            lineBuffer = builder.toString();
-        }
-    }
-
-    @Override
-    public void write(final byte[] byteArray) throws IOException {
-        outputFileStream.write(byteArray);
-
-        final String currentLine = new String(byteArray, "UTF-8");
-        if (currentLine.contains(System.getProperty("line.separator"))) {
-            final String[] splitLines = currentLine.split(System.getProperty("line.separator"));
-
-            for (final String line : splitLines) {
-                processLine(line);
-            }
+            lineBuffer.append(LINE_SEPARATOR);
+            lineBuffer.append(line);
+            omittedLineBufferLength += omittedLength;
         } else {
-            processLine(currentLine);
+            omittedLineBufferLength += LINE_SEPARATOR.length() + line.length() + omittedLength;
         }
     }
 
-    @Override
-    public void write(final byte[] byteArray, final int offset, final int length) throws IOException {
-        outputFileStream.write(byteArray, offset, length);
-
-        final String currentLine = new String(byteArray, offset, length, "UTF-8");
-        if (currentLine.contains(System.getProperty("line.separator"))) {
-            final String[] splitLines = currentLine.split(System.getProperty("line.separator"));
-
-            for (final String line : splitLines) {
-                processLine(line);
-            }
-        } else {
-            processLine(currentLine);
+    private void writeLineBuffer() {
+        if (omittedLineBufferLength > 0) {
+            lineBuffer.append(LINE_SEPARATOR);
+            lineBuffer.append("... ").append(omittedLineBufferLength).append(" more characters");
+            omittedLineBufferLength = 0;
         }
+        writeToConsole(lineBuffer);
+        lineBuffer.setLength(0);
     }
 
     @Override
@@ -200,13 +267,17 @@ public class ScannerSplitStream extends OutputStream {
         outputFileStream.flush();
 
         // Print whatever is left in the buffer
-        writeToConsole(lineBuffer);
-        lineBuffer = "";
+        writeLineBuffer();
         // Print whatever is left in the buffer
         if (StringUtils.isNotBlank(currentLine)) {
-            writeToConsole(currentLine);
-            currentLine = "";
+            lineBuffer.append(currentLine);
+            omittedLineBufferLength = omittedCurrentLineLength;
+            writeLineBuffer();
         }
+        currentLine.setLength(0);
+        omittedCurrentLineLength = 0;
+        // the line a trailing CR belonged to was just written, an LF in the next write does not end it again
+        previousCarriageReturn = false;
     }
 
     @Override
@@ -217,37 +288,34 @@ public class ScannerSplitStream extends OutputStream {
         // if you do
     }
 
-    private void writeToConsole(final String line) {
-        if (StringUtils.containsIgnoreCase(line, DEBUG) || StringUtils.containsIgnoreCase(line, TRACE)) {
+    private void writeToConsole(final CharSequence message) {
+        if (StringUtils.containsIgnoreCase(message, DEBUG) || StringUtils.containsIgnoreCase(message, TRACE)) {
             // We dont want to print Debug or Trace logs to the logger
             return;
         }
-        final StringBuilder outputBuilder = new StringBuilder();
-        outputBuilder.append(output);
-        if (StringUtils.containsIgnoreCase(line, EXCEPTION)) {
+        if (StringUtils.containsIgnoreCase(message, EXCEPTION)) {
             // looking for 'Exception in thread' type messages
-            outputBuilder.append(line);
-            outputBuilder.append(System.getProperty("line.separator"));
-            logger.error(line);
-        } else if (StringUtils.containsIgnoreCase(line, FINISHED)) {
-            outputBuilder.append(line);
-            outputBuilder.append(System.getProperty("line.separator"));
-            logger.info(line);
-        } else if (StringUtils.containsIgnoreCase(line, ERROR)) {
-            outputBuilder.append(line);
-            outputBuilder.append(System.getProperty("line.separator"));
-            logger.error(line);
-        } else if (StringUtils.containsIgnoreCase(line, WARN)) {
-            outputBuilder.append(line);
-            outputBuilder.append(System.getProperty("line.separator"));
-            logger.warn(line);
-        } else if (StringUtils.containsIgnoreCase(line, INFO)) {
-            outputBuilder.append(line);
-            outputBuilder.append(System.getProperty("line.separator"));
-            logger.info(line);
-        }
-
-        output = outputBuilder.toString();
+            logger.error(appendOutput(message));
+        } else if (StringUtils.containsIgnoreCase(message, FINISHED)) {
+            logger.info(appendOutput(message));
+        } else if (StringUtils.containsIgnoreCase(message, ERROR)) {
+            logger.error(appendOutput(message));
+        } else if (StringUtils.containsIgnoreCase(message, WARN)) {
+            logger.warn(appendOutput(message));
+        } else if (StringUtils.containsIgnoreCase(message, INFO)) {
+            logger.info(appendOutput(message));
+        }
+    }
+
+    private String appendOutput(final CharSequence message) {
+        final String line = message.toString();
+        output.append(line);
+        output.append(LINE_SEPARATOR);
+        // trimmed only once it is twice the limit, so the characters are not moved for every line
+        if (output.length() > 2 * maxOutputLength) {
+            output.delete(0, output.length() - maxOutputLength);
+        }
+        return line;
     }
 
 }
@@ -26,32 +26,46 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
- * Remember to close the Streams when they are done being used.
+ * Copies a stream to another in blocks until the end of the input, so the output is handed whole buffers rather than
+ * single bytes. Remember to close the Streams when they are done being used.
  */
 public class StreamRedirectThread extends Thread {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final InputStream in;
 
     private final OutputStream out;
 
+    private volatile IOException exception;
+
     public StreamRedirectThread(final InputStream in, final OutputStream out) {
-        super("Stream Redirect Thread");
+        this("Stream Redirect Thread", in, out);
+    }
+
+    public StreamRedirectThread(final String name, final InputStream in, final OutputStream out) {
+        super(name);
         this.in = in;
         this.out = out;
     }
 
     @Override
     public void run() {
+        final byte[] buffer = new byte[BUFFER_SIZE];
         try {
-            int i;
-            while ((i = in.read()) >= 0) {
-                if (i == -1) {
-                    break;
-                }
-                out.write(i);
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
             }
         } catch (final IOException e) {
-            // Ignore
+            exception = e;
         }
     }
 
+    /**
+     * @return the exception that stopped the copy, or null if it reached the end of the input.
+     */
+    public IOException getException() {
+        return exception;
+    }
+
 }
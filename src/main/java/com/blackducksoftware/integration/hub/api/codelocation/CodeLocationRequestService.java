@@ -44,6 +44,10 @@ public class CodeLocationRequestService extends HubParameterizedRequestService<C
         return allCodeLocations;
     }
 
+    public Iterable<CodeLocationItem> iterateAllCodeLocations() {
+        return iterateAllItems(CODE_LOCATION_SEGMENTS);
+    }
+
     public List<CodeLocationItem> getAllCodeLocationsForCodeLocationType(final CodeLocationTypeEnum codeLocationType) throws HubIntegrationException {
         final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(CODE_LOCATION_SEGMENTS).addQueryParameter("codeLocationType",
                 codeLocationType.toString());
@@ -38,4 +38,46 @@ public class ComponentVersion extends HubItem {
         return releasedOn;
     }
 
+    @Override
+    public int hashCode() {
+        int result = getCachedHashCode();
+        if (result == 0) {
+            final int prime = 31;
+            result = hubResponseHashCode();
+            result = prime * result + ((versionName == null) ? 0 : versionName.hashCode());
+            result = prime * result + ((releasedOn == null) ? 0 : releasedOn.hashCode());
+            setCachedHashCode(result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final ComponentVersion other = (ComponentVersion) obj;
+        if (versionName == null) {
+            if (other.versionName != null) {
+                return false;
+            }
+        } else if (!versionName.equals(other.versionName)) {
+            return false;
+        }
+        if (releasedOn == null) {
+            if (other.releasedOn != null) {
+                return false;
+            }
+        } else if (!releasedOn.equals(other.releasedOn)) {
+            return false;
+        }
+        return hubResponseEquals(other);
+    }
+
 }
@@ -22,5 +22,6 @@
 package com.blackducksoftware.integration.hub.api.item;
 
 public class HubItem extends HubResponse {
+    private static final long serialVersionUID = -7370108436258924991L;
 
 }
@@ -21,14 +21,37 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.item;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.io.Serializable;
+
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
-public class HubResponse {
+import com.blackducksoftware.integration.hub.meta.MetaInformation;
+import com.google.gson.annotations.SerializedName;
+
+public class HubResponse implements Serializable {
+    private static final long serialVersionUID = -3795630318063987201L;
+
+    @SerializedName("_meta")
+    private MetaInformation meta;
+
     private String json;
 
+    // the hash a subclass keeps with setCachedHashCode, cleared when the meta it includes changes
+    private transient int cachedHashCode;
+
+    public MetaInformation getMeta() {
+        return meta;
+    }
+
+    public void setMeta(MetaInformation meta) {
+        this.meta = meta;
+        cachedHashCode = 0;
+    }
+
+    /**
+     * This will be null when the RestConnection is not retaining the json of the items it creates.
+     */
     public String getJson() {
         return json;
     }
@@ -37,14 +60,74 @@ public class HubResponse {
         this.json = json;
     }
 
+    /**
+     * Only hashes the meta. Subclasses that compare their own fields in equals add them to this with
+     * hubResponseHashCode.
+     */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return hubResponseHashCode();
     }
 
+    /**
+     * Compares the meta and the json. A subclass that does not override this equals another item of its class with
+     * the same json, which covers the items a RestConnection creates while it retains the json; override it with the
+     * subclass fields when the json is not retained.
+     */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        return hubResponseEquals((HubResponse) obj);
+    }
+
+    /**
+     * The hash of the fields declared here, for subclasses that hash their own fields. The json is left out, it is
+     * the largest value and two items with different json also differ in the fields parsed from it.
+     */
+    protected int hubResponseHashCode() {
+        return (meta == null) ? 0 : meta.hashCode();
+    }
+
+    /**
+     * Compares the fields declared here, for subclasses that compare their own fields. The json is compared last since
+     * it is the largest value.
+     */
+    protected boolean hubResponseEquals(final HubResponse other) {
+        if (meta == null) {
+            if (other.meta != null) {
+                return false;
+            }
+        } else if (!meta.equals(other.meta)) {
+            return false;
+        }
+        if (json == null) {
+            if (other.json != null) {
+                return false;
+            }
+        } else if (!json.equals(other.json)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the hash stored with setCachedHashCode, or 0 when there is none. Subclasses whose fields only change
+     *         through setMeta can keep their hash this way, since setMeta clears it.
+     */
+    protected int getCachedHashCode() {
+        return cachedHashCode;
+    }
+
+    protected void setCachedHashCode(final int cachedHashCode) {
+        this.cachedHashCode = cachedHashCode;
     }
 
     @Override
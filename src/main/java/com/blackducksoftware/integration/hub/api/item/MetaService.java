@@ -22,18 +22,23 @@
 package com.blackducksoftware.integration.hub.api.item;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.meta.MetaAllowEnum;
+import com.blackducksoftware.integration.hub.meta.MetaInformation;
+import com.blackducksoftware.integration.hub.meta.MetaLink;
 import com.blackducksoftware.integration.hub.request.HubRequest;
 import com.blackducksoftware.integration.hub.request.HubRequestFactory;
 import com.blackducksoftware.integration.log.IntLogger;
-import com.google.gson.JsonArray;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
 public class MetaService {
@@ -80,23 +85,38 @@ public class MetaService {
 
     public static final String USER_OPTIONS_LINK = "user-options";
 
+    public static final int DEFAULT_META_CACHE_SIZE = 10000;
+
     private final IntLogger logger;
 
     private final JsonParser jsonParser;
 
+    private final Gson gson = new Gson();
+
     private final HubRequestFactory hubRequestFactory;
 
+    private final Cache<HubItem, MetaIndex> metaCache;
+
     public MetaService(IntLogger logger, JsonParser jsonParser, HubRequestFactory hubRequestFactory) {
+        this(logger, jsonParser, hubRequestFactory, DEFAULT_META_CACHE_SIZE);
+    }
+
+    /**
+     * The _meta of up to metaCacheSize items is indexed by item identity, so repeated lookups on the same item do not
+     * parse or scan its links again. The items are weakly referenced and will not be kept alive by the cache.
+     */
+    public MetaService(IntLogger logger, JsonParser jsonParser, HubRequestFactory hubRequestFactory, int metaCacheSize) {
         this.logger = logger;
         this.jsonParser = jsonParser;
         this.hubRequestFactory = hubRequestFactory;
+        this.metaCache = CacheBuilder.newBuilder().weakKeys().maximumSize(metaCacheSize).recordStats().build();
     }
 
     public String getLink(HubItem item, String linkKey) throws HubIntegrationException {
-        List<String> linkHrefs = getLinks(item).get(linkKey);
+        List<String> linkHrefs = getLinkIndex(item).get(linkKey);
         if (linkHrefs.size() > 1) {
             if (logger != null) {
-                logger.error("Hub Item has multiple links for key : " + linkKey + " : " + item.getJson());
+                logger.error("Hub Item has multiple links for key : " + linkKey + " : " + describe(item));
             }
             throw new HubIntegrationException("Only expected to get a single link for the key : " + linkKey);
         }
@@ -104,76 +124,91 @@ public class MetaService {
     }
 
     public Map<String, List<String>> getLinks(HubItem item) throws HubIntegrationException {
+        Map<String, List<String>> linkIndex = getLinkIndex(item);
+        // a copy, so callers can still change the map and its lists without changing the index
         Map<String, List<String>> links = new HashMap<>();
-        JsonObject metaJson = getMeta(item);
-        JsonElement linksElement = metaJson.get("links");
-        if (linksElement == null) {
+        for (Map.Entry<String, List<String>> entry : linkIndex.entrySet()) {
+            links.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return links;
+    }
+
+    private Map<String, List<String>> getLinkIndex(HubItem item) throws HubIntegrationException {
+        MetaIndex metaIndex = getMetaIndex(item);
+        if (metaIndex.links == null) {
             if (logger != null) {
-                logger.error("Hub Item has no links : " + item.getJson());
+                logger.error("Hub Item has no links : " + describe(item));
             }
             throw new HubIntegrationException("This Hub item does not have any link information.");
         }
-        JsonArray linkArray = linksElement.getAsJsonArray();
-        for (JsonElement linkElement : linkArray) {
-            JsonObject linkObject = linkElement.getAsJsonObject();
-            String ref = linkObject.get("rel").getAsString();
-            String linkHref = linkObject.get("href").getAsString();
-
-            List<String> existingHrefs = links.get(ref);
-            if (existingHrefs != null) {
-                existingHrefs.add(linkHref);
-                links.put(ref, existingHrefs);
-            } else {
-                List<String> linkHrefs = new ArrayList<>();
-                linkHrefs.add(linkHref);
-                links.put(ref, linkHrefs);
-            }
-        }
-        return links;
+        return metaIndex.links;
     }
 
     public List<MetaAllowEnum> getAllowedMethods(HubItem item) throws HubIntegrationException {
-        List<MetaAllowEnum> allows = new ArrayList<>();
-        JsonObject metaJson = getMeta(item);
-        JsonElement allowElement = metaJson.get("allow");
-        if (allowElement == null) {
+        MetaIndex metaIndex = getMetaIndex(item);
+        if (metaIndex.allow == null) {
             if (logger != null) {
-                logger.error("Hub Item has no allow : " + item.getJson());
+                logger.error("Hub Item has no allow : " + describe(item));
             }
             throw new HubIntegrationException("This Hub item does not have any allow information.");
         }
-        JsonArray allowArray = allowElement.getAsJsonArray();
-        for (JsonElement allow : allowArray) {
-            allows.add(MetaAllowEnum.valueOf(allow.getAsString()));
-        }
-
-        return allows;
+        return new ArrayList<>(metaIndex.allow);
     }
 
     public String getHref(HubItem item) throws HubIntegrationException {
-        JsonObject metaJson = getMeta(item);
-        JsonElement hrefElement = metaJson.get("href");
-        if (hrefElement == null) {
+        MetaIndex metaIndex = getMetaIndex(item);
+        if (metaIndex.href == null) {
             if (logger != null) {
-                logger.error("Hub Item has no href : " + item.getJson());
+                logger.error("Hub Item has no href : " + describe(item));
             }
             throw new HubIntegrationException("This Hub item does not have any href information.");
         }
-        return hrefElement.getAsString();
+        return metaIndex.href;
+    }
+
+    /**
+     * Provides the hit, miss and eviction counts of the per item _meta index.
+     */
+    public CacheStats getMetaCacheStats() {
+        return metaCache.stats();
+    }
+
+    private MetaIndex getMetaIndex(HubItem item) throws HubIntegrationException {
+        MetaIndex metaIndex = metaCache.getIfPresent(item);
+        if (metaIndex == null) {
+            metaIndex = new MetaIndex(getMeta(item));
+            metaCache.put(item, metaIndex);
+        }
+        return metaIndex;
     }
 
-    private JsonObject getMeta(HubItem item) throws HubIntegrationException {
+    /**
+     * The _meta information is bound when the item is deserialized. Only items that were populated some other way,
+     * with just their json, need to have it parsed here.
+     */
+    private MetaInformation getMeta(HubItem item) throws HubIntegrationException {
+        MetaInformation meta = item.getMeta();
+        if (meta != null) {
+            return meta;
+        }
         String json = item.getJson();
-        JsonElement element = jsonParser.parse(json);
-        JsonObject jsonObject = element.getAsJsonObject();
-        JsonElement metaElement = jsonObject.get("_meta");
-        if (metaElement == null) {
-            if (logger != null) {
-                logger.error("Hub Item has no meta : " + item.getJson());
+        if (json != null) {
+            JsonElement metaElement = jsonParser.parse(json).getAsJsonObject().get("_meta");
+            if (metaElement != null) {
+                return gson.fromJson(metaElement, MetaInformation.class);
             }
-            throw new HubIntegrationException("This Hub item does not have meta information.");
         }
-        return metaElement.getAsJsonObject();
+        if (logger != null) {
+            logger.error("Hub Item has no meta : " + describe(item));
+        }
+        throw new HubIntegrationException("This Hub item does not have meta information.");
+    }
+
+    private String describe(HubItem item) {
+        if (item.getJson() != null) {
+            return item.getJson();
+        }
+        return String.valueOf(item.getMeta());
     }
 
     public void deleteItem(HubItem hubItem) throws HubIntegrationException {
@@ -182,4 +217,56 @@ public class MetaService {
         hubRequest.executeDelete();
     }
 
+    private static class MetaIndex {
+        private final String href;
+
+        private final List<MetaAllowEnum> allow;
+
+        private final Map<String, List<String>> links;
+
+        public MetaIndex(MetaInformation meta) {
+            href = meta.getHref();
+            allow = indexAllow(meta.getAllow());
+            links = indexLinks(meta.getLinks());
+        }
+
+        private static List<MetaAllowEnum> indexAllow(List<MetaAllowEnum> metaAllow) {
+            if (metaAllow == null) {
+                return null;
+            }
+            List<MetaAllowEnum> allows = new ArrayList<>(metaAllow.size());
+            for (MetaAllowEnum allow : metaAllow) {
+                // gson binds methods that MetaAllowEnum does not know about to null
+                if (allow != null) {
+                    allows.add(allow);
+                }
+            }
+            return allows;
+        }
+
+        private static Map<String, List<String>> indexLinks(List<MetaLink> metaLinks) {
+            if (metaLinks == null) {
+                return null;
+            }
+            Map<String, List<String>> links = new HashMap<>();
+            for (MetaLink link : metaLinks) {
+                String ref = link.getRel();
+                String linkHref = link.getHref();
+
+                List<String> existingHrefs = links.get(ref);
+                if (existingHrefs != null) {
+                    existingHrefs.add(linkHref);
+                } else {
+                    List<String> linkHrefs = new ArrayList<>();
+                    linkHrefs.add(linkHref);
+                    links.put(ref, linkHrefs);
+                }
+            }
+            for (Map.Entry<String, List<String>> entry : links.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(links);
+        }
+    }
+
 }
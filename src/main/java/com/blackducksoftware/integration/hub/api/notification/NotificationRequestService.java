@@ -25,7 +25,6 @@ import static com.blackducksoftware.integration.hub.api.UrlConstants.SEGMENT_API
 import static com.blackducksoftware.integration.hub.api.UrlConstants.SEGMENT_NOTIFICATIONS;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -40,9 +39,7 @@ import com.blackducksoftware.integration.hub.request.HubPagedRequest;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.service.HubParameterizedRequestService;
 import com.blackducksoftware.integration.log.IntLogger;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 
 public class NotificationRequestService extends HubParameterizedRequestService<NotificationItem> {
     private static final List<String> NOTIFICATIONS_SEGMENTS = Arrays.asList(SEGMENT_API, SEGMENT_NOTIFICATIONS);
@@ -61,48 +58,73 @@ public class NotificationRequestService extends HubParameterizedRequestService<N
     }
 
     public List<NotificationItem> getAllNotifications(final Date startDate, final Date endDate) throws HubIntegrationException {
-        final SimpleDateFormat sdf = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
-        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-        final String startDateString = sdf.format(startDate);
-        final String endDateString = sdf.format(endDate);
+        final HubPagedRequest hubPagedRequest = createNotificationsRequest(startDate, endDate);
+        final List<NotificationItem> allNotificationItems = getAllItems(hubPagedRequest);
+        return allNotificationItems;
+    }
 
-        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(100, NOTIFICATIONS_SEGMENTS);
-        hubPagedRequest.addQueryParameter("startDate", startDateString);
-        hubPagedRequest.addQueryParameter("endDate", endDateString);
+    public List<NotificationItem> getAllNotifications(final Date startDate, final Date endDate, final int maxConcurrentRequests)
+            throws HubIntegrationException {
+        final HubPagedRequest hubPagedRequest = createNotificationsRequest(startDate, endDate);
+        final List<NotificationItem> allNotificationItems = getAllItems(hubPagedRequest, maxConcurrentRequests);
+        return allNotificationItems;
+    }
+
+    public Iterable<NotificationItem> iterateAllNotifications(final Date startDate, final Date endDate) {
+        final HubPagedRequest hubPagedRequest = createNotificationsRequest(startDate, endDate);
+        return iterateAllItems(hubPagedRequest);
+    }
 
+    public List<NotificationItem> getUserNotifications(final Date startDate, final Date endDate, final UserItem user) throws HubIntegrationException {
+        final HubPagedRequest hubPagedRequest = createUserNotificationsRequest(startDate, endDate, user);
         final List<NotificationItem> allNotificationItems = getAllItems(hubPagedRequest);
         return allNotificationItems;
     }
 
-    public List<NotificationItem> getUserNotifications(final Date startDate, final Date endDate, final UserItem user) throws HubIntegrationException {
+    public List<NotificationItem> getUserNotifications(final Date startDate, final Date endDate, final UserItem user, final int maxConcurrentRequests)
+            throws HubIntegrationException {
+        final HubPagedRequest hubPagedRequest = createUserNotificationsRequest(startDate, endDate, user);
+        final List<NotificationItem> allNotificationItems = getAllItems(hubPagedRequest, maxConcurrentRequests);
+        return allNotificationItems;
+    }
+
+    public Iterable<NotificationItem> iterateUserNotifications(final Date startDate, final Date endDate, final UserItem user)
+            throws HubIntegrationException {
+        final HubPagedRequest hubPagedRequest = createUserNotificationsRequest(startDate, endDate, user);
+        return iterateAllItems(hubPagedRequest);
+    }
+
+    private HubPagedRequest createNotificationsRequest(final Date startDate, final Date endDate) {
+        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(100, NOTIFICATIONS_SEGMENTS);
+        addDateRange(hubPagedRequest, startDate, endDate);
+        return hubPagedRequest;
+    }
+
+    private HubPagedRequest createUserNotificationsRequest(final Date startDate, final Date endDate, final UserItem user)
+            throws HubIntegrationException {
+        final String url = metaService.getLink(user, MetaService.NOTIFICATIONS_LINK);
+        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(100, url);
+        addDateRange(hubPagedRequest, startDate, endDate);
+        return hubPagedRequest;
+    }
+
+    private void addDateRange(final HubPagedRequest hubPagedRequest, final Date startDate, final Date endDate) {
         final SimpleDateFormat sdf = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
         sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
         final String startDateString = sdf.format(startDate);
         final String endDateString = sdf.format(endDate);
-        final String url = metaService.getLink(user, MetaService.NOTIFICATIONS_LINK);
-
-        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(100, url);
         hubPagedRequest.addQueryParameter("startDate", startDateString);
         hubPagedRequest.addQueryParameter("endDate", endDateString);
-
-        final List<NotificationItem> allNotificationItems = getAllItems(hubPagedRequest);
-        return allNotificationItems;
     }
 
     @Override
-    public List<NotificationItem> getItems(final JsonObject jsonObject) {
-        final JsonArray jsonArray = jsonObject.get("items").getAsJsonArray();
-        final List<NotificationItem> allNotificationItems = new ArrayList<>(jsonArray.size());
-        for (final JsonElement jsonElement : jsonArray) {
-            final String type = jsonElement.getAsJsonObject().get("type").getAsString();
-            Class<? extends NotificationItem> clazz = NotificationItem.class;
-            if (typeMap.containsKey(type)) {
-                clazz = typeMap.get(type);
-            }
-            allNotificationItems.add(getRestConnection().getGson().fromJson(jsonElement, clazz));
+    public NotificationItem getItem(final JsonElement jsonElement) {
+        final String type = jsonElement.getAsJsonObject().get("type").getAsString();
+        Class<? extends NotificationItem> clazz = NotificationItem.class;
+        if (typeMap.containsKey(type)) {
+            clazz = typeMap.get(type);
         }
-
-        return allNotificationItems;
+        return getRestConnection().getGson().fromJson(jsonElement, clazz);
     }
 
 }
@@ -21,7 +21,11 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.notification;
 
-public class VulnerabilitySourceQualifiedId {
+import java.io.Serializable;
+
+public class VulnerabilitySourceQualifiedId implements Serializable {
+    private static final long serialVersionUID = 3941809093192737229L;
+
     private final String source;
 
     private final String vulnerabilityId;
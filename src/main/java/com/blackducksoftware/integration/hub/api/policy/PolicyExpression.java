@@ -21,12 +21,15 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.policy;
 
+import java.io.Serializable;
 import java.util.List;
 
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
-public class PolicyExpression {
+public class PolicyExpression implements Serializable {
+    private static final long serialVersionUID = 1924480327761765403L;
+
     private final String name;
 
     private final String operation;
@@ -21,12 +21,15 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.policy;
 
+import java.io.Serializable;
 import java.util.List;
 
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
-public class PolicyExpressions {
+public class PolicyExpressions implements Serializable {
+    private static final long serialVersionUID = -5355694204942402391L;
+
     private final String operator;
 
     private final List<PolicyExpression> expressions;
@@ -26,6 +26,8 @@ import java.util.Date;
 import com.blackducksoftware.integration.hub.api.item.HubItem;
 
 public class PolicyRule extends HubItem {
+    private static final long serialVersionUID = 2191190710842893831L;
+
     private String name;
 
     private String description;
@@ -80,4 +82,102 @@ public class PolicyRule extends HubItem {
         return updatedBy;
     }
 
+    @Override
+    public int hashCode() {
+        int result = getCachedHashCode();
+        if (result == 0) {
+            final int prime = 31;
+            result = hubResponseHashCode();
+            result = prime * result + ((name == null) ? 0 : name.hashCode());
+            result = prime * result + ((description == null) ? 0 : description.hashCode());
+            result = prime * result + ((enabled == null) ? 0 : enabled.hashCode());
+            result = prime * result + ((overridable == null) ? 0 : overridable.hashCode());
+            result = prime * result + ((expression == null) ? 0 : expression.hashCode());
+            result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
+            result = prime * result + ((createdBy == null) ? 0 : createdBy.hashCode());
+            result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
+            result = prime * result + ((updatedBy == null) ? 0 : updatedBy.hashCode());
+            setCachedHashCode(result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final PolicyRule other = (PolicyRule) obj;
+        if (name == null) {
+            if (other.name != null) {
+                return false;
+            }
+        } else if (!name.equals(other.name)) {
+            return false;
+        }
+        if (description == null) {
+            if (other.description != null) {
+                return false;
+            }
+        } else if (!description.equals(other.description)) {
+            return false;
+        }
+        if (enabled == null) {
+            if (other.enabled != null) {
+                return false;
+            }
+        } else if (!enabled.equals(other.enabled)) {
+            return false;
+        }
+        if (overridable == null) {
+            if (other.overridable != null) {
+                return false;
+            }
+        } else if (!overridable.equals(other.overridable)) {
+            return false;
+        }
+        if (expression == null) {
+            if (other.expression != null) {
+                return false;
+            }
+        } else if (!expression.equals(other.expression)) {
+            return false;
+        }
+        if (createdAt == null) {
+            if (other.createdAt != null) {
+                return false;
+            }
+        } else if (!createdAt.equals(other.createdAt)) {
+            return false;
+        }
+        if (createdBy == null) {
+            if (other.createdBy != null) {
+                return false;
+            }
+        } else if (!createdBy.equals(other.createdBy)) {
+            return false;
+        }
+        if (updatedAt == null) {
+            if (other.updatedAt != null) {
+                return false;
+            }
+        } else if (!updatedAt.equals(other.updatedAt)) {
+            return false;
+        }
+        if (updatedBy == null) {
+            if (other.updatedBy != null) {
+                return false;
+            }
+        } else if (!updatedBy.equals(other.updatedBy)) {
+            return false;
+        }
+        return hubResponseEquals(other);
+    }
+
 }
@@ -21,10 +21,14 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.policy;
 
+import java.io.Serializable;
+
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
-public class PolicyValue {
+public class PolicyValue implements Serializable {
+    private static final long serialVersionUID = -5768053007289720463L;
+
     private final String label;
 
     private final String value;
@@ -59,4 +59,58 @@ public class ProjectItem extends HubItem {
         return source;
     }
 
+    @Override
+    public int hashCode() {
+        int result = getCachedHashCode();
+        if (result == 0) {
+            final int prime = 31;
+            result = hubResponseHashCode();
+            result = prime * result + ((name == null) ? 0 : name.hashCode());
+            result = prime * result + ((description == null) ? 0 : description.hashCode());
+            result = prime * result + (projectLevelAdjustments ? 1231 : 1237);
+            result = prime * result + projectTier;
+            result = prime * result + ((source == null) ? 0 : source.hashCode());
+            setCachedHashCode(result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final ProjectItem other = (ProjectItem) obj;
+        if (name == null) {
+            if (other.name != null) {
+                return false;
+            }
+        } else if (!name.equals(other.name)) {
+            return false;
+        }
+        if (description == null) {
+            if (other.description != null) {
+                return false;
+            }
+        } else if (!description.equals(other.description)) {
+            return false;
+        }
+        if (projectLevelAdjustments != other.projectLevelAdjustments) {
+            return false;
+        }
+        if (projectTier != other.projectTier) {
+            return false;
+        }
+        if (source != other.source) {
+            return false;
+        }
+        return hubResponseEquals(other);
+    }
+
 }
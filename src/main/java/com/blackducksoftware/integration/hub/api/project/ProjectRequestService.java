@@ -48,6 +48,10 @@ public class ProjectRequestService extends HubParameterizedRequestService<Projec
         return allProjectItems;
     }
 
+    public Iterable<ProjectItem> iterateAllProjects() {
+        return iterateAllItems(PROJECTS_SEGMENTS);
+    }
+
     public List<ProjectItem> getAllProjectMatches(final String projectName) throws HubIntegrationException {
         final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(PROJECTS_SEGMENTS);
         if (StringUtils.isNotBlank(projectName)) {
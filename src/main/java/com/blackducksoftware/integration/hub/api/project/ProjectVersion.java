@@ -21,9 +21,12 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.api.project;
 
+import java.io.Serializable;
+
 import com.google.gson.annotations.SerializedName;
 
-public class ProjectVersion {
+public class ProjectVersion implements Serializable {
+    private static final long serialVersionUID = 3019978035698069426L;
 
     private String projectName;
 
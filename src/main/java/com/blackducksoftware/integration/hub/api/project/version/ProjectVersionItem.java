@@ -78,4 +78,94 @@ public class ProjectVersionItem extends HubItem {
         return versionName;
     }
 
+    @Override
+    public int hashCode() {
+        int result = getCachedHashCode();
+        if (result == 0) {
+            final int prime = 31;
+            result = hubResponseHashCode();
+            result = prime * result + ((versionName == null) ? 0 : versionName.hashCode());
+            result = prime * result + ((distribution == null) ? 0 : distribution.hashCode());
+            result = prime * result + ((license == null) ? 0 : license.hashCode());
+            result = prime * result + ((nickname == null) ? 0 : nickname.hashCode());
+            result = prime * result + ((phase == null) ? 0 : phase.hashCode());
+            result = prime * result + ((releaseComments == null) ? 0 : releaseComments.hashCode());
+            result = prime * result + ((releasedOn == null) ? 0 : releasedOn.hashCode());
+            result = prime * result + ((source == null) ? 0 : source.hashCode());
+            setCachedHashCode(result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final ProjectVersionItem other = (ProjectVersionItem) obj;
+        if (versionName == null) {
+            if (other.versionName != null) {
+                return false;
+            }
+        } else if (!versionName.equals(other.versionName)) {
+            return false;
+        }
+        if (distribution == null) {
+            if (other.distribution != null) {
+                return false;
+            }
+        } else if (!distribution.equals(other.distribution)) {
+            return false;
+        }
+        if (license == null) {
+            if (other.license != null) {
+                return false;
+            }
+        } else if (!license.equals(other.license)) {
+            return false;
+        }
+        if (nickname == null) {
+            if (other.nickname != null) {
+                return false;
+            }
+        } else if (!nickname.equals(other.nickname)) {
+            return false;
+        }
+        if (phase == null) {
+            if (other.phase != null) {
+                return false;
+            }
+        } else if (!phase.equals(other.phase)) {
+            return false;
+        }
+        if (releaseComments == null) {
+            if (other.releaseComments != null) {
+                return false;
+            }
+        } else if (!releaseComments.equals(other.releaseComments)) {
+            return false;
+        }
+        if (releasedOn == null) {
+            if (other.releasedOn != null) {
+                return false;
+            }
+        } else if (!releasedOn.equals(other.releasedOn)) {
+            return false;
+        }
+        if (source == null) {
+            if (other.source != null) {
+                return false;
+            }
+        } else if (!source.equals(other.source)) {
+            return false;
+        }
+        return hubResponseEquals(other);
+    }
+
 }
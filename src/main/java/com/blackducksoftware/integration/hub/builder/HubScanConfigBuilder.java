@@ -64,6 +64,8 @@ public class HubScanConfigBuilder extends AbstractBuilder<HubScanConfig> {
 
     private boolean disableScanTargetPathExistenceCheck;
 
+    private int maxParallelScans = 1;
+
     @Override
     public HubScanConfig buildObject() {
         HubScanConfig config = null;
@@ -71,7 +73,8 @@ public class HubScanConfigBuilder extends AbstractBuilder<HubScanConfig> {
                 .addAll(scanTargetPaths).build();
 
         config = new HubScanConfig(projectName, version, phase, distribution, workingDirectory,
-                NumberUtils.toInt(scanMemory), immutableScanTargetPaths, dryRun, toolsDir, thirdPartyName, thirdPartyVersion, pluginVersion);
+                NumberUtils.toInt(scanMemory), immutableScanTargetPaths, dryRun, toolsDir, thirdPartyName, thirdPartyVersion, pluginVersion,
+                maxParallelScans);
 
         return config;
     }
@@ -146,6 +149,14 @@ public class HubScanConfigBuilder extends AbstractBuilder<HubScanConfig> {
         this.workingDirectory = workingDirectory;
     }
 
+    /**
+     * Scans the targets with up to this many cli processes at once, as far as the processors and memory of the machine
+     * allow.
+     */
+    public void setMaxParallelScans(final int maxParallelScans) {
+        this.maxParallelScans = maxParallelScans;
+    }
+
     public void disableScanTargetPathExistenceCheck() {
         disableScanTargetPathExistenceCheck = true;
     }
@@ -29,6 +29,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 
 import com.blackducksoftware.integration.builder.AbstractBuilder;
+import com.blackducksoftware.integration.hub.global.HubConnectionProfile;
 import com.blackducksoftware.integration.hub.global.HubCredentials;
 import com.blackducksoftware.integration.hub.global.HubProxyInfo;
 import com.blackducksoftware.integration.hub.global.HubServerConfig;
@@ -60,6 +61,18 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
 
     private String ignoredProxyHosts;
 
+    private int maxIdleConnections = HubConnectionProfile.DEFAULT_MAX_IDLE_CONNECTIONS;
+
+    private int keepAliveSeconds = HubConnectionProfile.DEFAULT_KEEP_ALIVE_SECONDS;
+
+    private int maxRequests = HubConnectionProfile.DEFAULT_MAX_REQUESTS;
+
+    private int maxRequestsPerHost = HubConnectionProfile.DEFAULT_MAX_REQUESTS_PER_HOST;
+
+    private boolean http2Enabled = HubConnectionProfile.DEFAULT_HTTP2_ENABLED;
+
+    private int warmUpConnections = HubConnectionProfile.DEFAULT_WARM_UP_CONNECTIONS;
+
     public HubServerConfigBuilder() {
         timeoutSeconds = String.valueOf(DEFAULT_TIMEOUT_SECONDS);
     }
@@ -92,7 +105,9 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
         proxyBuilder.setPassword(getProxyPassword());
         proxyBuilder.setPasswordLength(getProxyPasswordLength());
         final HubProxyInfo proxyInfo = proxyBuilder.build();
-        final HubServerConfig config = new HubServerConfig(hubURL, NumberUtils.toInt(timeoutSeconds), credentials, proxyInfo);
+        final HubConnectionProfile connectionProfile = new HubConnectionProfile(maxIdleConnections, keepAliveSeconds, maxRequests,
+                maxRequestsPerHost, http2Enabled, warmUpConnections);
+        final HubServerConfig config = new HubServerConfig(hubURL, NumberUtils.toInt(timeoutSeconds), credentials, proxyInfo, connectionProfile);
         return config;
     }
 
@@ -109,6 +124,11 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
         validator.setProxyUsername(getProxyUsername());
         validator.setProxyPassword(getProxyPassword());
         validator.setProxyPasswordLength(getProxyPasswordLength());
+        validator.setMaxIdleConnections(getMaxIdleConnections());
+        validator.setKeepAliveSeconds(getKeepAliveSeconds());
+        validator.setMaxRequests(getMaxRequests());
+        validator.setMaxRequestsPerHost(getMaxRequestsPerHost());
+        validator.setWarmUpConnections(getWarmUpConnections());
         return validator;
     }
 
@@ -122,6 +142,12 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
         final String hubIgnoredProxyHosts = properties.getProperty("hub.ignored.proxy.hosts");
         final String hubProxyUsername = properties.getProperty("hub.proxy.username");
         final String hubProxyPassword = properties.getProperty("hub.proxy.password");
+        final String hubMaxIdleConnections = properties.getProperty("hub.connection.max.idle");
+        final String hubKeepAliveSeconds = properties.getProperty("hub.connection.keep.alive");
+        final String hubMaxRequests = properties.getProperty("hub.connection.max.requests");
+        final String hubMaxRequestsPerHost = properties.getProperty("hub.connection.max.requests.per.host");
+        final String hubHttp2Enabled = properties.getProperty("hub.connection.http2.enabled");
+        final String hubWarmUpConnections = properties.getProperty("hub.connection.warm.up");
 
         setHubUrl(hubUrl);
         setUsername(hubUsername);
@@ -132,6 +158,14 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
         setIgnoredProxyHosts(hubIgnoredProxyHosts);
         setProxyUsername(hubProxyUsername);
         setProxyPassword(hubProxyPassword);
+        setMaxIdleConnections(NumberUtils.toInt(hubMaxIdleConnections, maxIdleConnections));
+        setKeepAliveSeconds(NumberUtils.toInt(hubKeepAliveSeconds, keepAliveSeconds));
+        setMaxRequests(NumberUtils.toInt(hubMaxRequests, maxRequests));
+        setMaxRequestsPerHost(NumberUtils.toInt(hubMaxRequestsPerHost, maxRequestsPerHost));
+        if (StringUtils.isNotBlank(hubHttp2Enabled)) {
+            setHttp2Enabled(Boolean.parseBoolean(hubHttp2Enabled.trim()));
+        }
+        setWarmUpConnections(NumberUtils.toInt(hubWarmUpConnections, warmUpConnections));
     }
 
     public void setHubUrl(final String hubUrl) {
@@ -237,4 +271,56 @@ public class HubServerConfigBuilder extends AbstractBuilder<HubServerConfig> {
     public void setIgnoredProxyHosts(final String ignoredProxyHosts) {
         this.ignoredProxyHosts = ignoredProxyHosts;
     }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(final int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public int getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public void setKeepAliveSeconds(final int keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(final int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    /**
+     * Every Hub call goes to the same host, so this is the real limit on how many Hub calls run at once.
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(final int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public void setHttp2Enabled(final boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    public void setWarmUpConnections(final int warmUpConnections) {
+        this.warmUpConnections = warmUpConnections;
+    }
+
 }
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+import com.blackducksoftware.integration.hub.api.item.HubResponse;
+
+/**
+ * Holds items that were retrieved by their url so they do not have to be requested from the Hub again. The same cache
+ * may be used by many threads at once, so implementations must be thread safe.
+ */
+public interface HubResponseCache {
+    /**
+     * @return the cached item, or null if there is no usable item cached for this url and class.
+     */
+    public <T extends HubResponse> T get(String url, Class<T> clazz);
+
+    public <T extends HubResponse> void put(String url, Class<T> clazz, T item);
+
+    public void invalidate(String url);
+
+    public void invalidateAll();
+
+}
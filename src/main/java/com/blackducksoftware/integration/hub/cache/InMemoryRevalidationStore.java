@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * Keeps stored responses in memory, bounded by the total size of their bodies. The least recently used responses are
+ * dropped first once the bound is reached.
+ */
+public class InMemoryRevalidationStore implements RevalidationStore {
+    private final Cache<String, StoredResponse> cache;
+
+    public InMemoryRevalidationStore(final long maximumBodyBytes) {
+        cache = CacheBuilder.newBuilder().maximumWeight(maximumBodyBytes).weigher(new Weigher<String, StoredResponse>() {
+            @Override
+            public int weigh(final String url, final StoredResponse storedResponse) {
+                return storedResponse.getBody().length;
+            }
+        }).build();
+    }
+
+    @Override
+    public StoredResponse get(final String url) {
+        return cache.getIfPresent(url);
+    }
+
+    @Override
+    public void put(final String url, final StoredResponse storedResponse) {
+        cache.put(url, storedResponse);
+    }
+
+    @Override
+    public void invalidate(final String url) {
+        cache.invalidate(url);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+}
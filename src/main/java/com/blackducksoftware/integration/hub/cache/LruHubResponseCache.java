@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.blackducksoftware.integration.hub.api.item.HubResponse;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * A size bounded cache that evicts the least recently used items first. Each item also expires after the time to live
+ * of its class, or the default time to live if its class was not configured. A time to live of zero keeps that class
+ * out of the cache entirely.
+ *
+ * The cached items are shared by every caller, so they should be treated as read only.
+ */
+public class LruHubResponseCache implements HubResponseCache {
+    private final Cache<CacheKey, CacheEntry> cache;
+
+    private final Ticker ticker;
+
+    private final long defaultTimeToLiveNanos;
+
+    private final Map<Class<?>, Long> timeToLiveNanos = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public LruHubResponseCache(final long maximumSize, final long defaultTimeToLive, final TimeUnit timeUnit) {
+        this(maximumSize, defaultTimeToLive, timeUnit, Ticker.systemTicker());
+    }
+
+    public LruHubResponseCache(final long maximumSize, final long defaultTimeToLive, final TimeUnit timeUnit, final Ticker ticker) {
+        this.ticker = ticker;
+        this.defaultTimeToLiveNanos = timeUnit.toNanos(defaultTimeToLive);
+        cache = CacheBuilder.newBuilder().maximumSize(maximumSize).removalListener(new RemovalListener<CacheKey, CacheEntry>() {
+            @Override
+            public void onRemoval(final RemovalNotification<CacheKey, CacheEntry> notification) {
+                if (notification.getCause() == RemovalCause.SIZE) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }).build();
+    }
+
+    public LruHubResponseCache setTimeToLive(final Class<? extends HubResponse> clazz, final long timeToLive, final TimeUnit timeUnit) {
+        timeToLiveNanos.put(clazz, timeUnit.toNanos(timeToLive));
+        return this;
+    }
+
+    @Override
+    public <T extends HubResponse> T get(final String url, final Class<T> clazz) {
+        final CacheKey key = new CacheKey(url, clazz);
+        final CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (ticker.read() - entry.expiresAt >= 0) {
+            cache.asMap().remove(key, entry);
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return clazz.cast(entry.item);
+    }
+
+    @Override
+    public <T extends HubResponse> void put(final String url, final Class<T> clazz, final T item) {
+        final long timeToLive = getTimeToLiveNanos(clazz);
+        if (timeToLive > 0 && item != null) {
+            cache.put(new CacheKey(url, clazz), new CacheEntry(item, ticker.read() + timeToLive));
+        }
+    }
+
+    @Override
+    public void invalidate(final String url) {
+        for (final CacheKey key : cache.asMap().keySet()) {
+            if (key.url.equals(url)) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Provides the hit, miss and eviction counts of this cache. Items that had expired count as misses and evictions
+     * only count items removed to stay within the maximum size.
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+    }
+
+    private long getTimeToLiveNanos(final Class<?> clazz) {
+        final Long timeToLive = timeToLiveNanos.get(clazz);
+        if (timeToLive == null) {
+            return defaultTimeToLiveNanos;
+        }
+        return timeToLive;
+    }
+
+    private static class CacheKey {
+        private final String url;
+
+        private final Class<?> clazz;
+
+        public CacheKey(final String url, final Class<?> clazz) {
+            this.url = url;
+            this.clazz = clazz;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * url.hashCode() + clazz.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return url.equals(other.url) && clazz.equals(other.clazz);
+        }
+    }
+
+    private static class CacheEntry {
+        private final HubResponse item;
+
+        private final long expiresAt;
+
+        public CacheEntry(final HubResponse item, final long expiresAt) {
+            this.item = item;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
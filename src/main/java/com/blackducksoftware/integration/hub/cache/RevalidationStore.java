@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+/**
+ * Holds the last response body received for a url along with the validators (ETag and Last-Modified) the Hub sent
+ * with it, so the next request for that url can be made conditional. The same store may be used by many threads at
+ * once, so implementations must be thread safe.
+ */
+public interface RevalidationStore {
+    /**
+     * @return the stored response, or null if nothing is stored for this url.
+     */
+    public StoredResponse get(String url);
+
+    public void put(String url, StoredResponse storedResponse);
+
+    public void invalidate(String url);
+
+    public void invalidateAll();
+
+}
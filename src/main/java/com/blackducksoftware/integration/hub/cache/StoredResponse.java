@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A response body kept by a RevalidationStore along with the headers needed to revalidate and replay it.
+ */
+public class StoredResponse {
+    private final String eTag;
+
+    private final String lastModified;
+
+    private final String accept;
+
+    private final String contentType;
+
+    private final byte[] body;
+
+    public StoredResponse(final String eTag, final String lastModified, final String accept, final String contentType, final byte[] body) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.accept = accept;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * The Accept header of the request that produced this response. A request that accepts something else can not be
+     * answered with this body.
+     */
+    public String getAccept() {
+        return accept;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * The stored bytes are shared, so they must not be modified.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("eTag", eTag).append("lastModified", lastModified)
+                .append("accept", accept).append("contentType", contentType).append("bodyLength", body.length).toString();
+    }
+
+}
@@ -27,12 +27,25 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -46,6 +59,7 @@ import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.log.IntLogger;
 import com.blackducksoftware.integration.util.CIEnvironmentVariables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import okhttp3.HttpUrl;
 import okhttp3.Request;
@@ -53,6 +67,16 @@ import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 public class CLIDownloadService {
+    // unpacking is mostly spent creating small files, where the threads wait on the file system rather than inflate,
+    // so more threads than processors keep the disk busy. CLIDownloadServiceUnzipBenchmark measures other counts.
+    private static final int UNZIP_THREADS_PER_PROCESSOR = 2;
+
+    // daemon threads, so the pool of an abandoned unzip cannot keep the JVM alive
+    private static final ThreadFactory UNZIP_THREAD_FACTORY = new ThreadFactoryBuilder().setNameFormat("hub-cli-unzip-%d").setDaemon(true)
+            .build();
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     private final IntLogger logger;
 
     private final RestConnection restConnection;
@@ -120,7 +144,9 @@ public class CLIDownloadService {
             try {
                 HttpUrl httpUrl = restConnection.createHttpUrl(archive);
                 Map<String, String> headers = new HashMap<>();
-                headers.put("If-Modified-Since", String.valueOf(cliTimestamp));
+                if (cliTimestamp > 0L) {
+                    headers.put("If-Modified-Since", RestConnection.formatHttpDate(new Date(cliTimestamp)));
+                }
                 Request request = restConnection.createGetRequest(httpUrl, headers);
                 response = restConnection.handleExecuteClientCall(request);
             } catch (final IOException ioe) {
@@ -130,6 +156,8 @@ public class CLIDownloadService {
             }
             if (response.code() == 304) {
                 // CLI has not been modified
+                response.body().close();
+                logger.debug("The current Hub CLI is up to date.");
                 return;
             }
             String lastModified = response.header("Last-Modified");
@@ -215,49 +243,152 @@ public class CLIDownloadService {
 
         try {
             copyInputStreamToFile(in, tmpFile);
-            unzip(dir, tmpFile, logger);
+            unzip(dir, tmpFile, logger, Runtime.getRuntime().availableProcessors() * UNZIP_THREADS_PER_PROCESSOR);
         } finally {
             tmpFile.delete();
         }
     }
 
-    private void unzip(File dir, final File zipFile, final IntLogger logger) throws IOException {
+    /**
+     * The directories are created first, then the files are written by several threads at once. The ZipFile
+     * synchronizes its reads of the archive, so the threads share it and inflate their entries independently. At most
+     * maxThreads threads write files, and an archive is unpacked on the calling thread when maxThreads is one.
+     */
+    void unzip(File dir, final File zipFile, final IntLogger logger, final int maxThreads) throws IOException {
         // without getAbsoluteFile, getParentFile below seems to fail
         dir = dir.getAbsoluteFile();
         final ZipFile zip = new ZipFile(zipFile);
-        final Enumeration<ZipEntry> entries = zip.getEntries();
         try {
+            final List<ZipEntry> fileEntries = new ArrayList<>();
+            final Set<File> directories = new HashSet<>();
+            final Enumeration<ZipEntry> entries = zip.getEntries();
             while (entries.hasMoreElements()) {
                 final ZipEntry e = entries.nextElement();
                 final File f = new File(dir, e.getName());
                 if (e.isDirectory()) {
-                    f.mkdirs();
+                    if (directories.add(f)) {
+                        f.mkdirs();
+                    }
                 } else {
                     final File p = f.getParentFile();
-                    if (p != null) {
+                    if (p != null && directories.add(p)) {
                         p.mkdirs();
                     }
-                    final InputStream input = zip.getInputStream(e);
-                    try {
-                        copyInputStreamToFile(input, f);
-                    } finally {
-                        input.close();
-                    }
-                    f.setLastModified(e.getTime());
+                    fileEntries.add(e);
                 }
             }
+
+            final int threadCount = Math.min(fileEntries.size(), maxThreads);
+            final AtomicInteger nextEntryIndex = new AtomicInteger();
+            if (threadCount <= 1) {
+                new UnzipCallable(dir, zip, fileEntries, nextEntryIndex).call();
+                return;
+            }
+            logger.debug(String.format("Unpacking %d files with %d threads.", fileEntries.size(), threadCount));
+            final ExecutorService executorService = Executors.newFixedThreadPool(threadCount, UNZIP_THREAD_FACTORY);
+            try {
+                final List<Future<Void>> unzipFutures = new ArrayList<>(threadCount);
+                for (int i = 0; i < threadCount; i++) {
+                    unzipFutures.add(executorService.submit(new UnzipCallable(dir, zip, fileEntries, nextEntryIndex)));
+                }
+                for (final Future<Void> unzipFuture : unzipFutures) {
+                    unzipFuture.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while unpacking " + zipFile.getName());
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            } finally {
+                // a failed or interrupted unzip stops the other threads, and they must be done with the zip before it
+                // is closed
+                executorService.shutdownNow();
+                awaitTermination(executorService);
+            }
         } finally {
             zip.close();
         }
     }
 
+    private void awaitTermination(final ExecutorService executorService) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    // the threads check for the interrupt between files, so this waits for at most one file each
+                    if (executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                        return;
+                    }
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private void copyInputStreamToFile(final InputStream in, final File f) throws IOException {
+        copyInputStreamToFile(in, f, new byte[COPY_BUFFER_SIZE]);
+    }
+
+    private void copyInputStreamToFile(final InputStream in, final File f, final byte[] buffer) throws IOException {
         final FileOutputStream fos = new FileOutputStream(f);
         try {
-            org.apache.commons.io.IOUtils.copy(in, fos);
+            org.apache.commons.io.IOUtils.copyLarge(in, fos, buffer);
         } finally {
             org.apache.commons.io.IOUtils.closeQuietly(fos);
         }
     }
 
+    /**
+     * Writes the files of the archive until there are none left. Every thread takes the next entry from the shared
+     * index, so a thread held up by one large file does not hold up the rest.
+     */
+    private class UnzipCallable implements Callable<Void> {
+        private final File dir;
+
+        private final ZipFile zip;
+
+        private final List<ZipEntry> fileEntries;
+
+        private final AtomicInteger nextEntryIndex;
+
+        private final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+        public UnzipCallable(final File dir, final ZipFile zip, final List<ZipEntry> fileEntries, final AtomicInteger nextEntryIndex) {
+            this.dir = dir;
+            this.zip = zip;
+            this.fileEntries = fileEntries;
+            this.nextEntryIndex = nextEntryIndex;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            int entryIndex;
+            while ((entryIndex = nextEntryIndex.getAndIncrement()) < fileEntries.size()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Interrupted while unpacking " + dir.getName());
+                }
+                final ZipEntry e = fileEntries.get(entryIndex);
+                final File f = new File(dir, e.getName());
+                final InputStream input = zip.getInputStream(e);
+                try {
+                    copyInputStreamToFile(input, f, buffer);
+                } finally {
+                    input.close();
+                }
+                f.setLastModified(e.getTime());
+            }
+            return null;
+        }
+    }
+
 }
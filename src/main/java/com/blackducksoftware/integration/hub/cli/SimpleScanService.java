@@ -23,17 +23,24 @@ package com.blackducksoftware.integration.hub.cli;
 
 import static java.lang.ProcessBuilder.Redirect.PIPE;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -41,6 +48,7 @@ import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 import com.blackducksoftware.integration.exception.EncryptionException;
+import com.blackducksoftware.integration.hub.AsyncIntLogger;
 import com.blackducksoftware.integration.hub.HubSupportHelper;
 import com.blackducksoftware.integration.hub.ScannerSplitStream;
 import com.blackducksoftware.integration.hub.StreamRedirectThread;
@@ -84,6 +92,10 @@ public class SimpleScanService extends HubRequestService {
 
     private File logDirectory;
 
+    private final List<File> scanLogDirectories = new ArrayList<>();
+
+    private int maxParallelScans = 1;
+
     public SimpleScanService(IntLogger logger, RestConnection restConnection, HubServerConfig hubServerConfig, HubSupportHelper hubSupportHelper,
             CIEnvironmentVariables ciEnvironmentVariables, final File directoryToInstallTo, int scanMemory, boolean dryRun, String project,
             String version, List<String> scanTargetPaths, File workingDirectory) {
@@ -112,6 +124,7 @@ public class SimpleScanService extends HubRequestService {
      * @throws ScanFailedException
      */
     public void setupAndExecuteScan() throws IllegalArgumentException, EncryptionException, HubIntegrationException {
+        scanLogDirectories.clear();
         final CLILocation cliLocation = new CLILocation(directoryToInstallTo);
         String pathToJavaExecutable;
         String pathToOneJar;
@@ -174,13 +187,115 @@ public class SimpleScanService extends HubRequestService {
 
         makeVerbose(cmd);
 
-        final String logDirectoryPath;
         try {
             populateLogDirectory();
-            logDirectoryPath = logDirectory.getCanonicalPath();
         } catch (final IOException e) {
             throw new HubIntegrationException("Exception creating the log directory for the cli scan: " + e.getMessage(), e);
         }
+
+        final List<List<String>> scanTargetPartitions = partitionScanTargets();
+        if (scanTargetPartitions.size() <= 1) {
+            scanLogDirectories.add(logDirectory);
+            try {
+                addScanOptions(cmd, logDirectory, scanTargetPaths);
+                executeScan(cmd, logDirectory, logger);
+            } catch (final IOException e) {
+                throw new HubIntegrationException("Exception executing the cli scan: " + e.getMessage(), e);
+            }
+        } else {
+            executeScansInParallel(scanTargetPartitions);
+        }
+    }
+
+    /**
+     * Splits the scan targets between as many cli processes as the maximum number of parallel scans, the available
+     * processors and the physical memory (scanMemory for each process) allow.
+     */
+    private List<List<String>> partitionScanTargets() {
+        final int scanCount = Math.min(Math.min(maxParallelScans, getMaxConcurrentScans()), scanTargetPaths.size());
+        final List<List<String>> scanTargetPartitions = new ArrayList<>();
+        for (int scanIndex = 0; scanIndex < scanCount; scanIndex++) {
+            scanTargetPartitions.add(new ArrayList<String>());
+        }
+        for (int targetIndex = 0; targetIndex < scanTargetPaths.size(); targetIndex++) {
+            scanTargetPartitions.get(targetIndex % scanCount).add(scanTargetPaths.get(targetIndex));
+        }
+        return scanTargetPartitions;
+    }
+
+    /**
+     * The number of cli processes this machine can run at the same time. This method can be overridden when the scans
+     * run somewhere other than the local machine.
+     */
+    // getTotalPhysicalMemorySize is deprecated from Java 14 for getTotalMemorySize, which Java 7 does not have
+    @SuppressWarnings("deprecation")
+    protected int getMaxConcurrentScans() {
+        int maxConcurrentScans = Runtime.getRuntime().availableProcessors();
+        final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        if (scanMemory > 0 && operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            final long physicalMemoryMegabytes = ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean).getTotalPhysicalMemorySize() / (1024 * 1024);
+            maxConcurrentScans = (int) Math.min(maxConcurrentScans, physicalMemoryMegabytes / scanMemory);
+        }
+        return Math.max(1, maxConcurrentScans);
+    }
+
+    private void executeScansInParallel(final List<List<String>> scanTargetPartitions) throws EncryptionException, HubIntegrationException {
+        logger.info(String.format("Scanning the %d targets with %d cli processes.", scanTargetPaths.size(), scanTargetPartitions.size()));
+        final ExecutorService executorService = Executors.newFixedThreadPool(scanTargetPartitions.size());
+        // the scans share one logger so the underlying logger is only called from one thread at a time
+        try (AsyncIntLogger scanLogger = new AsyncIntLogger(logger)) {
+            // every directory and command is built before the first scan starts, so a failure here leaves no cli process
+            // running
+            final List<ScanCallable> scanCallables = new ArrayList<>(scanTargetPartitions.size());
+            for (int scanIndex = 0; scanIndex < scanTargetPartitions.size(); scanIndex++) {
+                final File scanLogDirectory = new File(logDirectory, "scan_" + (scanIndex + 1));
+                if (!scanLogDirectory.exists() && !scanLogDirectory.mkdirs()) {
+                    throw new HubIntegrationException("Could not create the log directory " + scanLogDirectory.getAbsolutePath());
+                }
+                scanLogDirectories.add(scanLogDirectory);
+                final List<String> scanCmd = new ArrayList<>(cmd);
+                addScanOptions(scanCmd, scanLogDirectory, scanTargetPartitions.get(scanIndex));
+                scanCallables.add(new ScanCallable(scanCmd, scanLogDirectory, scanLogger));
+            }
+            final List<Future<Void>> scanFutures = new ArrayList<>(scanCallables.size());
+            for (final ScanCallable scanCallable : scanCallables) {
+                scanFutures.add(executorService.submit(scanCallable));
+            }
+
+            // every scan is waited for, so no cli process is left running when one of them fails
+            ExecutionException firstFailure = null;
+            for (final Future<Void> scanFuture : scanFutures) {
+                try {
+                    scanFuture.get();
+                } catch (final ExecutionException e) {
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    } else {
+                        scanLogger.error("Another cli scan failed: " + e.getCause().getMessage());
+                    }
+                }
+            }
+            if (firstFailure != null) {
+                final Throwable cause = firstFailure.getCause();
+                if (cause instanceof HubIntegrationException) {
+                    throw (HubIntegrationException) cause;
+                } else if (cause instanceof EncryptionException) {
+                    throw (EncryptionException) cause;
+                }
+                throw new HubIntegrationException("Exception executing the cli scan: " + cause.getMessage(), cause);
+            }
+        } catch (final IOException e) {
+            throw new HubIntegrationException("Exception creating the log directory for the cli scan: " + e.getMessage(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("The thread waiting for the cli scans to complete was interrupted: " + e.getMessage(), e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void addScanOptions(final List<String> cmd, final File scanLogDirectory, final List<String> targets) throws IOException {
+        final String logDirectoryPath = scanLogDirectory.getCanonicalPath();
         cmd.add("--logDir");
         cmd.add(logDirectoryPath);
 
@@ -206,32 +321,29 @@ public class SimpleScanService extends HubRequestService {
             cmd.add(version);
         }
 
-        for (final String target : scanTargetPaths) {
+        for (final String target : targets) {
             cmd.add(target);
         }
-
-        try {
-            executeScan();
-        } catch (final IOException e) {
-            throw new HubIntegrationException("Exception executing the cli scan: " + e.getMessage(), e);
-        }
     }
 
     /**
      * If running in an environment that handles process creation, this method should be overridden to construct a
-     * process to execute the scan in the environment-specific way.
+     * process to execute the scan in the environment-specific way. The status files of the scan are expected in the
+     * status directory under logDirectory.
      *
      * @throws IOException
      * @throws HubIntegrationException
      */
-    private void executeScan()
+    protected void executeScan(final List<String> cmd, final File logDirectory, final IntLogger logger)
             throws IllegalArgumentException, EncryptionException, IOException, HubIntegrationException {
-        printCommand();
+        printCommand(cmd, logger);
 
         final File standardOutFile = new File(logDirectory, "CLI_Output.txt");
         standardOutFile.createNewFile();
-        try (FileOutputStream outputFileStream = new FileOutputStream(standardOutFile)) {
-            final ScannerSplitStream splitOutputStream = new ScannerSplitStream(logger, outputFileStream);
+        try (FileOutputStream outputFileStream = new FileOutputStream(standardOutFile);
+                AsyncIntLogger cliLogger = new AsyncIntLogger(logger)) {
+            // the cli log is written on a thread of its own so a slow logger does not hold up reading the error stream
+            final ScannerSplitStream splitOutputStream = new ScannerSplitStream(cliLogger, outputFileStream);
             final ProcessBuilder processBuilder = new ProcessBuilder(cmd).redirectError(PIPE).redirectOutput(PIPE);
 
             processBuilder.environment().put("BD_HUB_PASSWORD", hubServerConfig.getGlobalCredentials().getDecryptedPassword());
@@ -244,8 +356,14 @@ public class SimpleScanService extends HubRequestService {
             final Process hubCliProcess = processBuilder.start();
 
             // The cli logs go the error stream for some reason
-            final StreamRedirectThread redirectThread = new StreamRedirectThread(hubCliProcess.getErrorStream(), splitOutputStream);
+            final StreamRedirectThread redirectThread = new StreamRedirectThread("Hub CLI Error Stream", hubCliProcess.getErrorStream(),
+                    splitOutputStream);
             redirectThread.start();
+            // standard out is drained at the same time, a full pipe would block the cli before it could exit
+            final ByteArrayOutputStream standardOut = new ByteArrayOutputStream();
+            final StreamRedirectThread standardOutThread = new StreamRedirectThread("Hub CLI Output Stream", hubCliProcess.getInputStream(),
+                    standardOut);
+            standardOutThread.start();
 
             int returnCode = -1;
             try {
@@ -254,13 +372,24 @@ public class SimpleScanService extends HubRequestService {
                 // the join method on the redirect thread will wait until the thread is dead
                 // the thread will die when it reaches the end of stream and the run method is finished
                 redirectThread.join();
+                standardOutThread.join();
             } catch (final InterruptedException e) {
+                // the cli must not outlive the scan that started it
+                hubCliProcess.destroy();
+                Thread.currentThread().interrupt();
                 throw new HubIntegrationException("The thread waiting for the cli to complete was interrupted: " + e.getMessage(), e);
             }
 
             splitOutputStream.flush();
+            cliLogger.close();
+            if (cliLogger.getDroppedCount() > 0) {
+                logger.debug(String.format("%d of the cli debug messages were not logged to keep up with the cli.", cliLogger.getDroppedCount()));
+            }
+            if (redirectThread.getException() != null) {
+                logger.warn("Could not read all of the cli log: " + redirectThread.getException().getMessage());
+            }
 
-            logger.info(IOUtils.toString(hubCliProcess.getInputStream(), StandardCharsets.UTF_8));
+            logger.info(new String(standardOut.toByteArray(), StandardCharsets.UTF_8));
 
             logger.info("Hub CLI return code : " + returnCode);
             logger.info("You can view the BlackDuck Scan CLI logs at : '" + logDirectory.getCanonicalPath() + "'");
@@ -272,20 +401,24 @@ public class SimpleScanService extends HubRequestService {
     }
 
     /**
-     * For all error cases, return an empty list. If all goes well, return a list of scan summary urls.
+     * For all error cases, return an empty list. If all goes well, return a list of scan summary urls. When the targets
+     * were scanned in parallel, the status files of every cli process are merged.
      */
     public List<ScanSummaryItem> getScanSummaryItems() {
         if (logDirectory == null || !logDirectory.exists()) {
             return Collections.emptyList();
         }
-        final File scanStatusDirectory = new File(logDirectory, "status");
-        if (!scanStatusDirectory.exists()) {
-            return Collections.emptyList();
+        final List<File> statusFiles = new ArrayList<>();
+        for (final File scanLogDirectory : scanLogDirectories) {
+            final File scanStatusDirectory = new File(scanLogDirectory, "status");
+            if (!scanStatusDirectory.exists()) {
+                return Collections.emptyList();
+            }
+            statusFiles.addAll(Arrays.asList(scanStatusDirectory.listFiles()));
         }
-        final File[] statusFiles = scanStatusDirectory.listFiles();
 
-        if (statusFiles.length != scanTargetPaths.size()) {
-            logger.error(String.format("There were %d scans target paths and %d status files.", scanTargetPaths.size(), statusFiles.length));
+        if (statusFiles.size() != scanTargetPaths.size()) {
+            logger.error(String.format("There were %d scans target paths and %d status files.", scanTargetPaths.size(), statusFiles.size()));
             return Collections.emptyList();
         }
 
@@ -299,7 +432,9 @@ public class SimpleScanService extends HubRequestService {
                 return Collections.emptyList();
             }
             final ScanSummaryItem scanSummaryItem = getRestConnection().getGson().fromJson(fileContent, ScanSummaryItem.class);
-            scanSummaryItem.setJson(fileContent);
+            if (getRestConnection().isRetainItemJson()) {
+                scanSummaryItem.setJson(fileContent);
+            }
             scanSummaryItems.add(scanSummaryItem);
         }
 
@@ -329,7 +464,7 @@ public class SimpleScanService extends HubRequestService {
     /**
      * Code to mask passwords in the logs
      */
-    private void printCommand() {
+    private void printCommand(final List<String> cmd, final IntLogger logger) {
         final List<String> cmdToOutput = new ArrayList<>();
         cmdToOutput.addAll(cmd);
 
@@ -373,6 +508,9 @@ public class SimpleScanService extends HubRequestService {
         return logger;
     }
 
+    /**
+     * When the targets are scanned in parallel, this is the part of the command every cli process shares.
+     */
     public List<String> getCmd() {
         return cmd;
     }
@@ -381,4 +519,44 @@ public class SimpleScanService extends HubRequestService {
         return logDirectory;
     }
 
+    /**
+     * @return the log directory of each cli process, the log directory itself unless the targets were scanned in
+     *         parallel.
+     */
+    public List<File> getScanLogDirectories() {
+        return scanLogDirectories;
+    }
+
+    public int getMaxParallelScans() {
+        return maxParallelScans;
+    }
+
+    /**
+     * The targets are split between up to this many cli processes, each with its own log directory under the log
+     * directory. The default of 1 runs every target in one process.
+     */
+    public void setMaxParallelScans(final int maxParallelScans) {
+        this.maxParallelScans = Math.max(1, maxParallelScans);
+    }
+
+    private class ScanCallable implements Callable<Void> {
+        private final List<String> scanCmd;
+
+        private final File scanLogDirectory;
+
+        private final IntLogger scanLogger;
+
+        public ScanCallable(final List<String> scanCmd, final File scanLogDirectory, final IntLogger scanLogger) {
+            this.scanCmd = scanCmd;
+            this.scanLogDirectory = scanLogDirectory;
+            this.scanLogger = scanLogger;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            executeScan(scanCmd, scanLogDirectory, scanLogger);
+            return null;
+        }
+    }
+
 }
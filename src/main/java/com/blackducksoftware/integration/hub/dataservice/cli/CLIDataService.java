@@ -81,6 +81,7 @@ public class CLIDataService extends HubRequestService {
                 hubScanConfig.getToolsDir(),
                 hubScanConfig.getScanMemory(), hubScanConfig.isDryRun(), hubScanConfig.getProjectName(), hubScanConfig.getVersion(),
                 hubScanConfig.getScanTargetPaths(), hubScanConfig.getWorkingDirectory());
+        simpleScanService.setMaxParallelScans(hubScanConfig.getMaxParallelScans());
         simpleScanService.setupAndExecuteScan();
         return simpleScanService.getScanSummaryItems();
     }
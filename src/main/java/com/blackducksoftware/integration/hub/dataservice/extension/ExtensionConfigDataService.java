@@ -21,6 +21,7 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.dataservice.extension;
 
+import java.io.Closeable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -35,13 +36,14 @@ import com.blackducksoftware.integration.hub.api.item.MetaService;
 import com.blackducksoftware.integration.hub.api.user.UserRequestService;
 import com.blackducksoftware.integration.hub.dataservice.extension.item.UserConfigItem;
 import com.blackducksoftware.integration.hub.dataservice.extension.transformer.UserConfigTransform;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ExecutionStrategy;
 import com.blackducksoftware.integration.hub.dataservice.parallel.ParallelResourceProcessor;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.service.HubRequestService;
 import com.blackducksoftware.integration.log.IntLogger;
 
-public class ExtensionConfigDataService extends HubRequestService {
+public class ExtensionConfigDataService extends HubRequestService implements Closeable {
 
     private final HubRequestService hubRequestService;
 
@@ -59,17 +61,34 @@ public class ExtensionConfigDataService extends HubRequestService {
             final HubRequestService hubRequestService,
             final ExtensionConfigRequestService extensionConfigRequestService,
             final ExtensionUserOptionRequestService extensionUserOptionRequestService, MetaService metaService) {
+        this(logger, restConnection, userRequestService, hubRequestService, extensionConfigRequestService, extensionUserOptionRequestService, metaService,
+                ExecutionStrategy.IO_BOUND);
+    }
+
+    public ExtensionConfigDataService(IntLogger logger, final RestConnection restConnection, final UserRequestService userRequestService,
+            final HubRequestService hubRequestService,
+            final ExtensionConfigRequestService extensionConfigRequestService,
+            final ExtensionUserOptionRequestService extensionUserOptionRequestService, MetaService metaService,
+            final ExecutionStrategy executionStrategy) {
         super(restConnection);
         this.hubRequestService = hubRequestService;
         this.extensionConfigRequestService = extensionConfigRequestService;
         this.extensionUserOptionRequestService = extensionUserOptionRequestService;
         this.metaService = metaService;
         userConfigTransform = new UserConfigTransform(userRequestService, extensionConfigRequestService);
-        parallelProcessor = new ParallelResourceProcessor<>(logger);
+        parallelProcessor = new ParallelResourceProcessor<>(logger, executionStrategy);
         parallelProcessor.addTransform(UserOptionLinkItem.class, userConfigTransform);
 
     }
 
+    /**
+     * Releases the transform threads once the transforms already submitted finish.
+     */
+    @Override
+    public void close() {
+        parallelProcessor.close();
+    }
+
     public Map<String, ConfigurationItem> getGlobalConfigMap(final String extensionUrl) throws HubIntegrationException {
         Map<String, ConfigurationItem> globalConfigMap = new HashMap<>();
         final ExtensionItem extension = hubRequestService.getItem(extensionUrl, ExtensionItem.class);
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * The high-water mark of an incremental notification feed: the newest createdAt that was consumed, along with the ids
+ * of the notifications consumed at exactly that time. Notifications that share the last timestamp can arrive across
+ * polls, so the ids are what keeps them from being either lost or returned twice.
+ */
+public class NotificationCursor {
+    private static final Gson GSON = new Gson();
+
+    // stored as millis, the default Gson date format would drop the milliseconds
+    private long lastCreatedAt = -1L;
+
+    private Set<String> idsAtLastCreatedAt = new HashSet<>();
+
+    /**
+     * @return the cursor saved in the file, or an empty cursor if the file does not exist yet.
+     */
+    public static NotificationCursor load(final File cursorFile) throws HubIntegrationException {
+        if (!cursorFile.isFile()) {
+            return new NotificationCursor();
+        }
+        try (Reader reader = Files.newBufferedReader(cursorFile.toPath(), StandardCharsets.UTF_8)) {
+            final NotificationCursor cursor = GSON.fromJson(reader, NotificationCursor.class);
+            if (cursor == null) {
+                return new NotificationCursor();
+            }
+            if (cursor.idsAtLastCreatedAt == null) {
+                cursor.idsAtLastCreatedAt = new HashSet<>();
+            }
+            return cursor;
+        } catch (final IOException | JsonParseException e) {
+            throw new HubIntegrationException("Could not read the notification cursor from " + cursorFile.getAbsolutePath() + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes to a temporary file that then replaces the cursor file, so a crash never leaves a partly written cursor.
+     */
+    public void save(final File cursorFile) throws HubIntegrationException {
+        final File directory = cursorFile.getAbsoluteFile().getParentFile();
+        try {
+            Files.createDirectories(directory.toPath());
+            final File tempFile = File.createTempFile(cursorFile.getName(), ".tmp", directory);
+            boolean moved = false;
+            try {
+                try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                    GSON.toJson(this, writer);
+                }
+                Files.move(tempFile.toPath(), cursorFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                if (!moved) {
+                    // a failed save leaves no temporary file behind next to the cursor
+                    tempFile.delete();
+                }
+            }
+        } catch (final IOException e) {
+            throw new HubIntegrationException("Could not save the notification cursor to " + cursorFile.getAbsolutePath() + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return null if nothing has been consumed yet.
+     */
+    public Date getLastCreatedAt() {
+        if (lastCreatedAt < 0) {
+            return null;
+        }
+        return new Date(lastCreatedAt);
+    }
+
+    public boolean isNew(final Date createdAt, final String id) {
+        final long time = createdAt.getTime();
+        return time > lastCreatedAt || (time == lastCreatedAt && !idsAtLastCreatedAt.contains(id));
+    }
+
+    public void advance(final Date createdAt, final String id) {
+        final long time = createdAt.getTime();
+        if (time > lastCreatedAt) {
+            lastCreatedAt = time;
+            idsAtLastCreatedAt.clear();
+        }
+        if (time == lastCreatedAt) {
+            idsAtLastCreatedAt.add(id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("lastCreatedAt", getLastCreatedAt())
+                .append("idsAtLastCreatedAt", idsAtLastCreatedAt.size()).toString();
+    }
+
+}
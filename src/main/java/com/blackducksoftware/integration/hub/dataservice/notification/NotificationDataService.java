@@ -21,10 +21,17 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.dataservice.notification;
 
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 
 import com.blackducksoftware.integration.hub.api.item.MetaService;
 import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
@@ -39,17 +46,29 @@ import com.blackducksoftware.integration.hub.api.user.UserItem;
 import com.blackducksoftware.integration.hub.api.version.VersionBomPolicyRequestService;
 import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
 import com.blackducksoftware.integration.hub.dataservice.notification.item.PolicyNotificationFilter;
+import com.blackducksoftware.integration.hub.dataservice.notification.transformer.AbstractNotificationTransformer;
+import com.blackducksoftware.integration.hub.dataservice.notification.transformer.NotificationBatch;
+import com.blackducksoftware.integration.hub.dataservice.notification.transformer.NotificationBatchTransformer;
 import com.blackducksoftware.integration.hub.dataservice.notification.transformer.PolicyViolationClearedTransformer;
 import com.blackducksoftware.integration.hub.dataservice.notification.transformer.PolicyViolationOverrideTransformer;
 import com.blackducksoftware.integration.hub.dataservice.notification.transformer.PolicyViolationTransformer;
 import com.blackducksoftware.integration.hub.dataservice.notification.transformer.VulnerabilityTransformer;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ExecutionStrategy;
 import com.blackducksoftware.integration.hub.dataservice.parallel.ParallelResourceProcessor;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ProcessingSummary;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ResultHandler;
+import com.blackducksoftware.integration.hub.dataservice.parallel.RetryPolicy;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.service.HubRequestService;
 import com.blackducksoftware.integration.log.IntLogger;
 
-public class NotificationDataService extends HubRequestService {
+public class NotificationDataService extends HubRequestService implements Closeable {
+    /**
+     * The most notifications for one project version that are transformed together by a single thread.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
     private final NotificationRequestService notificationRequestService;
 
     private final ProjectVersionRequestService projectVersionRequestService;
@@ -62,8 +81,14 @@ public class NotificationDataService extends HubRequestService {
 
     private final PolicyNotificationFilter policyNotificationFilter;
 
+    private final ExecutorService executorService;
+
     private final ParallelResourceProcessor<NotificationContentItem, NotificationItem> parallelProcessor;
 
+    private final ParallelResourceProcessor<NotificationContentItem, NotificationBatch> batchProcessor;
+
+    private final NotificationBatchTransformer batchTransformer;
+
     private final MetaService metaService;
 
     public NotificationDataService(IntLogger logger, RestConnection restConnection, NotificationRequestService notificationRequestService,
@@ -78,6 +103,15 @@ public class NotificationDataService extends HubRequestService {
             ProjectVersionRequestService projectVersionRequestService, PolicyRequestService policyRequestService,
             VersionBomPolicyRequestService versionBomPolicyRequestService,
             HubRequestService hubRequestService, PolicyNotificationFilter policyNotificationFilter, MetaService metaService) {
+        this(logger, restConnection, notificationRequestService, projectVersionRequestService, policyRequestService, versionBomPolicyRequestService,
+                hubRequestService, policyNotificationFilter, metaService, ExecutionStrategy.IO_BOUND);
+    }
+
+    public NotificationDataService(IntLogger logger, RestConnection restConnection, NotificationRequestService notificationRequestService,
+            ProjectVersionRequestService projectVersionRequestService, PolicyRequestService policyRequestService,
+            VersionBomPolicyRequestService versionBomPolicyRequestService,
+            HubRequestService hubRequestService, PolicyNotificationFilter policyNotificationFilter, MetaService metaService,
+            ExecutionStrategy executionStrategy) {
         super(restConnection);
         this.notificationRequestService = notificationRequestService;
         this.projectVersionRequestService = projectVersionRequestService;
@@ -85,38 +119,247 @@ public class NotificationDataService extends HubRequestService {
         this.versionBomPolicyRequestService = versionBomPolicyRequestService;
         this.hubRequestService = hubRequestService;
         this.policyNotificationFilter = policyNotificationFilter;
-        this.parallelProcessor = new ParallelResourceProcessor<>(logger);
+        this.executorService = executionStrategy.createExecutorService();
+        this.parallelProcessor = new ParallelResourceProcessor<>(logger, executorService);
+        this.batchProcessor = new ParallelResourceProcessor<>(logger, executorService);
+        this.batchTransformer = new NotificationBatchTransformer(logger);
         this.metaService = metaService;
         populateTransformerMap();
     }
 
     private void populateTransformerMap() {
-        parallelProcessor.addTransform(RuleViolationNotificationItem.class,
+        addTransform(RuleViolationNotificationItem.class,
                 new PolicyViolationTransformer(notificationRequestService, projectVersionRequestService, policyRequestService,
                         versionBomPolicyRequestService, hubRequestService, policyNotificationFilter, metaService));
-        parallelProcessor.addTransform(PolicyOverrideNotificationItem.class,
+        addTransform(PolicyOverrideNotificationItem.class,
                 new PolicyViolationOverrideTransformer(notificationRequestService, projectVersionRequestService, policyRequestService,
                         versionBomPolicyRequestService, hubRequestService, policyNotificationFilter, metaService));
-        parallelProcessor.addTransform(VulnerabilityNotificationItem.class,
+        addTransform(VulnerabilityNotificationItem.class,
                 new VulnerabilityTransformer(notificationRequestService, projectVersionRequestService, policyRequestService,
                         versionBomPolicyRequestService, hubRequestService));
-        parallelProcessor.addTransform(RuleViolationClearedNotificationItem.class,
+        addTransform(RuleViolationClearedNotificationItem.class,
                 new PolicyViolationClearedTransformer(notificationRequestService, projectVersionRequestService, policyRequestService,
                         versionBomPolicyRequestService, hubRequestService, policyNotificationFilter, metaService));
+        batchProcessor.addTransform(NotificationBatch.class, batchTransformer);
+    }
+
+    private void addTransform(final Class<? extends NotificationItem> clazz, final AbstractNotificationTransformer transformer) {
+        parallelProcessor.addTransform(clazz, transformer);
+        batchTransformer.addTransform(clazz, transformer);
+    }
+
+    /**
+     * Releases the transform threads once the transforms already submitted finish. The service can not transform
+     * notifications after it is closed.
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Sets how notifications whose transform failed talking to the Hub are retried.
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        parallelProcessor.setRetryPolicy(retryPolicy);
+        batchProcessor.setRetryPolicy(retryPolicy);
     }
 
     public SortedSet<NotificationContentItem> getAllNotifications(final Date startDate, final Date endDate) throws HubIntegrationException {
-        final SortedSet<NotificationContentItem> contentList = new TreeSet<>();
+        return getAllNotificationResults(startDate, endDate).getNotificationContentItems();
+    }
+
+    /**
+     * Like getAllNotifications, but the summary returned with the notifications tells which ones could not be
+     * transformed, how often they were retried and how long the transforms took.
+     */
+    public NotificationResults getAllNotificationResults(final Date startDate, final Date endDate) throws HubIntegrationException {
         final List<NotificationItem> itemList = notificationRequestService.getAllNotifications(startDate, endDate);
-        contentList.addAll(parallelProcessor.process(itemList));
-        return contentList;
+        return processInBatches(itemList);
     }
 
     public SortedSet<NotificationContentItem> getUserNotifications(final Date startDate, final Date endDate, UserItem user) throws HubIntegrationException {
-        final SortedSet<NotificationContentItem> contentList = new TreeSet<>();
+        return getUserNotificationResults(startDate, endDate, user).getNotificationContentItems();
+    }
+
+    public NotificationResults getUserNotificationResults(final Date startDate, final Date endDate, final UserItem user) throws HubIntegrationException {
         final List<NotificationItem> itemList = notificationRequestService.getUserNotifications(startDate, endDate, user);
-        contentList.addAll(parallelProcessor.process(itemList));
+        return processInBatches(itemList);
+    }
+
+    /**
+     * Transforms each notification page as soon as it arrives instead of waiting for every page to download first, so
+     * for a large date range the time taken is close to the slower of fetching and transforming rather than their
+     * sum. At most maxPendingNotifications fetched notifications wait to be transformed; fetching pauses until the
+     * transformers catch up.
+     */
+    public SortedSet<NotificationContentItem> getAllNotificationsPipelined(final Date startDate, final Date endDate, final int maxPendingNotifications)
+            throws HubIntegrationException {
+        return processPipelined(notificationRequestService.iterateAllNotifications(startDate, endDate), maxPendingNotifications);
+    }
+
+    public SortedSet<NotificationContentItem> getUserNotificationsPipelined(final Date startDate, final Date endDate, final UserItem user,
+            final int maxPendingNotifications) throws HubIntegrationException {
+        return processPipelined(notificationRequestService.iterateUserNotifications(startDate, endDate, user), maxPendingNotifications);
+    }
+
+    private SortedSet<NotificationContentItem> processPipelined(final Iterable<NotificationItem> notifications, final int maxPendingNotifications)
+            throws HubIntegrationException {
+        final SortedSet<NotificationContentItem> contentList = new TreeSet<>();
+        try {
+            contentList.addAll(parallelProcessor.process(notifications, maxPendingNotifications));
+        } catch (final IllegalStateException e) {
+            throw unwrapHubIntegrationException(e);
+        }
         return contentList;
     }
 
+    /**
+     * Hands each transformed notification to the handler as soon as it and every notification before it have been
+     * transformed, in the order the Hub returned them, while later pages are still downloading. Nothing is collected,
+     * so the handler, for example NotificationProcessor.createResultHandler(), can start working on the first
+     * notifications immediately. A handler may fail with an IllegalStateException caused by a HubIntegrationException,
+     * which is rethrown here. The summary returned accounts for the notifications that could not be transformed.
+     */
+    public ProcessingSummary<NotificationContentItem, NotificationItem> streamAllNotifications(final Date startDate, final Date endDate,
+            final int maxPendingNotifications, final ResultHandler<NotificationContentItem> resultHandler) throws HubIntegrationException {
+        return processStreaming(notificationRequestService.iterateAllNotifications(startDate, endDate), maxPendingNotifications, resultHandler);
+    }
+
+    public ProcessingSummary<NotificationContentItem, NotificationItem> streamUserNotifications(final Date startDate, final Date endDate,
+            final UserItem user, final int maxPendingNotifications, final ResultHandler<NotificationContentItem> resultHandler)
+            throws HubIntegrationException {
+        return processStreaming(notificationRequestService.iterateUserNotifications(startDate, endDate, user), maxPendingNotifications, resultHandler);
+    }
+
+    private ProcessingSummary<NotificationContentItem, NotificationItem> processStreaming(final Iterable<NotificationItem> notifications,
+            final int maxPendingNotifications, final ResultHandler<NotificationContentItem> resultHandler) throws HubIntegrationException {
+        try {
+            return parallelProcessor.processInOrder(notifications, maxPendingNotifications, resultHandler);
+        } catch (final IllegalStateException e) {
+            throw unwrapHubIntegrationException(e);
+        }
+    }
+
+    private RuntimeException unwrapHubIntegrationException(final IllegalStateException e) throws HubIntegrationException {
+        // the paged iterator and the result handlers can only report a HubIntegrationException this way
+        if (e.getCause() instanceof HubIntegrationException) {
+            throw (HubIntegrationException) e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Returns only the notifications that were not returned by an earlier poll with the same cursor file, then saves
+     * the new high-water mark to that file. The first poll, when the file does not exist yet, starts at
+     * initialStartDate. The cursor is only saved once the notifications have been transformed, so a failed poll is
+     * simply repeated by the next one. When some notifications can not be transformed, the cursor only advances up to
+     * the oldest of them, and the notifications after it are held back, so the next poll returns them all once
+     * instead of skipping the failed ones.
+     */
+    public SortedSet<NotificationContentItem> getNewNotifications(final File cursorFile, final Date initialStartDate) throws HubIntegrationException {
+        return getNewNotificationResults(cursorFile, initialStartDate).getNotificationContentItems();
+    }
+
+    /**
+     * Like getNewNotifications, but the summary returned with the notifications accounts for every new notification,
+     * including the failed ones that the next poll returns again.
+     */
+    public NotificationResults getNewNotificationResults(final File cursorFile, final Date initialStartDate) throws HubIntegrationException {
+        final NotificationCursor cursor = NotificationCursor.load(cursorFile);
+        final List<NotificationItem> itemList = notificationRequestService.getAllNotifications(getPollStartDate(cursor, initialStartDate), new Date());
+        return processNewNotifications(cursorFile, cursor, itemList);
+    }
+
+    public SortedSet<NotificationContentItem> getNewUserNotifications(final File cursorFile, final Date initialStartDate, final UserItem user)
+            throws HubIntegrationException {
+        return getNewUserNotificationResults(cursorFile, initialStartDate, user).getNotificationContentItems();
+    }
+
+    public NotificationResults getNewUserNotificationResults(final File cursorFile, final Date initialStartDate, final UserItem user)
+            throws HubIntegrationException {
+        final NotificationCursor cursor = NotificationCursor.load(cursorFile);
+        final List<NotificationItem> itemList = notificationRequestService.getUserNotifications(getPollStartDate(cursor, initialStartDate), new Date(),
+                user);
+        return processNewNotifications(cursorFile, cursor, itemList);
+    }
+
+    private Date getPollStartDate(final NotificationCursor cursor, final Date initialStartDate) {
+        // start at the last timestamp itself, notifications created in that same millisecond may not have been seen
+        final Date lastCreatedAt = cursor.getLastCreatedAt();
+        if (lastCreatedAt == null) {
+            return initialStartDate;
+        }
+        return lastCreatedAt;
+    }
+
+    private NotificationResults processNewNotifications(final File cursorFile, final NotificationCursor cursor,
+            final List<NotificationItem> itemList) throws HubIntegrationException {
+        final List<NotificationItem> newItems = new ArrayList<>();
+        final List<String> newIds = new ArrayList<>();
+        for (final NotificationItem item : itemList) {
+            final String id = metaService.getHref(item);
+            if (cursor.isNew(item.getCreatedAt(), id)) {
+                newItems.add(item);
+                newIds.add(id);
+            }
+        }
+
+        final SortedSet<NotificationContentItem> contentList = new TreeSet<>();
+        if (newItems.isEmpty()) {
+            return new NotificationResults(contentList, new ProcessingSummary.Builder<NotificationContentItem, NotificationItem>().build());
+        }
+        final List<NotificationBatch> batches = batchTransformer.createBatches(newItems, DEFAULT_MAX_BATCH_SIZE);
+        final ProcessingSummary<NotificationContentItem, NotificationItem> summary = processBatches(newItems, batches);
+        final Set<NotificationItem> failedItems = Collections.newSetFromMap(new IdentityHashMap<NotificationItem, Boolean>());
+        long lastCreatedAt = Long.MAX_VALUE;
+        for (final NotificationBatch batch : batches) {
+            for (final NotificationItem failedItem : batch.getFailedItems()) {
+                failedItems.add(failedItem);
+                lastCreatedAt = Math.min(lastCreatedAt, failedItem.getCreatedAt().getTime());
+            }
+        }
+        for (final NotificationBatch batch : batches) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.isTransformed(i) && batch.getItems().get(i).getCreatedAt().getTime() <= lastCreatedAt) {
+                    contentList.addAll(batch.getResults(i));
+                }
+            }
+        }
+        for (int i = 0; i < newItems.size(); i++) {
+            final NotificationItem item = newItems.get(i);
+            if (!failedItems.contains(item) && item.getCreatedAt().getTime() <= lastCreatedAt) {
+                cursor.advance(item.getCreatedAt(), newIds.get(i));
+            }
+        }
+        cursor.save(cursorFile);
+        return new NotificationResults(contentList, summary);
+    }
+
+    /**
+     * Notifications for the same project version are transformed together, so the lookups they share are only
+     * requested once. The results are read from the batches rather than from the processor, so a batch that still
+     * failed after its retries keeps the notifications that were transformed.
+     */
+    private NotificationResults processInBatches(final List<NotificationItem> itemList) {
+        final List<NotificationBatch> batches = batchTransformer.createBatches(itemList, DEFAULT_MAX_BATCH_SIZE);
+        final ProcessingSummary<NotificationContentItem, NotificationItem> summary = processBatches(itemList, batches);
+        final SortedSet<NotificationContentItem> contentList = new TreeSet<>();
+        for (final NotificationBatch batch : batches) {
+            contentList.addAll(batch.getResults());
+        }
+        return new NotificationResults(contentList, summary);
+    }
+
+    /**
+     * The notifications are accounted for one by one rather than by batch, including the ones no transformer handles.
+     */
+    private ProcessingSummary<NotificationContentItem, NotificationItem> processBatches(final List<NotificationItem> itemList,
+            final List<NotificationBatch> batches) {
+        final ProcessingSummary.Builder<NotificationContentItem, NotificationItem> summaryBuilder = new ProcessingSummary.Builder<>();
+        // no result handler, the results are read from the batches
+        batchProcessor.process(batches, Math.max(batches.size(), 1), null);
+        return batchTransformer.summarize(itemList, batches, summaryBuilder);
+    }
+
 }
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification;
+
+import java.util.SortedSet;
+
+import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ProcessingSummary;
+
+/**
+ * The notifications a NotificationDataService transformed, along with the summary of how every fetched notification
+ * was transformed, so a caller can tell an empty result from one where the transforms failed.
+ */
+public class NotificationResults {
+    private final SortedSet<NotificationContentItem> notificationContentItems;
+
+    private final ProcessingSummary<NotificationContentItem, NotificationItem> summary;
+
+    public NotificationResults(final SortedSet<NotificationContentItem> notificationContentItems,
+            final ProcessingSummary<NotificationContentItem, NotificationItem> summary) {
+        this.notificationContentItems = notificationContentItems;
+        this.summary = summary;
+    }
+
+    public SortedSet<NotificationContentItem> getNotificationContentItems() {
+        return notificationContentItems;
+    }
+
+    /**
+     * @return the failed, retried and skipped notifications and the transform latencies, one outcome per notification.
+     */
+    public ProcessingSummary<NotificationContentItem, NotificationItem> getSummary() {
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationResults [notificationContentItems=" + notificationContentItems.size() + ", summary=" + summary + "]";
+    }
+
+}
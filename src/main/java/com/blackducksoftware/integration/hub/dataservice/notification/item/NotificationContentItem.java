@@ -21,6 +21,7 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.dataservice.notification.item;
 
+import java.io.Serializable;
 import java.util.Date;
 
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
@@ -29,7 +30,9 @@ import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 import com.google.common.base.Joiner;
 
-public class NotificationContentItem implements Comparable<NotificationContentItem> {
+public class NotificationContentItem implements Comparable<NotificationContentItem>, Serializable {
+    private static final long serialVersionUID = 6216643052413652267L;
+
     private final ProjectVersion projectVersion;
 
     private final String componentName;
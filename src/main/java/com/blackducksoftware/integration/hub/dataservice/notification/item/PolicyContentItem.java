@@ -26,6 +26,8 @@ import java.util.Date;
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 
 public class PolicyContentItem extends NotificationContentItem {
+    private static final long serialVersionUID = -2337413613817034249L;
+
     private final String componentUrl;
 
     public PolicyContentItem(final Date createdAt, final ProjectVersion projectVersion, final String componentName,
@@ -29,6 +29,8 @@ import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 
 public class PolicyOverrideContentItem extends PolicyViolationContentItem {
+    private static final long serialVersionUID = 5754988016763487460L;
+
     private final String firstName;
 
     private final String lastName;
@@ -29,6 +29,8 @@ import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 
 public class PolicyViolationClearedContentItem extends PolicyViolationContentItem {
+    private static final long serialVersionUID = -215317103964268301L;
+
     public PolicyViolationClearedContentItem(final Date createdAt, final ProjectVersion projectVersion,
             final String componentName,
             final String componentVersion, final String componentUrl,
@@ -29,6 +29,8 @@ import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 
 public class PolicyViolationContentItem extends PolicyContentItem {
+    private static final long serialVersionUID = -6366430810150052707L;
+
     private final List<PolicyRule> policyRuleList;
 
     public PolicyViolationContentItem(final Date createdAt, final ProjectVersion projectVersion,
@@ -29,6 +29,8 @@ import com.blackducksoftware.integration.hub.api.notification.VulnerabilitySourc
 import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
 
 public class VulnerabilityContentItem extends NotificationContentItem {
+    private static final long serialVersionUID = 2157896872254914003L;
+
     private final List<VulnerabilitySourceQualifiedId> addedVulnList;
 
     private final List<VulnerabilitySourceQualifiedId> updatedVulnList;
@@ -78,4 +78,17 @@ public abstract class AbstractNotificationTransformer
     @Override
     public abstract List<NotificationContentItem> transform(NotificationItem item) throws HubItemTransformException;
 
+    /**
+     * Transforms the item using lookups that may be shared with the other notifications of its batch. Transformers
+     * that do not look anything up can rely on this default.
+     */
+    public List<NotificationContentItem> transform(final NotificationItem item, final NotificationLookupCache lookupCache)
+            throws HubItemTransformException {
+        return transform(item);
+    }
+
+    public NotificationLookupCache createLookupCache() {
+        return new NotificationLookupCache(projectVersionService, policyService, bomVersionPolicyService, hubRequestService);
+    }
+
 }
@@ -23,6 +23,7 @@ package com.blackducksoftware.integration.hub.dataservice.notification.transform
 
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -67,19 +68,36 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
             final ProjectVersion projectVersion, final NotificationItem item,
             final List<NotificationContentItem> templateData) throws HubItemTransformException;
 
+    /**
+     * Called when the notification is transformed as part of a batch. Override it to take the lookups from the cache
+     * shared by the batch; by default the lookupCache is not used and handleNotification is called without it.
+     */
+    public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
+            final ProjectVersion projectVersion, final NotificationItem item,
+            final List<NotificationContentItem> templateData, final NotificationLookupCache lookupCache) throws HubItemTransformException {
+        handleNotification(componentVersionList, projectVersion, item, templateData);
+    }
+
     protected void handleNotificationUsingBomComponentVersionPolicyStatusLink(
             final List<ComponentVersionStatus> componentVersionList, final ProjectVersion projectVersion,
             final NotificationItem item, final List<NotificationContentItem> templateData)
             throws HubItemTransformException {
+        handleNotificationUsingBomComponentVersionPolicyStatusLink(componentVersionList, projectVersion, item, templateData, createLookupCache());
+    }
+
+    protected void handleNotificationUsingBomComponentVersionPolicyStatusLink(
+            final List<ComponentVersionStatus> componentVersionList, final ProjectVersion projectVersion,
+            final NotificationItem item, final List<NotificationContentItem> templateData, final NotificationLookupCache lookupCache)
+            throws HubItemTransformException {
         for (final ComponentVersionStatus componentVersion : componentVersionList) {
             try {
                 final String componentVersionLink = componentVersion.getComponentVersionLink();
-                final String componentVersionName = getComponentVersionName(componentVersionLink);
+                final String componentVersionName = getComponentVersionName(componentVersionLink, lookupCache);
                 final String policyStatusUrl = componentVersion.getBomComponentVersionPolicyStatusLink();
 
                 if (StringUtils.isNotBlank(policyStatusUrl)) {
                     final BomComponentVersionPolicyStatus bomComponentVersionPolicyStatus = getBomComponentVersionPolicyStatus(
-                            policyStatusUrl);
+                            policyStatusUrl, lookupCache);
                     final Map<String, List<String>> policyRulesLink = metaService.getLinks(bomComponentVersionPolicyStatus);
                     List<String> ruleList = getRuleUrls(policyRulesLink.get(MetaService.POLICY_RULE_LINK));
 
@@ -87,7 +105,7 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
                     if (ruleList != null && !ruleList.isEmpty()) {
                         final List<PolicyRule> policyRuleList = new ArrayList<>();
                         for (final String ruleUrl : ruleList) {
-                            final PolicyRule rule = getPolicyRule(ruleUrl);
+                            final PolicyRule rule = getPolicyRule(ruleUrl, lookupCache);
                             policyRuleList.add(rule);
                         }
                         createContents(projectVersion, componentVersion.getComponentName(), componentVersionName,
@@ -102,6 +120,10 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         }
     }
 
+    /**
+     * Requests the name from the Hub. The lookupCache overload calls this for each link it does not hold yet, so an
+     * override is used by every transform.
+     */
     protected String getComponentVersionName(final String componentVersionLink) throws HubIntegrationException {
         String componentVersionName;
         if (StringUtils.isBlank(componentVersionLink)) {
@@ -114,6 +136,23 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         return componentVersionName;
     }
 
+    protected String getComponentVersionName(final String componentVersionLink, final NotificationLookupCache lookupCache)
+            throws HubIntegrationException {
+        if (StringUtils.isBlank(componentVersionLink)) {
+            return getComponentVersionName(componentVersionLink);
+        }
+        return lookupCache.getComponentVersionName(componentVersionLink, new NotificationLookupCache.Loader<String>() {
+            @Override
+            public String load(final String link) throws HubIntegrationException {
+                return getComponentVersionName(link);
+            }
+        });
+    }
+
+    /**
+     * Requests the rules from the Hub. The lookupCache overload calls this with each single rule URL it does not hold
+     * yet, so an override is used by every transform.
+     */
     protected List<PolicyRule> getRulesFromUrls(final List<String> ruleUrlsViolated) throws HubIntegrationException {
         if (ruleUrlsViolated == null || ruleUrlsViolated.isEmpty()) {
             return null;
@@ -126,6 +165,25 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         return rules;
     }
 
+    protected List<PolicyRule> getRulesFromUrls(final List<String> ruleUrlsViolated, final NotificationLookupCache lookupCache)
+            throws HubIntegrationException {
+        if (ruleUrlsViolated == null || ruleUrlsViolated.isEmpty()) {
+            return null;
+        }
+        final NotificationLookupCache.Loader<PolicyRule> loader = new NotificationLookupCache.Loader<PolicyRule>() {
+            @Override
+            public PolicyRule load(final String link) throws HubIntegrationException {
+                return getRulesFromUrls(Collections.singletonList(link)).get(0);
+            }
+        };
+        final List<PolicyRule> rules = new ArrayList<>();
+        for (final String ruleUrlViolated : ruleUrlsViolated) {
+            final PolicyRule ruleViolated = lookupCache.getPolicyRule(ruleUrlViolated, loader);
+            rules.add(ruleViolated);
+        }
+        return rules;
+    }
+
     protected List<PolicyRule> getMatchingRules(final List<PolicyRule> rulesViolated) throws HubIntegrationException {
         final List<PolicyRule> filteredRules = new ArrayList<>();
         if (policyFilter != null && policyFilter.getRuleLinksToInclude() != null
@@ -146,12 +204,24 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         return policyFilter;
     }
 
+    /**
+     * Requests the rule from the Hub. The lookupCache overload calls this for each rule it does not hold yet.
+     */
     protected PolicyRule getPolicyRule(final String ruleUrl) throws HubIntegrationException {
         PolicyRule rule;
         rule = getPolicyService().getItem(ruleUrl);
         return rule;
     }
 
+    protected PolicyRule getPolicyRule(final String ruleUrl, final NotificationLookupCache lookupCache) throws HubIntegrationException {
+        return lookupCache.getPolicyRule(ruleUrl, new NotificationLookupCache.Loader<PolicyRule>() {
+            @Override
+            public PolicyRule load(final String link) throws HubIntegrationException {
+                return getPolicyRule(link);
+            }
+        });
+    }
+
     protected List<String> getMatchingRuleUrls(final List<String> rulesViolated) {
         final List<String> filteredRules = new ArrayList<>();
         if (policyFilter != null && policyFilter.getRuleLinksToInclude() != null) {
@@ -196,6 +266,10 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         return fixedRuleUrl;
     }
 
+    /**
+     * Requests the policy status from the Hub. The lookupCache overload calls this for each status it does not hold
+     * yet.
+     */
     protected BomComponentVersionPolicyStatus getBomComponentVersionPolicyStatus(final String policyStatusUrl) throws HubIntegrationException {
         BomComponentVersionPolicyStatus bomComponentVersionPolicyStatus;
         bomComponentVersionPolicyStatus = getBomVersionPolicyService().getItem(policyStatusUrl);
@@ -203,6 +277,16 @@ public abstract class AbstractPolicyTransformer extends AbstractNotificationTran
         return bomComponentVersionPolicyStatus;
     }
 
+    protected BomComponentVersionPolicyStatus getBomComponentVersionPolicyStatus(final String policyStatusUrl,
+            final NotificationLookupCache lookupCache) throws HubIntegrationException {
+        return lookupCache.getBomComponentVersionPolicyStatus(policyStatusUrl, new NotificationLookupCache.Loader<BomComponentVersionPolicyStatus>() {
+            @Override
+            public BomComponentVersionPolicyStatus load(final String link) throws HubIntegrationException {
+                return getBomComponentVersionPolicyStatus(link);
+            }
+        });
+    }
+
     public abstract void createContents(final ProjectVersion projectVersion, final String componentName,
             final String componentVersion, String componentUrl, final String componentVersionUrl,
             List<PolicyRule> policyRuleList,
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification.transformer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ItemOutcome;
+import com.blackducksoftware.integration.hub.exception.HubItemTransformException;
+
+/**
+ * Notifications that are transformed together because they share the same project version. The batch keeps the
+ * results of each notification, so when a batch is retried only the notifications that failed are transformed again,
+ * and the results of the others are not lost if the batch never succeeds. The attempts and failure of each notification
+ * are kept as well, so the notifications can be accounted for one by one.
+ */
+public class NotificationBatch {
+    private final String projectVersionLink;
+
+    private final List<NotificationItem> items = new ArrayList<>();
+
+    // null until the notification at the same index has been transformed
+    private final List<List<NotificationContentItem>> itemResults = new ArrayList<>();
+
+    // the exception of the last attempt at the notification at the same index, null unless it failed
+    private final List<Exception> itemFailures = new ArrayList<>();
+
+    private final List<Integer> itemAttempts = new ArrayList<>();
+
+    private final List<Long> itemLatencyNanos = new ArrayList<>();
+
+    public NotificationBatch(final String projectVersionLink) {
+        this.projectVersionLink = projectVersionLink;
+    }
+
+    public void add(final NotificationItem item) {
+        items.add(item);
+        itemResults.add(null);
+        itemFailures.add(null);
+        itemAttempts.add(0);
+        itemLatencyNanos.add(0L);
+    }
+
+    /**
+     * @return null for notifications that do not belong to a single project version.
+     */
+    public String getProjectVersionLink() {
+        return projectVersionLink;
+    }
+
+    public List<NotificationItem> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isTransformed(final int index) {
+        return itemResults.get(index) != null;
+    }
+
+    /**
+     * @return null if the notification at this index has not been transformed.
+     */
+    public List<NotificationContentItem> getResults(final int index) {
+        return itemResults.get(index);
+    }
+
+    public void setResults(final int index, final List<NotificationContentItem> results) {
+        itemResults.set(index, results);
+        itemFailures.set(index, null);
+    }
+
+    public void setFailure(final int index, final Exception failure) {
+        itemFailures.set(index, failure);
+    }
+
+    /**
+     * Counts one more attempt at the notification at this index, which took latencyNanos.
+     */
+    public void addAttempt(final int index, final long latencyNanos) {
+        itemAttempts.set(index, itemAttempts.get(index) + 1);
+        itemLatencyNanos.set(index, itemLatencyNanos.get(index) + latencyNanos);
+    }
+
+    /**
+     * @return SUCCEEDED once the notification at this index was transformed, FAILED with the failure of its last
+     *         attempt otherwise.
+     */
+    public ItemOutcome<NotificationContentItem, NotificationItem> getOutcome(final int index) {
+        final NotificationItem item = items.get(index);
+        final int attempts = itemAttempts.get(index);
+        final long latencyNanos = itemLatencyNanos.get(index);
+        if (isTransformed(index)) {
+            return ItemOutcome.succeeded(item, itemResults.get(index), attempts, latencyNanos);
+        }
+        Exception failure = itemFailures.get(index);
+        if (failure == null) {
+            failure = new HubItemTransformException("The notification was never transformed");
+        }
+        return ItemOutcome.failed(item, failure, attempts, latencyNanos);
+    }
+
+    /**
+     * @return the results of every notification transformed so far, in the order of the notifications.
+     */
+    public List<NotificationContentItem> getResults() {
+        final List<NotificationContentItem> results = new ArrayList<>();
+        for (final List<NotificationContentItem> currentResults : itemResults) {
+            if (currentResults != null) {
+                results.addAll(currentResults);
+            }
+        }
+        return results;
+    }
+
+    public List<NotificationItem> getFailedItems() {
+        final List<NotificationItem> failedItems = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            if (!isTransformed(index)) {
+                failedItems.add(items.get(index));
+            }
+        }
+        return failedItems;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationBatch [projectVersionLink=" + projectVersionLink + ", notifications=" + items.size() + ", failed="
+                + getFailedItems().size() + "]";
+    }
+
+}
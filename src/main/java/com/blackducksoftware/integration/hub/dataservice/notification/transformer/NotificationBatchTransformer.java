@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification.transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
+import com.blackducksoftware.integration.hub.api.notification.PolicyOverrideNotificationContent;
+import com.blackducksoftware.integration.hub.api.notification.PolicyOverrideNotificationItem;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationContent;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationItem;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationNotificationContent;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationNotificationItem;
+import com.blackducksoftware.integration.hub.dataservice.ItemTransform;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ItemOutcome;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ProcessingSummary;
+import com.blackducksoftware.integration.hub.exception.HubItemTransformException;
+import com.blackducksoftware.integration.log.IntLogger;
+
+/**
+ * Transforms a batch of notifications for the same project version with a single NotificationLookupCache, so the
+ * project version, component versions, policy statuses and policy rules they share are each requested once for the
+ * whole batch instead of once per notification.
+ *
+ * A notification that fails does not stop the rest of the batch, but the batch as a whole then fails, so the
+ * ParallelResourceProcessor retries it. The results are kept in the batch, and a retry only transforms the
+ * notifications that failed. summarize accounts for the notifications themselves once their batches were processed.
+ */
+public class NotificationBatchTransformer implements ItemTransform<List<NotificationContentItem>, NotificationBatch> {
+    private final IntLogger logger;
+
+    private final Map<Class<?>, AbstractNotificationTransformer> transformerMap = new HashMap<>();
+
+    public NotificationBatchTransformer(final IntLogger logger) {
+        this.logger = logger;
+    }
+
+    public void addTransform(final Class<?> clazz, final AbstractNotificationTransformer transformer) {
+        transformerMap.put(clazz, transformer);
+    }
+
+    public boolean canTransform(final NotificationItem item) {
+        return transformerMap.containsKey(item.getClass());
+    }
+
+    /**
+     * Groups the notifications this transformer can handle by project version, keeping their order. A group larger
+     * than maxBatchSize is split so one busy project version can still be transformed by several threads. The
+     * notifications no transformer handles are left out, and counted as skipped by summarize.
+     */
+    public List<NotificationBatch> createBatches(final List<NotificationItem> items, final int maxBatchSize) {
+        final List<NotificationBatch> batches = new ArrayList<>();
+        final Map<String, NotificationBatch> openBatches = new LinkedHashMap<>();
+        for (final NotificationItem item : items) {
+            if (!canTransform(item)) {
+                continue;
+            }
+            final String projectVersionLink = getProjectVersionLink(item);
+            if (projectVersionLink == null) {
+                // nothing is shared with other notifications, so there is nothing to gain from grouping it
+                final NotificationBatch batch = new NotificationBatch(null);
+                batch.add(item);
+                batches.add(batch);
+                continue;
+            }
+            NotificationBatch batch = openBatches.get(projectVersionLink);
+            if (batch == null || batch.size() >= maxBatchSize) {
+                batch = new NotificationBatch(projectVersionLink);
+                openBatches.put(projectVersionLink, batch);
+                batches.add(batch);
+            }
+            batch.add(item);
+        }
+        return batches;
+    }
+
+    /**
+     * @throws HubItemTransformException
+     *             if any notification of the batch could not be transformed, after the others were.
+     */
+    @Override
+    public List<NotificationContentItem> transform(final NotificationBatch batch) throws HubItemTransformException {
+        NotificationLookupCache lookupCache = null;
+        HubItemTransformException firstFailure = null;
+        int failureCount = 0;
+        for (int index = 0; index < batch.size(); index++) {
+            if (batch.isTransformed(index)) {
+                continue;
+            }
+            final NotificationItem item = batch.getItems().get(index);
+            final AbstractNotificationTransformer transformer = transformerMap.get(item.getClass());
+            if (transformer == null) {
+                batch.setResults(index, Collections.<NotificationContentItem> emptyList());
+                continue;
+            }
+            if (lookupCache == null) {
+                lookupCache = transformer.createLookupCache();
+            }
+            final long startNanos = System.nanoTime();
+            try {
+                batch.setResults(index, transformer.transform(item, lookupCache));
+                batch.addAttempt(index, System.nanoTime() - startNanos);
+            } catch (final HubItemTransformException e) {
+                // one bad notification should not cost the rest of the batch
+                batch.addAttempt(index, System.nanoTime() - startNanos);
+                batch.setFailure(index, e);
+                failureCount++;
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+        if (lookupCache != null && batch.size() > 1) {
+            logger.debug(String.format("Transformed %d notifications for %s with %d of %d lookups requested from the Hub", batch.size(),
+                    batch.getProjectVersionLink(), lookupCache.getRequestCount(), lookupCache.getLookupCount()));
+        }
+        if (firstFailure != null) {
+            throw new HubItemTransformException(String.format("%d of the %d notifications for %s could not be transformed: %s", failureCount,
+                    batch.size(), batch.getProjectVersionLink(), firstFailure.getMessage()), firstFailure);
+        }
+        return batch.getResults();
+    }
+
+    /**
+     * Accounts for every notification of items after the batches created from them were processed: the ones in no
+     * batch are SKIPPED, and each one that still failed is logged on its own with the failure of its last attempt. The
+     * summary is logged as a warning when any notification failed.
+     *
+     * @param summaryBuilder
+     *            created before the batches were processed, so the summary covers the time they took.
+     */
+    public ProcessingSummary<NotificationContentItem, NotificationItem> summarize(final List<NotificationItem> items, final List<NotificationBatch> batches,
+            final ProcessingSummary.Builder<NotificationContentItem, NotificationItem> summaryBuilder) {
+        final Map<NotificationItem, ItemOutcome<NotificationContentItem, NotificationItem>> outcomes = new IdentityHashMap<>();
+        for (final NotificationBatch batch : batches) {
+            for (int index = 0; index < batch.size(); index++) {
+                final ItemOutcome<NotificationContentItem, NotificationItem> outcome = batch.getOutcome(index);
+                outcomes.put(outcome.getItem(), outcome);
+                if (outcome.getStatus() == ItemOutcome.Status.FAILED) {
+                    logger.error(String.format("Could not transform the %s created at %s for %s after %d attempts: %s", outcome.getItem().getClass()
+                            .getSimpleName(), outcome.getItem().getCreatedAt(), batch.getProjectVersionLink(), outcome.getAttempts(),
+                            outcome.getFailure().getMessage()), outcome.getFailure());
+                }
+            }
+        }
+        for (final NotificationItem item : items) {
+            final ItemOutcome<NotificationContentItem, NotificationItem> outcome = outcomes.get(item);
+            summaryBuilder.add(outcome != null ? outcome : ItemOutcome.<NotificationContentItem, NotificationItem> skipped(item));
+        }
+        final ProcessingSummary<NotificationContentItem, NotificationItem> summary = summaryBuilder.build();
+        if (summary.hasFailures()) {
+            logger.warn(summary.toString());
+        }
+        return summary;
+    }
+
+    private String getProjectVersionLink(final NotificationItem item) {
+        if (item instanceof RuleViolationNotificationItem) {
+            final RuleViolationNotificationContent content = ((RuleViolationNotificationItem) item).getContent();
+            return content == null ? null : content.getProjectVersionLink();
+        } else if (item instanceof PolicyOverrideNotificationItem) {
+            final PolicyOverrideNotificationContent content = ((PolicyOverrideNotificationItem) item).getContent();
+            return content == null ? null : content.getProjectVersionLink();
+        } else if (item instanceof RuleViolationClearedNotificationItem) {
+            final RuleViolationClearedNotificationContent content = ((RuleViolationClearedNotificationItem) item).getContent();
+            return content == null ? null : content.getProjectVersionLink();
+        }
+        return null;
+    }
+
+}
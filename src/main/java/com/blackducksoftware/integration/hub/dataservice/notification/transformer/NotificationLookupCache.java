@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification.transformer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersion;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRequestService;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionItem;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionRequestService;
+import com.blackducksoftware.integration.hub.api.version.BomComponentVersionPolicyStatus;
+import com.blackducksoftware.integration.hub.api.version.VersionBomPolicyRequestService;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.service.HubRequestService;
+
+/**
+ * Remembers the items the transformers look up while transforming one batch of notifications, so notifications for
+ * the same project version only request their shared project version, component versions, policy statuses and policy
+ * rules once. A cache belongs to a single batch and is used by a single thread, so it is not thread safe.
+ *
+ * The lookups that take a Loader call it on a miss instead of requesting the item themselves, which is how the
+ * transformers keep their own lookup methods overridable.
+ */
+public class NotificationLookupCache {
+    private final ProjectVersionRequestService projectVersionService;
+
+    private final PolicyRequestService policyService;
+
+    private final VersionBomPolicyRequestService bomVersionPolicyService;
+
+    private final HubRequestService hubRequestService;
+
+    private final Map<String, ProjectVersionItem> projectVersions = new HashMap<>();
+
+    private final Map<String, ComponentVersion> componentVersions = new HashMap<>();
+
+    private final Map<String, String> componentVersionNames = new HashMap<>();
+
+    private final Map<String, BomComponentVersionPolicyStatus> policyStatuses = new HashMap<>();
+
+    private final Map<String, PolicyRule> policyRules = new HashMap<>();
+
+    private int lookupCount;
+
+    private int requestCount;
+
+    public NotificationLookupCache(final ProjectVersionRequestService projectVersionService, final PolicyRequestService policyService,
+            final VersionBomPolicyRequestService bomVersionPolicyService, final HubRequestService hubRequestService) {
+        this.projectVersionService = projectVersionService;
+        this.policyService = policyService;
+        this.bomVersionPolicyService = bomVersionPolicyService;
+        this.hubRequestService = hubRequestService;
+    }
+
+    public ProjectVersionItem getProjectVersion(final String projectVersionLink) throws HubIntegrationException {
+        return lookUp(projectVersions, projectVersionLink, new Loader<ProjectVersionItem>() {
+            @Override
+            public ProjectVersionItem load(final String link) throws HubIntegrationException {
+                return projectVersionService.getItem(link);
+            }
+        });
+    }
+
+    public ComponentVersion getComponentVersion(final String componentVersionLink) throws HubIntegrationException {
+        return lookUp(componentVersions, componentVersionLink, new Loader<ComponentVersion>() {
+            @Override
+            public ComponentVersion load(final String link) throws HubIntegrationException {
+                return hubRequestService.getItem(link, ComponentVersion.class);
+            }
+        });
+    }
+
+    public String getComponentVersionName(final String componentVersionLink, final Loader<String> loader) throws HubIntegrationException {
+        return lookUp(componentVersionNames, componentVersionLink, loader);
+    }
+
+    public BomComponentVersionPolicyStatus getBomComponentVersionPolicyStatus(final String policyStatusUrl) throws HubIntegrationException {
+        return getBomComponentVersionPolicyStatus(policyStatusUrl, new Loader<BomComponentVersionPolicyStatus>() {
+            @Override
+            public BomComponentVersionPolicyStatus load(final String link) throws HubIntegrationException {
+                return bomVersionPolicyService.getItem(link);
+            }
+        });
+    }
+
+    public BomComponentVersionPolicyStatus getBomComponentVersionPolicyStatus(final String policyStatusUrl,
+            final Loader<BomComponentVersionPolicyStatus> loader) throws HubIntegrationException {
+        return lookUp(policyStatuses, policyStatusUrl, loader);
+    }
+
+    public PolicyRule getPolicyRule(final String ruleUrl) throws HubIntegrationException {
+        return getPolicyRule(ruleUrl, new Loader<PolicyRule>() {
+            @Override
+            public PolicyRule load(final String link) throws HubIntegrationException {
+                return policyService.getItem(link);
+            }
+        });
+    }
+
+    public PolicyRule getPolicyRule(final String ruleUrl, final Loader<PolicyRule> loader) throws HubIntegrationException {
+        return lookUp(policyRules, ruleUrl, loader);
+    }
+
+    private <T> T lookUp(final Map<String, T> items, final String link, final Loader<T> loader) throws HubIntegrationException {
+        lookupCount++;
+        T item = items.get(link);
+        if (item == null) {
+            requestCount++;
+            item = loader.load(link);
+            items.put(link, item);
+        }
+        return item;
+    }
+
+    public int getLookupCount() {
+        return lookupCount;
+    }
+
+    /**
+     * The number of lookups that had to be requested from the Hub.
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Provides an item the cache does not hold yet.
+     */
+    public interface Loader<T> {
+        T load(String link) throws HubIntegrationException;
+    }
+
+}
@@ -54,6 +54,12 @@ public class PolicyViolationClearedTransformer extends AbstractPolicyTransformer
 
     @Override
     public List<NotificationContentItem> transform(final NotificationItem item) throws HubItemTransformException {
+        return transform(item, createLookupCache());
+    }
+
+    @Override
+    public List<NotificationContentItem> transform(final NotificationItem item, final NotificationLookupCache lookupCache)
+            throws HubItemTransformException {
         final List<NotificationContentItem> templateData = new ArrayList<>();
 
         final RuleViolationClearedNotificationItem policyViolation = (RuleViolationClearedNotificationItem) item;
@@ -63,7 +69,7 @@ public class PolicyViolationClearedTransformer extends AbstractPolicyTransformer
         final String projectVersionLink = policyViolation.getContent().getProjectVersionLink();
         ProjectVersionItem releaseItem;
         try {
-            releaseItem = getReleaseItem(projectVersionLink);
+            releaseItem = getReleaseItem(projectVersionLink, lookupCache);
         } catch (final HubIntegrationException e1) {
             throw new HubItemTransformException("Error getting release item while transforming notification " + item
                     + "; projectVersionLink: " + projectVersionLink + ": " + e1.getMessage(), e1);
@@ -74,7 +80,7 @@ public class PolicyViolationClearedTransformer extends AbstractPolicyTransformer
         projectVersion.setUrl(projectVersionLink);
 
         try {
-            handleNotification(componentVersionList, projectVersion, item, templateData);
+            handleNotification(componentVersionList, projectVersion, item, templateData, lookupCache);
         } catch (final HubItemTransformException e) {
             throw new HubItemTransformException("Error in handleNotification() while transforming notification " + item
                     + "; projectVersionLink: " + projectVersionLink + ": " + e.getMessage(), e);
@@ -87,14 +93,21 @@ public class PolicyViolationClearedTransformer extends AbstractPolicyTransformer
     public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
             final ProjectVersion projectVersion, final NotificationItem item,
             final List<NotificationContentItem> templateData) throws HubItemTransformException {
+        handleNotification(componentVersionList, projectVersion, item, templateData, createLookupCache());
+    }
+
+    @Override
+    public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
+            final ProjectVersion projectVersion, final NotificationItem item,
+            final List<NotificationContentItem> templateData, final NotificationLookupCache lookupCache) throws HubItemTransformException {
         for (final ComponentVersionStatus componentVersion : componentVersionList) {
             try {
                 final String componentVersionLink = componentVersion.getComponentVersionLink();
-                final String componentVersionName = getComponentVersionName(componentVersionLink);
+                final String componentVersionName = getComponentVersionName(componentVersionLink, lookupCache);
                 final List<String> policyUrls = componentVersion.getPolicies();
 
                 if (policyUrls != null) {
-                    List<PolicyRule> ruleList = getRulesFromUrls(policyUrls);
+                    List<PolicyRule> ruleList = getRulesFromUrls(policyUrls, lookupCache);
 
                     ruleList = getMatchingRules(ruleList);
                     if (ruleList != null && !ruleList.isEmpty()) {
@@ -114,8 +127,9 @@ public class PolicyViolationClearedTransformer extends AbstractPolicyTransformer
         }
     }
 
-    private ProjectVersionItem getReleaseItem(final String projectVersionLink) throws HubIntegrationException {
-        final ProjectVersionItem releaseItem = getProjectVersionService().getItem(projectVersionLink);
+    private ProjectVersionItem getReleaseItem(final String projectVersionLink, final NotificationLookupCache lookupCache)
+            throws HubIntegrationException {
+        final ProjectVersionItem releaseItem = lookupCache.getProjectVersion(projectVersionLink);
         return releaseItem;
     }
 
@@ -58,6 +58,12 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
 
     @Override
     public List<NotificationContentItem> transform(final NotificationItem item) throws HubItemTransformException {
+        return transform(item, createLookupCache());
+    }
+
+    @Override
+    public List<NotificationContentItem> transform(final NotificationItem item, final NotificationLookupCache lookupCache)
+            throws HubItemTransformException {
         final List<NotificationContentItem> templateData = new ArrayList<>();
         final ProjectVersionItem releaseItem;
         final PolicyOverrideNotificationItem policyOverride = (PolicyOverrideNotificationItem) item;
@@ -73,7 +79,7 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
         componentVersionList.add(componentStatus);
 
         try {
-            releaseItem = getProjectVersionService().getItem(policyOverride.getContent().getProjectVersionLink());
+            releaseItem = lookupCache.getProjectVersion(policyOverride.getContent().getProjectVersionLink());
         } catch (final HubIntegrationException e) {
             throw new HubItemTransformException(e);
         }
@@ -83,7 +89,7 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
         projectVersion.setProjectVersionName(releaseItem.getVersionName());
         projectVersion.setUrl(policyOverride.getContent().getProjectVersionLink());
 
-        handleNotification(componentVersionList, projectVersion, item, templateData);
+        handleNotification(componentVersionList, projectVersion, item, templateData, lookupCache);
         return templateData;
     }
 
@@ -91,6 +97,13 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
     public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
             final ProjectVersion projectVersion, final NotificationItem item,
             final List<NotificationContentItem> templateData) throws HubItemTransformException {
+        handleNotification(componentVersionList, projectVersion, item, templateData, createLookupCache());
+    }
+
+    @Override
+    public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
+            final ProjectVersion projectVersion, final NotificationItem item,
+            final List<NotificationContentItem> templateData, final NotificationLookupCache lookupCache) throws HubItemTransformException {
 
         final PolicyOverrideNotificationItem policyOverrideItem = (PolicyOverrideNotificationItem) item;
         for (final ComponentVersionStatus componentVersion : componentVersionList) {
@@ -99,12 +112,12 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
                 final String componentVersionLink = policyOverrideItem.getContent().getComponentVersionLink();
                 String componentVersionName = null;
                 if (componentVersionLink != null) {
-                    componentVersionName = getComponentVersionName(componentVersionLink);
+                    componentVersionName = getComponentVersionName(componentVersionLink, lookupCache);
                 }
                 final String policyStatusUrl = componentVersion.getBomComponentVersionPolicyStatusLink();
 
                 if (StringUtils.isNotBlank(policyStatusUrl)) {
-                    final BomComponentVersionPolicyStatus bomComponentVersionPolicyStatus = getBomComponentVersionPolicyStatus(policyStatusUrl);
+                    final BomComponentVersionPolicyStatus bomComponentVersionPolicyStatus = getBomComponentVersionPolicyStatus(policyStatusUrl, lookupCache);
 
                     final Map<String, List<String>> policyRulesLink = getMetaService().getLinks(bomComponentVersionPolicyStatus);
                     List<String> ruleList = getRuleUrls(policyRulesLink.get(MetaService.POLICY_RULE_LINK));
@@ -113,7 +126,7 @@ public class PolicyViolationOverrideTransformer extends AbstractPolicyTransforme
                     if (ruleList != null && !ruleList.isEmpty()) {
                         final List<PolicyRule> policyRuleList = new ArrayList<>();
                         for (final String ruleUrl : ruleList) {
-                            final PolicyRule rule = getPolicyRule(ruleUrl);
+                            final PolicyRule rule = getPolicyRule(ruleUrl, lookupCache);
                             policyRuleList.add(rule);
                         }
                         createContents(projectVersion, componentVersion.getComponentName(), componentVersionName,
@@ -54,6 +54,12 @@ public class PolicyViolationTransformer extends AbstractPolicyTransformer {
 
     @Override
     public List<NotificationContentItem> transform(final NotificationItem item) throws HubItemTransformException {
+        return transform(item, createLookupCache());
+    }
+
+    @Override
+    public List<NotificationContentItem> transform(final NotificationItem item, final NotificationLookupCache lookupCache)
+            throws HubItemTransformException {
         final List<NotificationContentItem> templateData = new ArrayList<>();
         final RuleViolationNotificationItem policyViolation = (RuleViolationNotificationItem) item;
         final String projectName = policyViolation.getContent().getProjectName();
@@ -62,7 +68,7 @@ public class PolicyViolationTransformer extends AbstractPolicyTransformer {
         final String projectVersionLink = policyViolation.getContent().getProjectVersionLink();
         ProjectVersionItem releaseItem;
         try {
-            releaseItem = getReleaseItem(projectVersionLink);
+            releaseItem = getReleaseItem(projectVersionLink, lookupCache);
         } catch (final HubIntegrationException e) {
             throw new HubItemTransformException(e);
         }
@@ -71,7 +77,7 @@ public class PolicyViolationTransformer extends AbstractPolicyTransformer {
         projectVersion.setProjectVersionName(releaseItem.getVersionName());
         projectVersion.setUrl(policyViolation.getContent().getProjectVersionLink());
 
-        handleNotification(componentVersionList, projectVersion, item, templateData);
+        handleNotification(componentVersionList, projectVersion, item, templateData, lookupCache);
 
         return templateData;
     }
@@ -80,12 +86,20 @@ public class PolicyViolationTransformer extends AbstractPolicyTransformer {
     public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
             final ProjectVersion projectVersion, final NotificationItem item,
             final List<NotificationContentItem> templateData) throws HubItemTransformException {
+        handleNotification(componentVersionList, projectVersion, item, templateData, createLookupCache());
+    }
+
+    @Override
+    public void handleNotification(final List<ComponentVersionStatus> componentVersionList,
+            final ProjectVersion projectVersion, final NotificationItem item,
+            final List<NotificationContentItem> templateData, final NotificationLookupCache lookupCache) throws HubItemTransformException {
         handleNotificationUsingBomComponentVersionPolicyStatusLink(componentVersionList, projectVersion, item,
-                templateData);
+                templateData, lookupCache);
     }
 
-    private ProjectVersionItem getReleaseItem(final String projectVersionLink) throws HubIntegrationException {
-        final ProjectVersionItem releaseItem = getProjectVersionService().getItem(projectVersionLink);
+    private ProjectVersionItem getReleaseItem(final String projectVersionLink, final NotificationLookupCache lookupCache)
+            throws HubIntegrationException {
+        final ProjectVersionItem releaseItem = lookupCache.getProjectVersion(projectVersionLink);
         return releaseItem;
     }
 
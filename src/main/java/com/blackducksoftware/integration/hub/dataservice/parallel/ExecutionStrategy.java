@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.parallel;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How a ParallelResourceProcessor runs its transforms. Every executor created here uses daemon threads, and the pools
+ * let idle threads die, so an executor that is never shut down does not keep threads or the JVM alive.
+ */
+public enum ExecutionStrategy {
+    /**
+     * One thread per processor, for transforms that spend their time computing.
+     */
+    CPU_BOUND {
+        @Override
+        public ExecutorService createExecutorService() {
+            return createFixedThreadPool(getProcessorCount());
+        }
+    },
+    /**
+     * Several threads per processor, for transforms that spend their time waiting on the Hub.
+     */
+    IO_BOUND {
+        @Override
+        public ExecutorService createExecutorService() {
+            return createFixedThreadPool(getProcessorCount() * IO_THREADS_PER_PROCESSOR);
+        }
+    },
+    /**
+     * A work-stealing ForkJoinPool sized to the processors.
+     */
+    WORK_STEALING {
+        @Override
+        public ExecutorService createExecutorService() {
+            return new ForkJoinPool(getProcessorCount(), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                @Override
+                public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName(THREAD_NAME_PREFIX + THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, null, false);
+        }
+    },
+    /**
+     * A new virtual thread for every transform. Virtual threads only exist on newer runtimes, so on older ones this
+     * falls back to IO_BOUND.
+     */
+    VIRTUAL_THREADS {
+        @Override
+        public boolean isSupported() {
+            return getVirtualThreadExecutorFactory() != null;
+        }
+
+        @Override
+        public ExecutorService createExecutorService() {
+            final Method factory = getVirtualThreadExecutorFactory();
+            if (factory != null) {
+                try {
+                    return (ExecutorService) factory.invoke(null);
+                } catch (final ReflectiveOperationException | RuntimeException e) {
+                    // fall through to the pool below
+                }
+            }
+            return IO_BOUND.createExecutorService();
+        }
+    };
+
+    public static final int IO_THREADS_PER_PROCESSOR = 4;
+
+    private static final String THREAD_NAME_PREFIX = "hub-parallel-";
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final long IDLE_THREAD_SECONDS = 60L;
+
+    public abstract ExecutorService createExecutorService();
+
+    public boolean isSupported() {
+        return true;
+    }
+
+    private static int getProcessorCount() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ExecutorService createFixedThreadPool(final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + THREAD_COUNT.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static Method getVirtualThreadExecutorFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.parallel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What became of one item handed to a ParallelResourceProcessor.
+ */
+public class ItemOutcome<R, S> {
+    public enum Status {
+        SUCCEEDED,
+        /** The transform still failed after every retry the RetryPolicy allowed. */
+        FAILED,
+        /** No transform is registered for the class of the item. */
+        SKIPPED;
+    }
+
+    private final S item;
+
+    private final Status status;
+
+    private final List<R> results;
+
+    private final Exception failure;
+
+    private final int attempts;
+
+    private final long latencyNanos;
+
+    private ItemOutcome(final S item, final Status status, final List<R> results, final Exception failure, final int attempts,
+            final long latencyNanos) {
+        this.item = item;
+        this.status = status;
+        this.results = results;
+        this.failure = failure;
+        this.attempts = attempts;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public static <R, S> ItemOutcome<R, S> succeeded(final S item, final List<R> results, final int attempts, final long latencyNanos) {
+        return new ItemOutcome<>(item, Status.SUCCEEDED, results, null, attempts, latencyNanos);
+    }
+
+    public static <R, S> ItemOutcome<R, S> failed(final S item, final Exception failure, final int attempts, final long latencyNanos) {
+        return new ItemOutcome<>(item, Status.FAILED, Collections.<R> emptyList(), failure, attempts, latencyNanos);
+    }
+
+    public static <R, S> ItemOutcome<R, S> skipped(final S item) {
+        return new ItemOutcome<>(item, Status.SKIPPED, Collections.<R> emptyList(), null, 0, 0);
+    }
+
+    public S getItem() {
+        return item;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<R> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the exception of the last attempt, or null unless the item failed.
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the time from the first attempt to the end of the last one, including the backoff between retries.
+     */
+    public long getLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemOutcome [item=" + item + ", status=" + status + ", attempts=" + attempts + ", latencyMillis=" + getLatencyMillis()
+                + (failure == null ? "" : ", failure=" + failure.getMessage()) + "]";
+    }
+
+}
@@ -21,42 +21,74 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.dataservice.parallel;
 
+import java.io.Closeable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
 
 import com.blackducksoftware.integration.hub.dataservice.ItemTransform;
 import com.blackducksoftware.integration.log.IntLogger;
+import com.google.common.util.concurrent.Futures;
 
-public class ParallelResourceProcessor<R, S> {
+/**
+ * Transforms items in parallel. A processor that creates its own executor owns it and shuts it down when closed; an
+ * executor passed in by the caller is left for the caller to shut down.
+ */
+public class ParallelResourceProcessor<R, S> implements Closeable {
     private final Map<Class<?>, ItemTransform<List<R>, S>> transformerMap = new HashMap<>();;
 
     private final ExecutorService executorService;
 
-    private final ExecutorCompletionService<List<R>> completionService;
-
     private final IntLogger logger;
 
+    private final boolean ownsExecutorService;
+
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+
+    /**
+     * Uses the IO_BOUND strategy, since transforms usually spend their time waiting on the Hub.
+     */
     public ParallelResourceProcessor(final IntLogger logger) {
+        this(logger, ExecutionStrategy.IO_BOUND);
+    }
+
+    public ParallelResourceProcessor(final IntLogger logger, final ExecutionStrategy executionStrategy) {
         this.logger = logger;
-        final ThreadFactory threadFactory = Executors.defaultThreadFactory();
-        executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
-        completionService = new ExecutorCompletionService<>(executorService);
+        executorService = executionStrategy.createExecutorService();
+        ownsExecutorService = true;
     }
 
-    public ParallelResourceProcessor(final IntLogger logger, final ExecutorService executorService,
-            final ExecutorCompletionService<List<R>> completionService) {
+    public ParallelResourceProcessor(final IntLogger logger, final ExecutorService executorService) {
         this.logger = logger;
         this.executorService = executorService;
-        this.completionService = completionService;
+        ownsExecutorService = false;
+    }
+
+    /**
+     * @deprecated every call now uses a completion service of its own, so the completionService passed in is ignored:
+     *             nothing is submitted to it and no results are queued on it. The transforms run on executorService,
+     *             so a completion service created over a different executor no longer decides where they run. Use
+     *             ParallelResourceProcessor(IntLogger, ExecutorService) with the executor the transforms should run on.
+     */
+    @Deprecated
+    public ParallelResourceProcessor(final IntLogger logger, final ExecutorService executorService,
+            final ExecutorCompletionService<List<R>> completionService) {
+        this(logger, executorService);
+    }
+
+    /**
+     * Lets the transforms already submitted finish, then releases the threads of an executor this processor created.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutorService) {
+            executorService.shutdown();
+        }
     }
 
     public void addTransform(final Class<?> clazz, final ItemTransform<List<R>, S> transform) {
@@ -67,54 +99,267 @@ public class ParallelResourceProcessor<R, S> {
         transformerMap.remove(clazz);
     }
 
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets how failed transforms are retried by the calls made from now on. The default, RetryPolicy.NONE, does not
+     * retry.
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the results of every item that was transformed. Items that failed are left out; they are logged along
+     * with a warning that summarizes the call.
+     */
     public List<R> process(final List<S> itemsToProcess) {
-        final int submitted = submitItems(itemsToProcess);
-        final List<R> results = processItems(submitted);
+        return process(itemsToProcess, Math.max(itemsToProcess.size(), 1));
+    }
+
+    /**
+     * Processes the items while they are still being produced. Each item is submitted as soon as the iterator returns
+     * it, so a lazily paged iterable keeps downloading later pages while the earlier items are transformed. At most
+     * maxPendingItems submitted items are waiting or being transformed at once; once that bound is reached, the
+     * iterator is not advanced until a transform completes.
+     */
+    public List<R> process(final Iterable<S> itemsToProcess, final int maxPendingItems) {
+        final List<R> results = new LinkedList<>();
+        final ProcessingSummary<R, S> summary = process(itemsToProcess, maxPendingItems, new ResultHandler<R>() {
+            @Override
+            public void handleResults(final List<R> itemResults) {
+                results.addAll(itemResults);
+            }
+        });
+        if (summary.hasFailures()) {
+            logger.warn(summary.toString());
+        }
         return results;
     }
 
-    private int submitItems(final List<S> itemList) {
-        int submitted = 0;
-        for (final S item : itemList) {
-            final Class<?> key = item.getClass();
-            if (transformerMap.containsKey(key)) {
-                final ItemTransform<List<R>, S> converter = transformerMap.get(key);
-                final TransformCallable callable = new TransformCallable(item, converter);
-                completionService.submit(callable);
-                submitted++;
+    /**
+     * Like process(Iterable, int), but hands the results of each item to the handler as soon as its transform completes
+     * instead of collecting them, so nothing is held once it has been handled. The summary returned accounts for every
+     * item, including the ones that failed or had no transform. The handler may be null when the transforms keep their
+     * results on the items themselves.
+     */
+    public ProcessingSummary<R, S> process(final Iterable<S> itemsToProcess, final int maxPendingItems, final ResultHandler<R> resultHandler) {
+        return process(itemsToProcess, maxPendingItems, resultHandler, false);
+    }
+
+    /**
+     * Like process(Iterable, int, ResultHandler), but the results are handed over in the order of the items. Results that
+     * complete early wait in a reorder buffer for the items before them; that buffer counts towards maxPendingItems, so
+     * a slow item holds back the iterator rather than letting the buffer grow.
+     */
+    public ProcessingSummary<R, S> processInOrder(final Iterable<S> itemsToProcess, final int maxPendingItems, final ResultHandler<R> resultHandler) {
+        return process(itemsToProcess, maxPendingItems, resultHandler, true);
+    }
+
+    private ProcessingSummary<R, S> process(final Iterable<S> itemsToProcess, final int maxPendingItems, final ResultHandler<R> resultHandler,
+            final boolean ordered) {
+        if (maxPendingItems <= 0) {
+            throw new IllegalArgumentException("The maximum pending items must be greater than zero.");
+        }
+        // a completion service of its own, so no other call can take these results
+        final ExecutorCompletionService<ItemOutcome<R, S>> completionService = new ExecutorCompletionService<>(executorService);
+        final ResultEmitter emitter = new ResultEmitter(resultHandler, ordered);
+        final RetryPolicy callRetryPolicy = retryPolicy;
+        boolean iterated = false;
+        try {
+            for (final S item : itemsToProcess) {
+                final Future<ItemOutcome<R, S>> future = submitItem(item, completionService, callRetryPolicy);
+                if (future != null) {
+                    emitter.submitted(future);
+                } else {
+                    emitter.skipped(item);
+                }
+                while (emitter.getPendingCount() >= maxPendingItems) {
+                    emitter.completed(takeFuture(completionService));
+                }
+                Future<ItemOutcome<R, S>> completed;
+                while ((completed = completionService.poll()) != null) {
+                    emitter.completed(completed);
+                }
+            }
+            iterated = true;
+        } finally {
+            if (!iterated) {
+                // the iterator or the handler failed, let the submitted transforms go
+                emitter.cancelOutstanding();
+            }
+            while (emitter.getOutstandingCount() > 0) {
+                final Future<ItemOutcome<R, S>> future = takeFuture(completionService);
+                if (iterated) {
+                    emitter.completed(future);
+                } else {
+                    emitter.discarded(future);
+                }
             }
         }
+        return emitter.getSummary();
+    }
 
-        return submitted;
+    private Future<ItemOutcome<R, S>> submitItem(final S item, final ExecutorCompletionService<ItemOutcome<R, S>> completionService,
+            final RetryPolicy callRetryPolicy) {
+        final Class<?> key = item.getClass();
+        if (transformerMap.containsKey(key)) {
+            final ItemTransform<List<R>, S> converter = transformerMap.get(key);
+            final TransformCallable callable = new TransformCallable(item, converter, callRetryPolicy);
+            return completionService.submit(callable);
+        }
+        return null;
     }
 
-    private List<R> processItems(final int submitted) {
-        final List<R> results = new LinkedList<>();
-        for (int index = 0; index < submitted; index++) {
-            try {
-                final Future<List<R>> future = completionService.take();
-                final List<R> contentItems = future.get();
-                results.addAll(contentItems);
-            } catch (final ExecutionException | InterruptedException e) {
-                logger.error(e.getMessage(), e);
+    private Future<ItemOutcome<R, S>> takeFuture(final ExecutorCompletionService<ItemOutcome<R, S>> completionService) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return completionService.take();
+                } catch (final InterruptedException e) {
+                    // the submitted transforms still have to be accounted for, keep the interrupt for the caller
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
-        return results;
     }
 
-    private class TransformCallable implements Callable<List<R>> {
+    /**
+     * Tracks the futures of one process call and hands their results to the handler, through the reorder buffer when
+     * the results must keep the order of the items.
+     */
+    private class ResultEmitter {
+        private final ResultHandler<R> resultHandler;
+
+        private final boolean ordered;
+
+        private final Map<Future<ItemOutcome<R, S>>, Long> sequenceNumbers = new HashMap<>();
+
+        private final Map<Long, List<R>> reorderBuffer = new HashMap<>();
+
+        private final ProcessingSummary.Builder<R, S> summaryBuilder = new ProcessingSummary.Builder<>();
+
+        private long submittedCount;
+
+        private long nextToEmit;
+
+        public ResultEmitter(final ResultHandler<R> resultHandler, final boolean ordered) {
+            this.resultHandler = resultHandler;
+            this.ordered = ordered;
+        }
+
+        public void submitted(final Future<ItemOutcome<R, S>> future) {
+            sequenceNumbers.put(future, submittedCount++);
+        }
+
+        public void skipped(final S item) {
+            summaryBuilder.add(ItemOutcome.<R, S> skipped(item));
+        }
+
+        public void completed(final Future<ItemOutcome<R, S>> future) {
+            final Long sequenceNumber = sequenceNumbers.remove(future);
+            // the transform catches its own exceptions, anything thrown here is an Error
+            final ItemOutcome<R, S> outcome = Futures.getUnchecked(future);
+            summaryBuilder.add(outcome);
+            if (outcome.getStatus() == ItemOutcome.Status.FAILED) {
+                logger.error("Could not transform " + outcome.getItem() + " after " + outcome.getAttempts() + " attempts: "
+                        + outcome.getFailure().getMessage(), outcome.getFailure());
+            }
+            if (!ordered) {
+                nextToEmit++;
+                if (resultHandler != null) {
+                    resultHandler.handleResults(outcome.getResults());
+                }
+                return;
+            }
+            reorderBuffer.put(sequenceNumber, outcome.getResults());
+            List<R> nextResults;
+            while ((nextResults = reorderBuffer.remove(nextToEmit)) != null) {
+                nextToEmit++;
+                resultHandler.handleResults(nextResults);
+            }
+        }
+
+        public void discarded(final Future<ItemOutcome<R, S>> future) {
+            sequenceNumbers.remove(future);
+        }
+
+        public void cancelOutstanding() {
+            for (final Future<ItemOutcome<R, S>> future : sequenceNumbers.keySet()) {
+                future.cancel(false);
+            }
+        }
+
+        /**
+         * Items submitted but not yet handed to the handler, whether still transforming or waiting in the reorder
+         * buffer.
+         */
+        public long getPendingCount() {
+            return submittedCount - nextToEmit;
+        }
+
+        /**
+         * Futures that have not been taken from the completion service yet.
+         */
+        public int getOutstandingCount() {
+            return sequenceNumbers.size();
+        }
+
+        public ProcessingSummary<R, S> getSummary() {
+            return summaryBuilder.build();
+        }
+    }
+
+    private class TransformCallable implements Callable<ItemOutcome<R, S>> {
         private final S item;
 
         private final ItemTransform<List<R>, S> converter;
 
-        public TransformCallable(final S item, final ItemTransform<List<R>, S> converter) {
+        private final RetryPolicy retryPolicy;
+
+        public TransformCallable(final S item, final ItemTransform<List<R>, S> converter, final RetryPolicy retryPolicy) {
             this.item = item;
             this.converter = converter;
+            this.retryPolicy = retryPolicy;
         }
 
         @Override
-        public List<R> call() throws Exception {
-            return converter.transform(item);
+        public ItemOutcome<R, S> call() {
+            final long startNanos = System.nanoTime();
+            int attempts = 0;
+            while (true) {
+                attempts++;
+                try {
+                    final List<R> results = converter.transform(item);
+                    return ItemOutcome.succeeded(item, results, attempts, System.nanoTime() - startNanos);
+                } catch (final Exception e) {
+                    if (attempts > retryPolicy.getMaxRetries() || !retryPolicy.isRetryable(e) || !backOff(attempts, e)) {
+                        return ItemOutcome.failed(item, e, attempts, System.nanoTime() - startNanos);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return false if the wait was interrupted, and the item should not be tried again.
+         */
+        private boolean backOff(final int retry, final Exception e) {
+            final long backoffMillis = retryPolicy.getBackoffMillis(retry);
+            logger.debug("Retrying " + item + " in " + backoffMillis + " ms: " + e.getMessage());
+            try {
+                Thread.sleep(backoffMillis);
+                return true;
+            } catch (final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
     }
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.parallel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts, throughput and transform latency of one ParallelResourceProcessor call, along with the outcome of every item
+ * that did not succeed. The latency percentiles cover the items that were transformed, whether they succeeded or not.
+ */
+public class ProcessingSummary<R, S> {
+    private final int succeededCount;
+
+    private final int failedCount;
+
+    private final int skippedCount;
+
+    private final int retryCount;
+
+    private final long elapsedNanos;
+
+    private final long[] sortedLatencyNanos;
+
+    private final List<ItemOutcome<R, S>> unsuccessfulOutcomes;
+
+    private ProcessingSummary(final Builder<R, S> builder, final long elapsedNanos) {
+        succeededCount = builder.succeededCount;
+        failedCount = builder.failedCount;
+        skippedCount = builder.skippedCount;
+        retryCount = builder.retryCount;
+        this.elapsedNanos = elapsedNanos;
+        sortedLatencyNanos = Arrays.copyOf(builder.latencyNanos, builder.transformedCount);
+        Arrays.sort(sortedLatencyNanos);
+        unsuccessfulOutcomes = Collections.unmodifiableList(new ArrayList<>(builder.unsuccessfulOutcomes));
+    }
+
+    public int getItemCount() {
+        return succeededCount + failedCount + skippedCount;
+    }
+
+    public int getSucceededCount() {
+        return succeededCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public boolean hasFailures() {
+        return failedCount > 0;
+    }
+
+    /**
+     * @return the retries made across all items, a rising count is the first sign of an overloaded Hub.
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return the items transformed per second, whether they succeeded or not.
+     */
+    public double getThroughputPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return sortedLatencyNanos.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public long getMedianLatencyMillis() {
+        return getLatencyPercentileMillis(50);
+    }
+
+    public long getP99LatencyMillis() {
+        return getLatencyPercentileMillis(99);
+    }
+
+    /**
+     * @return the nearest-rank percentile of the transform latencies, or 0 when nothing was transformed.
+     */
+    public long getLatencyPercentileMillis(final double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be greater than 0 and at most 100.");
+        }
+        if (sortedLatencyNanos.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * sortedLatencyNanos.length);
+        return TimeUnit.NANOSECONDS.toMillis(sortedLatencyNanos[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * @return the outcomes of the items that failed or were skipped, in the order they completed.
+     */
+    public List<ItemOutcome<R, S>> getUnsuccessfulOutcomes() {
+        return unsuccessfulOutcomes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Processed %d items in %d ms (%.1f/s): %d succeeded, %d failed, %d skipped, %d retries, p50 %d ms, p99 %d ms",
+                getItemCount(), getElapsedMillis(), getThroughputPerSecond(), succeededCount, failedCount, skippedCount, retryCount,
+                getMedianLatencyMillis(), getP99LatencyMillis());
+    }
+
+    /**
+     * Collects the outcomes of the items, for callers that account for the items themselves. The elapsed time of the
+     * summary starts when the builder is created.
+     */
+    public static class Builder<R, S> {
+        private final long startNanos = System.nanoTime();
+
+        private int succeededCount;
+
+        private int failedCount;
+
+        private int skippedCount;
+
+        private int retryCount;
+
+        private int transformedCount;
+
+        private long[] latencyNanos = new long[16];
+
+        private final List<ItemOutcome<R, S>> unsuccessfulOutcomes = new ArrayList<>();
+
+        public void add(final ItemOutcome<R, S> outcome) {
+            switch (outcome.getStatus()) {
+            case SUCCEEDED:
+                succeededCount++;
+                break;
+            case FAILED:
+                failedCount++;
+                unsuccessfulOutcomes.add(outcome);
+                break;
+            case SKIPPED:
+                skippedCount++;
+                unsuccessfulOutcomes.add(outcome);
+                return;
+            }
+            retryCount += outcome.getAttempts() - 1;
+            if (transformedCount == latencyNanos.length) {
+                latencyNanos = Arrays.copyOf(latencyNanos, transformedCount * 2);
+            }
+            latencyNanos[transformedCount++] = outcome.getLatencyNanos();
+        }
+
+        public ProcessingSummary<R, S> build() {
+            return new ProcessingSummary<>(this, System.nanoTime() - startNanos);
+        }
+    }
+
+}
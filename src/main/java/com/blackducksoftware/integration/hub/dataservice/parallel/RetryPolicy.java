@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.parallel;
+
+import com.blackducksoftware.integration.hub.exception.HubItemTransformException;
+
+/**
+ * How often a failed transform is tried again, and how long to wait before each retry. The wait doubles with every
+ * retry up to maxBackoffMillis. Only a HubItemTransformException is retried by default, since that is how the
+ * transformers report a Hub request that failed; override isRetryable to choose differently.
+ */
+public class RetryPolicy {
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0);
+
+    private final int maxRetries;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    public RetryPolicy(final int maxRetries, final long initialBackoffMillis, final long maxBackoffMillis) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The maximum retries can not be negative.");
+        }
+        if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("The backoff must be positive and no larger than the maximum backoff.");
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public boolean isRetryable(final Exception e) {
+        return e instanceof HubItemTransformException;
+    }
+
+    /**
+     * @param retry
+     *            the retry about to be made, starting at 1.
+     */
+    public long getBackoffMillis(final int retry) {
+        long backoff = initialBackoffMillis;
+        for (int doubling = 1; doubling < retry && backoff < maxBackoffMillis; doubling++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, maxBackoffMillis);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+}
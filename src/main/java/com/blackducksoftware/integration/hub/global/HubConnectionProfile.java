@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.global;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * How many connections and concurrent requests a RestConnection may use against the Hub. The defaults are the OkHttp
+ * defaults, five idle connections and five requests per host, which cap any parallel processing at five Hub calls;
+ * raise them to let more calls run at once.
+ */
+public class HubConnectionProfile implements Serializable {
+    private static final long serialVersionUID = 4017584437208394411L;
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    public static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    public static final boolean DEFAULT_HTTP2_ENABLED = true;
+
+    public static final int DEFAULT_WARM_UP_CONNECTIONS = 0;
+
+    private final int maxIdleConnections;
+
+    private final int keepAliveSeconds;
+
+    private final int maxRequests;
+
+    private final int maxRequestsPerHost;
+
+    private final boolean http2Enabled;
+
+    private final int warmUpConnections;
+
+    public HubConnectionProfile() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_SECONDS, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST, DEFAULT_HTTP2_ENABLED,
+                DEFAULT_WARM_UP_CONNECTIONS);
+    }
+
+    /**
+     * @param http2Enabled
+     *            when false only HTTP/1.1 is offered to the server. When true HTTP/2 is preferred wherever the server and
+     *            the TLS implementation can negotiate it.
+     * @param warmUpConnections
+     *            the number of connections to open in the background after the first authentication, so the first
+     *            burst of requests does not pay for each handshake in turn. Zero, the default, turns the warm up off.
+     */
+    public HubConnectionProfile(final int maxIdleConnections, final int keepAliveSeconds, final int maxRequests, final int maxRequestsPerHost,
+            final boolean http2Enabled, final int warmUpConnections) {
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("The maximum idle connections can not be negative.");
+        }
+        if (keepAliveSeconds <= 0) {
+            throw new IllegalArgumentException("The keep alive must be greater than zero.");
+        }
+        if (maxRequests <= 0 || maxRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("The maximum requests must be greater than zero.");
+        }
+        if (warmUpConnections < 0) {
+            throw new IllegalArgumentException("The warm up connections can not be negative.");
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveSeconds = keepAliveSeconds;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.http2Enabled = http2Enabled;
+        this.warmUpConnections = warmUpConnections;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public int getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+}
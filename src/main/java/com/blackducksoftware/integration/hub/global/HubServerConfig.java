@@ -39,12 +39,20 @@ public class HubServerConfig implements Serializable {
 
     private final HubProxyInfo proxyInfo;
 
+    private final HubConnectionProfile connectionProfile;
+
     public HubServerConfig(final URL url, final int timeoutSeconds, final HubCredentials credentials,
             final HubProxyInfo proxyInfo) {
+        this(url, timeoutSeconds, credentials, proxyInfo, new HubConnectionProfile());
+    }
+
+    public HubServerConfig(final URL url, final int timeoutSeconds, final HubCredentials credentials,
+            final HubProxyInfo proxyInfo, final HubConnectionProfile connectionProfile) {
         this.hubUrl = url;
         this.timeoutSeconds = timeoutSeconds;
         this.credentials = credentials;
         this.proxyInfo = proxyInfo;
+        this.connectionProfile = connectionProfile;
     }
 
     public boolean shouldUseProxyForHub() {
@@ -86,6 +94,8 @@ public class HubServerConfig implements Serializable {
         builder.append(credentials);
         builder.append(", proxyInfo=");
         builder.append(proxyInfo);
+        builder.append(", connectionProfile=");
+        builder.append(connectionProfile);
         builder.append("]");
         return builder.toString();
     }
@@ -94,6 +104,7 @@ public class HubServerConfig implements Serializable {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = prime * result + ((connectionProfile == null) ? 0 : connectionProfile.hashCode());
         result = prime * result + ((credentials == null) ? 0 : credentials.hashCode());
         result = prime * result + ((hubUrl == null) ? 0 : hubUrl.hashCode());
         result = prime * result + ((proxyInfo == null) ? 0 : proxyInfo.hashCode());
@@ -113,6 +124,13 @@ public class HubServerConfig implements Serializable {
             return false;
         }
         final HubServerConfig other = (HubServerConfig) obj;
+        if (connectionProfile == null) {
+            if (other.connectionProfile != null) {
+                return false;
+            }
+        } else if (!connectionProfile.equals(other.connectionProfile)) {
+            return false;
+        }
         if (credentials == null) {
             if (other.credentials != null) {
                 return false;
@@ -156,4 +174,8 @@ public class HubServerConfig implements Serializable {
         return timeoutSeconds;
     }
 
+    public HubConnectionProfile getConnectionProfile() {
+        return connectionProfile;
+    }
+
 }
@@ -22,7 +22,7 @@
 package com.blackducksoftware.integration.hub.global;
 
 public enum HubServerConfigFieldEnum implements GlobalFieldKey {
-    HUBURL("hubUrl"), CREDENTIALS("hubCredentials"), PROXYINFO("hubProxyInfo"), HUBTIMEOUT("hubTimeout");
+    HUBURL("hubUrl"), CREDENTIALS("hubCredentials"), PROXYINFO("hubProxyInfo"), HUBTIMEOUT("hubTimeout"), CONNECTIONPROFILE("hubConnectionProfile");
 
     private String key;
 
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import com.blackducksoftware.integration.hub.notification.processor.event.EventKey;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * A MapProcessorCache that sub-processors can add events to from several threads at once, as
+ * NotificationProcessor.processInParallel does. Adding and removing an event are atomic: the data set of an event
+ * already in the cache is merged under a lock striped by event key, so events with different keys rarely contend.
+ * Unlike MapProcessorCache, the events are not returned in the order they were added.
+ */
+public class ConcurrentMapProcessorCache<T extends NotificationEvent<?>> extends MapProcessorCache<T> {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Striped<Lock> keyLocks = Striped.lock(LOCK_STRIPES);
+
+    public ConcurrentMapProcessorCache() {
+        super(new ConcurrentHashMap<EventKey, T>(500));
+    }
+
+    @Override
+    public void addEvent(final T event) {
+        final Lock lock = keyLocks.get(event.getKey());
+        lock.lock();
+        try {
+            super.addEvent(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEvent(final EventKey eventKey) {
+        final Lock lock = keyLocks.get(eventKey);
+        lock.lock();
+        try {
+            super.removeEvent(eventKey);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -21,20 +21,31 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.notification.processor;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.io.Serializable;
+import java.util.Objects;
+
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
-public class ItemEntry {
+public class ItemEntry implements Serializable {
+    private static final long serialVersionUID = -4776319603706946390L;
 
     private final String key;
 
     private final String value;
 
+    // both fields are final, so the hash is worked out once for all the sets the entry is added to
+    private final transient int hashCode;
+
     public ItemEntry(final String key, final String value) {
         this.key = key;
         this.value = value;
+        hashCode = 31 * Objects.hashCode(key) + Objects.hashCode(value);
+    }
+
+    private Object readResolve() {
+        // the cached hash is transient, so it is worked out again for the deserialized entry
+        return new ItemEntry(key, value);
     }
 
     public String getKey() {
@@ -48,12 +59,19 @@ public class ItemEntry {
     // DO NOT REMOVE NEEDED DUE TO SET INSERTION
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this, false);
+        return hashCode;
     }
 
     @Override
     public boolean equals(final Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj, false);
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final ItemEntry other = (ItemEntry) obj;
+        return hashCode == other.hashCode && Objects.equals(key, other.key) && Objects.equals(value, other.value);
     }
 
     @Override
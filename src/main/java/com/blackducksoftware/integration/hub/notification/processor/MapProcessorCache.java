@@ -21,56 +21,188 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.notification.processor;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.notification.processor.event.EventKey;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
 
+/**
+ * Merges the events with the same EventKey. The methods that take a String key accept the rendered form of
+ * NotificationEvent.getEventKey(). Keys saved by an earlier release, before events were keyed by EventKey, have a
+ * different format and match no event; a consumer that persisted them has to replace them with the keys of the events
+ * it reads from this release.
+ */
 public class MapProcessorCache<T extends NotificationEvent<?>> implements SubProcessorCache<T> {
-    private final Map<String, T> eventMap = new LinkedHashMap<>(500);
+    private final Map<EventKey, T> eventMap;
 
-    public boolean hasEvent(String eventKey) {
+    public MapProcessorCache() {
+        this(new LinkedHashMap<EventKey, T>(500));
+    }
+
+    protected MapProcessorCache(final Map<EventKey, T> eventMap) {
+        this.eventMap = eventMap;
+    }
+
+    public boolean hasEvent(final EventKey eventKey) {
         return eventMap.containsKey(eventKey);
     }
 
+    /**
+     * @deprecated event keys are parsed from their string form, use the EventKey overload with event.getKey(). This
+     *             returns false for a string that is not an event key.
+     */
+    @Deprecated
+    public boolean hasEvent(final String eventKey) {
+        final EventKey key = parseEventKey(eventKey);
+        return key != null && hasEvent(key);
+    }
+
     @Override
     public void addEvent(final T event) {
-        final String key = event.getEventKey();
-        if (!eventMap.containsKey(key)) {
+        final EventKey key = event.getKey();
+        final T storedEvent = eventMap.get(key);
+        if (storedEvent == null) {
             eventMap.put(key, event);
         } else {
-            final T storedEvent = eventMap.get(key);
             final Set<ItemEntry> storedEventDataMap = storedEvent.getDataSet();
             final Set<ItemEntry> eventDataMap = event.getDataSet();
             storedEventDataMap.addAll(eventDataMap);
         }
     }
 
+    public void removeEvent(final EventKey eventKey) {
+        eventMap.remove(eventKey);
+    }
+
+    /**
+     * @deprecated use the EventKey overload with event.getKey(). Nothing is removed for a string that is not an event
+     *             key.
+     */
+    @Deprecated
     public void removeEvent(final String eventKey) {
-        if (eventMap.containsKey(eventKey)) {
-            eventMap.remove(eventKey);
+        final EventKey key = parseEventKey(eventKey);
+        if (key != null) {
+            removeEvent(key);
         }
     }
 
     @Override
     public void removeEvent(final T event) {
-        final String key = event.getEventKey();
-        removeEvent(key);
+        removeEvent(event.getKey());
     }
 
-    public T getEvent(final String eventKey) {
+    public T getEvent(final EventKey eventKey) {
         return eventMap.get(eventKey);
     }
 
+    /**
+     * @deprecated use the EventKey overload with event.getKey(). This returns null for a string that is not an event
+     *             key.
+     */
+    @Deprecated
+    public T getEvent(final String eventKey) {
+        final EventKey key = parseEventKey(eventKey);
+        if (key == null) {
+            return null;
+        }
+        return getEvent(key);
+    }
+
     @Override
     public Collection<T> getEvents() throws HubIntegrationException {
         return eventMap.values();
     }
 
-    public Map<String, T> getEventMap() {
+    public Map<EventKey, T> getEventKeyMap() {
         return eventMap;
     }
+
+    /**
+     * @deprecated use getEventKeyMap. This is a view of it keyed by the rendered keys of getEventKey(), which parses the
+     *             key of every lookup.
+     */
+    @Deprecated
+    public Map<String, T> getEventMap() {
+        final Map<EventKey, T> eventKeyMap = getEventKeyMap();
+        return new AbstractMap<String, T>() {
+            @Override
+            public boolean containsKey(final Object key) {
+                final EventKey eventKey = parseEventKey(key);
+                return eventKey != null && eventKeyMap.containsKey(eventKey);
+            }
+
+            @Override
+            public T get(final Object key) {
+                final EventKey eventKey = parseEventKey(key);
+                return eventKey == null ? null : eventKeyMap.get(eventKey);
+            }
+
+            @Override
+            public T put(final String key, final T value) {
+                return eventKeyMap.put(EventKey.fromString(key), value);
+            }
+
+            @Override
+            public T remove(final Object key) {
+                final EventKey eventKey = parseEventKey(key);
+                return eventKey == null ? null : eventKeyMap.remove(eventKey);
+            }
+
+            @Override
+            public int size() {
+                return eventKeyMap.size();
+            }
+
+            @Override
+            public Set<Entry<String, T>> entrySet() {
+                return new AbstractSet<Entry<String, T>>() {
+                    @Override
+                    public Iterator<Entry<String, T>> iterator() {
+                        final Iterator<Entry<EventKey, T>> entries = eventKeyMap.entrySet().iterator();
+                        return new Iterator<Entry<String, T>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return entries.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, T> next() {
+                                final Entry<EventKey, T> entry = entries.next();
+                                return new SimpleImmutableEntry<>(entry.getKey().toString(), entry.getValue());
+                            }
+
+                            @Override
+                            public void remove() {
+                                entries.remove();
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return eventKeyMap.size();
+                    }
+                };
+            }
+        };
+    }
+
+    private EventKey parseEventKey(final Object eventKey) {
+        if (!(eventKey instanceof String)) {
+            return null;
+        }
+        try {
+            return EventKey.fromString((String) eventKey);
+        } catch (final IllegalArgumentException e) {
+            // keys saved before events were keyed by EventKey can not match any event
+            return null;
+        }
+    }
 }
@@ -21,17 +21,29 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.notification.processor;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
 
 import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ExecutionStrategy;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ResultHandler;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.google.common.collect.Iterators;
 
 public abstract class NotificationProcessor<T> {
 
@@ -40,29 +52,175 @@ public abstract class NotificationProcessor<T> {
     private final List<MapProcessorCache<?>> cacheList = new ArrayList<>();
 
     public T process(final SortedSet<NotificationContentItem> notifications) throws HubIntegrationException {
-        createEvents(notifications);
-        final Collection<NotificationEvent<?>> events = collectEvents();
-        return processEvents(events);
+        for (final NotificationContentItem item : notifications) {
+            processNotification(item);
+        }
+        return processCollectedEvents();
+    }
+
+    /**
+     * Like process, but creates the events on several threads. The notifications are split by project version, and
+     * each project version is handed to one thread in the order its notifications were created, so a notification
+     * that cancels the events of an earlier one still sees them. Every cache in getCacheList() must be a
+     * ConcurrentMapProcessorCache, and the sub-processors must not keep state of their own between notifications.
+     * The executor is left running.
+     */
+    public T processInParallel(final SortedSet<NotificationContentItem> notifications, final ExecutorService executorService)
+            throws HubIntegrationException {
+        for (final MapProcessorCache<?> cache : cacheList) {
+            if (!(cache instanceof ConcurrentMapProcessorCache)) {
+                throw new IllegalStateException("Notifications can only be processed in parallel into a ConcurrentMapProcessorCache.");
+            }
+        }
+        final List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (final List<NotificationContentItem> projectVersionNotifications : groupByProjectVersion(notifications).values()) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws HubIntegrationException {
+                        for (final NotificationContentItem item : projectVersionNotifications) {
+                            processNotification(item);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while processing the notifications.", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof HubIntegrationException) {
+                throw (HubIntegrationException) e.getCause();
+            }
+            throw new HubIntegrationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (final Future<Void> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return processCollectedEvents();
     }
 
-    private void createEvents(final SortedSet<NotificationContentItem> notifications) throws HubIntegrationException {
+    /**
+     * Uses a CPU_BOUND executor for this call only.
+     */
+    public T processInParallel(final SortedSet<NotificationContentItem> notifications) throws HubIntegrationException {
+        final ExecutorService executorService = ExecutionStrategy.CPU_BOUND.createExecutorService();
+        try {
+            return processInParallel(notifications, executorService);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private Map<String, List<NotificationContentItem>> groupByProjectVersion(final SortedSet<NotificationContentItem> notifications) {
+        final Map<String, List<NotificationContentItem>> projectVersionMap = new LinkedHashMap<>();
         for (final NotificationContentItem item : notifications) {
-            final Class<?> key = item.getClass();
-            if (processorMap.containsKey(key)) {
-                final NotificationSubProcessor<?> processor = processorMap.get(key);
-                processor.process(item);
+            final String projectVersionUrl = StringUtils.defaultString(item.getProjectVersion().getUrl());
+            List<NotificationContentItem> projectVersionNotifications = projectVersionMap.get(projectVersionUrl);
+            if (projectVersionNotifications == null) {
+                projectVersionNotifications = new ArrayList<>();
+                projectVersionMap.put(projectVersionUrl, projectVersionNotifications);
             }
+            projectVersionNotifications.add(item);
         }
+        return projectVersionMap;
     }
 
+    /**
+     * Adds the events of a single notification to the caches, so notifications can be handed over as they are
+     * transformed instead of all at once. Notifications must still arrive in the order they were created, since a
+     * later notification can cancel the events of an earlier one.
+     */
+    public void processNotification(final NotificationContentItem item) throws HubIntegrationException {
+        final Class<?> key = item.getClass();
+        if (processorMap.containsKey(key)) {
+            final NotificationSubProcessor<?> processor = processorMap.get(key);
+            processor.process(item);
+        }
+    }
+
+    /**
+     * Processes the events of every notification handed to processNotification so far.
+     */
+    public T processCollectedEvents() throws HubIntegrationException {
+        final Collection<NotificationEvent<?>> events = collectEvents();
+        return processEvents(events);
+    }
+
+    /**
+     * A handler that passes each transformed notification straight to processNotification. A failure is rethrown as an
+     * IllegalStateException with the HubIntegrationException as its cause.
+     */
+    public ResultHandler<NotificationContentItem> createResultHandler() {
+        return new ResultHandler<NotificationContentItem>() {
+            @Override
+            public void handleResults(final List<NotificationContentItem> results) {
+                try {
+                    for (final NotificationContentItem item : results) {
+                        processNotification(item);
+                    }
+                } catch (final HubIntegrationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param eventCollection
+     *            a modifiable copy of the events in the caches, as before. When a cache is a SpillingProcessorCache it
+     *            is instead a read-only view that streams the spilled events, and must not be changed or kept.
+     */
     public abstract T processEvents(Collection<NotificationEvent<?>> eventCollection) throws HubIntegrationException;
 
+    /**
+     * Copies the events of every cache into a list, unless one of the caches is a SpillingProcessorCache. Its events
+     * are not all held in memory, so then the spilled events are streamed through a read-only view instead, while the
+     * events of the other caches are still copied.
+     */
     private Collection<NotificationEvent<?>> collectEvents() throws HubIntegrationException {
-        final Collection<NotificationEvent<?>> eventList = new LinkedList<>();
+        boolean spilling = false;
         for (final MapProcessorCache<?> processor : cacheList) {
-            eventList.addAll(processor.getEvents());
+            spilling |= processor instanceof SpillingProcessorCache;
         }
-        return eventList;
+        if (!spilling) {
+            final Collection<NotificationEvent<?>> eventList = new LinkedList<>();
+            for (final MapProcessorCache<?> processor : cacheList) {
+                eventList.addAll(processor.getEvents());
+            }
+            return eventList;
+        }
+        final List<Collection<? extends NotificationEvent<?>>> eventCollections = new ArrayList<>(cacheList.size());
+        for (final MapProcessorCache<?> processor : cacheList) {
+            if (processor instanceof SpillingProcessorCache) {
+                eventCollections.add(processor.getEvents());
+            } else {
+                eventCollections.add(new ArrayList<>(processor.getEvents()));
+            }
+        }
+        return new AbstractCollection<NotificationEvent<?>>() {
+            @Override
+            public Iterator<NotificationEvent<?>> iterator() {
+                final List<Iterator<? extends NotificationEvent<?>>> iterators = new ArrayList<>(eventCollections.size());
+                for (final Collection<? extends NotificationEvent<?>> events : eventCollections) {
+                    iterators.add(Iterators.unmodifiableIterator(events.iterator()));
+                }
+                return Iterators.concat(iterators.iterator());
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (final Collection<? extends NotificationEvent<?>> events : eventCollections) {
+                    size += events.size();
+                }
+                return size;
+            }
+        };
     }
 
     public Map<Class<?>, NotificationSubProcessor<?>> getProcessorMap() {
@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+import com.blackducksoftware.integration.hub.notification.processor.event.EventKey;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.google.common.base.Function;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+
+/**
+ * A MapProcessorCache for digests too large to keep in memory. At most maxEventsInMemory events are held on the heap;
+ * the least recently used ones are serialized to an append-only temporary file, and read back when an event with the
+ * same key is added, removed or looked up. getEvents() reads the spilled events from the file as it is iterated. The
+ * events must be Serializable, as the ones in this library are.
+ *
+ * This bounds the events on the heap, not the heap used: the key, offset and length of every spilled event stay in an
+ * index in memory, about a hundred bytes per event, so the index still grows with the number of distinct events added.
+ *
+ * getEvents() and getEventKeyMap() return a spilled event as a copy read from the file, so changing it does not change
+ * the cache. getEvent(EventKey) moves the event back into memory and returns the cached instance.
+ *
+ * Each class descriptor is kept in memory and written to the file as a number, so a record holds little more than the
+ * field values of its event. A spilled event that is changed or removed leaves its old record in the file until the
+ * stale records take up more of the file than the live ones, when the live records are copied to a new file. The file
+ * is deleted when the cache is closed. The events are not returned in the order they were added, and the cache must not
+ * be changed while getEvents() is being iterated.
+ */
+public class SpillingProcessorCache<T extends NotificationEvent<?>> extends MapProcessorCache<T> implements Closeable {
+    private final int maxEventsInMemory;
+
+    private final File spillDirectory;
+
+    private final LinkedHashMap<EventKey, T> eventsInMemory;
+
+    private final Map<EventKey, SpilledRecord> spilledRecords = new HashMap<>();
+
+    private final Map<Class<?>, Integer> classDescriptorIds = new HashMap<>();
+
+    private final List<ObjectStreamClass> classDescriptors = new ArrayList<>();
+
+    private final List<Closeable> openReaders = new ArrayList<>();
+
+    private File spillFile;
+
+    private RandomAccessFile spillAccess;
+
+    private long spillLength;
+
+    // the bytes of the records in spilledRecords, the rest of spillLength is stale
+    private long liveLength;
+
+    public SpillingProcessorCache(final int maxEventsInMemory) {
+        this(maxEventsInMemory, null);
+    }
+
+    /**
+     * @param spillDirectory
+     *            where the spill file is created, or null for the default temporary directory.
+     */
+    public SpillingProcessorCache(final int maxEventsInMemory, final File spillDirectory) {
+        // access order, so the eldest entry is always the least recently used event
+        this(maxEventsInMemory, spillDirectory, new LinkedHashMap<EventKey, T>(16, 0.75f, true));
+    }
+
+    private SpillingProcessorCache(final int maxEventsInMemory, final File spillDirectory, final LinkedHashMap<EventKey, T> eventsInMemory) {
+        super(eventsInMemory);
+        if (maxEventsInMemory <= 0) {
+            throw new IllegalArgumentException("The maximum events in memory must be greater than zero.");
+        }
+        this.maxEventsInMemory = maxEventsInMemory;
+        this.spillDirectory = spillDirectory;
+        this.eventsInMemory = eventsInMemory;
+    }
+
+    @Override
+    public boolean hasEvent(final EventKey eventKey) {
+        return eventsInMemory.containsKey(eventKey) || spilledRecords.containsKey(eventKey);
+    }
+
+    @Override
+    public void addEvent(final T event) {
+        loadSpilledEvent(event.getKey());
+        super.addEvent(event);
+        spillLeastRecentlyUsed();
+        compactIfMostlyStale();
+    }
+
+    @Override
+    public void removeEvent(final EventKey eventKey) {
+        eventsInMemory.remove(eventKey);
+        final SpilledRecord record = spilledRecords.remove(eventKey);
+        if (record != null) {
+            liveLength -= record.length;
+            compactIfMostlyStale();
+        }
+    }
+
+    @Override
+    public T getEvent(final EventKey eventKey) {
+        loadSpilledEvent(eventKey);
+        final T event = eventsInMemory.get(eventKey);
+        spillLeastRecentlyUsed();
+        compactIfMostlyStale();
+        return event;
+    }
+
+    @Override
+    public Collection<T> getEvents() {
+        return new AbstractCollection<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                final Iterator<T> memoryIterator = Iterators.unmodifiableIterator(eventsInMemory.values().iterator());
+                if (spilledRecords.isEmpty()) {
+                    return memoryIterator;
+                }
+                return Iterators.concat(memoryIterator, new SpilledEventIterator());
+            }
+
+            @Override
+            public int size() {
+                return eventsInMemory.size() + spilledRecords.size();
+            }
+        };
+    }
+
+    /**
+     * A read-only view of the events by key. Looking up a spilled event reads a copy of it from the spill file without
+     * loading it back into memory, and iterating the view streams the spilled events like getEvents(). Looking up an
+     * event in memory counts as a use of it, so the view must not be read while getEvents() is being iterated.
+     */
+    @Override
+    public Map<EventKey, T> getEventKeyMap() {
+        return Collections.unmodifiableMap(new AbstractMap<EventKey, T>() {
+            @Override
+            public boolean containsKey(final Object key) {
+                return eventsInMemory.containsKey(key) || spilledRecords.containsKey(key);
+            }
+
+            @Override
+            public T get(final Object key) {
+                final T event = eventsInMemory.get(key);
+                if (event != null) {
+                    return event;
+                }
+                final SpilledRecord record = spilledRecords.get(key);
+                if (record == null) {
+                    return null;
+                }
+                return readEvent(record);
+            }
+
+            @Override
+            public int size() {
+                return eventsInMemory.size() + spilledRecords.size();
+            }
+
+            @Override
+            public Set<Entry<EventKey, T>> entrySet() {
+                return new AbstractSet<Entry<EventKey, T>>() {
+                    @Override
+                    public Iterator<Entry<EventKey, T>> iterator() {
+                        return Iterators.transform(getEvents().iterator(), new Function<T, Entry<EventKey, T>>() {
+                            @Override
+                            public Entry<EventKey, T> apply(final T event) {
+                                return new SimpleImmutableEntry<>(event.getKey(), event);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public int size() {
+                        return eventsInMemory.size() + spilledRecords.size();
+                    }
+                };
+            }
+        });
+    }
+
+    public int getSpilledEventCount() {
+        return spilledRecords.size();
+    }
+
+    /**
+     * Deletes the spill file. The cache is empty afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final Closeable reader : openReaders) {
+            IOUtils.closeQuietly(reader);
+        }
+        openReaders.clear();
+        eventsInMemory.clear();
+        spilledRecords.clear();
+        if (spillAccess != null) {
+            spillAccess.close();
+            spillAccess = null;
+            spillLength = 0;
+            liveLength = 0;
+            if (!spillFile.delete() && spillFile.exists()) {
+                throw new IOException("Could not delete the spill file " + spillFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private void loadSpilledEvent(final EventKey eventKey) {
+        final SpilledRecord record = spilledRecords.remove(eventKey);
+        if (record != null) {
+            liveLength -= record.length;
+            eventsInMemory.put(eventKey, readEvent(record));
+        }
+    }
+
+    private void spillLeastRecentlyUsed() {
+        final Iterator<Entry<EventKey, T>> iterator = eventsInMemory.entrySet().iterator();
+        while (eventsInMemory.size() > maxEventsInMemory) {
+            final Entry<EventKey, T> eldest = iterator.next();
+            final SpilledRecord record = writeEvent(eldest.getValue());
+            spilledRecords.put(eldest.getKey(), record);
+            liveLength += record.length;
+            iterator.remove();
+        }
+    }
+
+    private SpilledRecord writeEvent(final T event) {
+        try {
+            final ByteArrayOutputStream byteStream = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream objectStream = new CompactObjectOutputStream(byteStream)) {
+                objectStream.writeObject(event);
+            }
+            final byte[] bytes = byteStream.toByteArray();
+
+            final RandomAccessFile access = getSpillAccess();
+            access.seek(spillLength);
+            access.write(bytes);
+            final SpilledRecord record = new SpilledRecord(spillLength, bytes.length);
+            spillLength += bytes.length;
+            return record;
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not spill the event " + event.getEventKey(), e);
+        }
+    }
+
+    private T readEvent(final SpilledRecord record) {
+        try {
+            spillAccess.seek(record.offset);
+            final byte[] bytes = new byte[record.length];
+            spillAccess.readFully(bytes);
+            return deserialize(bytes);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not read a spilled event from " + spillFile, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialize(final byte[] bytes) throws IOException {
+        try (ObjectInputStream objectStream = new CompactObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) objectStream.readObject();
+        } catch (final ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Copies the live records to a new spill file once the stale ones take up more than half of the file, so a cache
+     * that keeps merging into spilled events does not grow its file without bound. The records are copied as they are,
+     * without being read back into events.
+     */
+    private void compactIfMostlyStale() {
+        if (spillLength - liveLength <= liveLength) {
+            return;
+        }
+        if (liveLength == 0) {
+            try {
+                spillAccess.setLength(0);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not truncate the spill file " + spillFile, e);
+            }
+            spillLength = 0;
+            return;
+        }
+        final List<Entry<EventKey, SpilledRecord>> liveRecords = getRecordsInFileOrder();
+        final File compactedFile;
+        try {
+            compactedFile = File.createTempFile("hub-events-", ".spill", spillDirectory);
+            compactedFile.deleteOnExit();
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not create a spill file in " + spillDirectory, e);
+        }
+        long compactedLength = 0;
+        try (RandomAccessFile compactedAccess = new RandomAccessFile(compactedFile, "rw")) {
+            byte[] bytes = new byte[0];
+            for (final Entry<EventKey, SpilledRecord> liveRecord : liveRecords) {
+                final SpilledRecord record = liveRecord.getValue();
+                if (bytes.length < record.length) {
+                    bytes = new byte[record.length];
+                }
+                spillAccess.seek(record.offset);
+                spillAccess.readFully(bytes, 0, record.length);
+                compactedAccess.write(bytes, 0, record.length);
+                liveRecord.setValue(new SpilledRecord(compactedLength, record.length));
+                compactedLength += record.length;
+            }
+        } catch (final IOException e) {
+            compactedFile.delete();
+            throw new IllegalStateException("Could not compact the spill file " + spillFile, e);
+        }
+
+        try {
+            spillAccess.close();
+            if (!spillFile.delete() && spillFile.exists()) {
+                throw new IOException("Could not delete the spill file " + spillFile.getAbsolutePath());
+            }
+            spillFile = compactedFile;
+            spillAccess = new RandomAccessFile(spillFile, "rw");
+            spillLength = compactedLength;
+            liveLength = compactedLength;
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not switch to the compacted spill file " + compactedFile, e);
+        }
+    }
+
+    /**
+     * The entries of spilledRecords, which can be updated in place, ordered by their offset in the spill file.
+     */
+    private List<Entry<EventKey, SpilledRecord>> getRecordsInFileOrder() {
+        final List<Entry<EventKey, SpilledRecord>> records = new ArrayList<>(spilledRecords.entrySet());
+        Collections.sort(records, new Comparator<Entry<EventKey, SpilledRecord>>() {
+            @Override
+            public int compare(final Entry<EventKey, SpilledRecord> first, final Entry<EventKey, SpilledRecord> second) {
+                return Long.compare(first.getValue().offset, second.getValue().offset);
+            }
+        });
+        return records;
+    }
+
+    private RandomAccessFile getSpillAccess() throws IOException {
+        if (spillAccess == null) {
+            spillFile = File.createTempFile("hub-events-", ".spill", spillDirectory);
+            spillFile.deleteOnExit();
+            spillAccess = new RandomAccessFile(spillFile, "rw");
+        }
+        return spillAccess;
+    }
+
+    /**
+     * Reads the live records from the start of the spill file, skipping over the stale ones without reading them.
+     */
+    private class SpilledEventIterator extends AbstractIterator<T> {
+        private final DataInputStream input;
+
+        private final Iterator<Entry<EventKey, SpilledRecord>> records = getRecordsInFileOrder().iterator();
+
+        private long position;
+
+        public SpilledEventIterator() {
+            try {
+                input = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile), 64 * 1024));
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not open the spill file " + spillFile, e);
+            }
+            openReaders.add(input);
+        }
+
+        @Override
+        protected T computeNext() {
+            if (records.hasNext()) {
+                final SpilledRecord record = records.next().getValue();
+                try {
+                    IOUtils.skipFully(input, record.offset - position);
+                    final byte[] bytes = new byte[record.length];
+                    input.readFully(bytes);
+                    position = record.offset + record.length;
+                    return deserialize(bytes);
+                } catch (final EOFException e) {
+                    throw new IllegalStateException("The spill file " + spillFile + " ended before " + (record.offset + record.length) + " bytes", e);
+                } catch (final IOException e) {
+                    throw new IllegalStateException("Could not read a spilled event from " + spillFile, e);
+                }
+            }
+            openReaders.remove(input);
+            IOUtils.closeQuietly(input);
+            return endOfData();
+        }
+    }
+
+    private static class SpilledRecord {
+        private final long offset;
+
+        private final int length;
+
+        public SpilledRecord(final long offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Writes each class descriptor as its number in classDescriptors, and no stream header, since every record is only
+     * ever read by a CompactObjectInputStream of this cache.
+     */
+    private class CompactObjectOutputStream extends ObjectOutputStream {
+        public CompactObjectOutputStream(final OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+        }
+
+        @Override
+        protected void writeClassDescriptor(final ObjectStreamClass descriptor) throws IOException {
+            Integer descriptorId = classDescriptorIds.get(descriptor.forClass());
+            if (descriptorId == null) {
+                descriptorId = classDescriptors.size();
+                classDescriptors.add(descriptor);
+                classDescriptorIds.put(descriptor.forClass(), descriptorId);
+            }
+            writeInt(descriptorId);
+        }
+    }
+
+    private class CompactObjectInputStream extends ObjectInputStream {
+        public CompactObjectInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected void readStreamHeader() {
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException {
+            return classDescriptors.get(readInt());
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            // the descriptor was looked up from the class when the record was written in this JVM
+            final Class<?> resolvedClass = descriptor.forClass();
+            return resolvedClass != null ? resolvedClass : super.resolveClass(descriptor);
+        }
+    }
+
+}
@@ -26,6 +26,11 @@ import java.util.Collection;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
 
+/**
+ * Collects the events of the sub-processors. The events returned by getEvents() are to be read only: a cache may
+ * return copies, as SpillingProcessorCache does for the events it keeps on disk, so a change to a returned event can be
+ * lost. To change an event, remove it and add the changed event.
+ */
 public interface SubProcessorCache<T extends NotificationEvent<?>> {
 
     public void addEvent(final T event);
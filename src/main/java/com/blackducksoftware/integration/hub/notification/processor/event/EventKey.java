@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor.event;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.UnsignedLongs;
+
+/**
+ * Identifies the events that describe the same issue, so they can be merged or cancel each other. The key is a 128-bit
+ * murmur3 hash of the full values it is built from, such as the project version, component version and policy rule
+ * URLs, which makes an accidental collision between unrelated events practically impossible while comparing as two
+ * longs. toString() renders it as 32 hex characters for display and persistence, and fromString reads that back.
+ */
+public final class EventKey implements Serializable {
+    private static final long serialVersionUID = 3185452368396853012L;
+
+    private static final int HEX_LENGTH = 32;
+
+    private final long high;
+
+    private final long low;
+
+    private EventKey(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static EventKey fromString(final String eventKey) {
+        if (eventKey == null || eventKey.length() != HEX_LENGTH) {
+            throw new IllegalArgumentException("An event key must be " + HEX_LENGTH + " hex characters: " + eventKey);
+        }
+        try {
+            final long high = UnsignedLongs.parseUnsignedLong(eventKey.substring(0, HEX_LENGTH / 2), 16);
+            final long low = UnsignedLongs.parseUnsignedLong(eventKey.substring(HEX_LENGTH / 2), 16);
+            return new EventKey(high, low);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("An event key must be " + HEX_LENGTH + " hex characters: " + eventKey, e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        // the bits of a murmur3 hash are already evenly spread
+        return (int) low;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EventKey)) {
+            return false;
+        }
+        final EventKey other = (EventKey) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(HEX_LENGTH);
+        appendHex(builder, high);
+        appendHex(builder, low);
+        return builder.toString();
+    }
+
+    private void appendHex(final StringBuilder builder, final long value) {
+        final String hex = Long.toHexString(value);
+        for (int padding = hex.length(); padding < HEX_LENGTH / 2; padding++) {
+            builder.append('0');
+        }
+        builder.append(hex);
+    }
+
+    /**
+     * Hashes the values of a key in the order they are added. Each value is length prefixed, so moving text from one
+     * value to the next gives a different key, and a null value differs from an empty one.
+     */
+    public static class Builder {
+        private final Hasher hasher = Hashing.murmur3_128().newHasher();
+
+        public Builder add(final String value) {
+            if (value == null) {
+                hasher.putInt(-1);
+            } else {
+                hasher.putInt(value.length());
+                hasher.putString(value, StandardCharsets.UTF_8);
+            }
+            return this;
+        }
+
+        public EventKey build() {
+            final HashCode hashCode = hasher.hash();
+            final byte[] bytes = hashCode.asBytes();
+            return new EventKey(toLong(bytes, 0), toLong(bytes, 8));
+        }
+
+        private long toLong(final byte[] bytes, final int offset) {
+            long value = 0;
+            for (int index = offset; index < offset + 8; index++) {
+                value = (value << 8) | (bytes[index] & 0xff);
+            }
+            return value;
+        }
+    }
+
+}
@@ -21,20 +21,23 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.notification.processor.event;
 
+import java.io.Serializable;
 import java.util.Set;
 
 import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
 import com.blackducksoftware.integration.hub.notification.processor.ItemEntry;
 import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
 
-public abstract class NotificationEvent<T extends NotificationContentItem> {
+public abstract class NotificationEvent<T extends NotificationContentItem> implements Serializable {
+    private static final long serialVersionUID = 6666652372499431528L;
+
     private NotificationCategoryEnum categoryType;
 
     private final T notificationContent;
 
     private Set<ItemEntry> dataSet;
 
-    private String eventKey;
+    private EventKey eventKey;
 
     public NotificationEvent(final NotificationCategoryEnum categoryType, T notificationContent) {
         this.categoryType = categoryType;
@@ -43,9 +46,13 @@ public abstract class NotificationEvent<T extends NotificationContentItem> {
 
     public void init() {
         dataSet = generateDataSet();
-        eventKey = generateEventKey();
+        eventKey = generateKey();
     }
 
+    /**
+     * @deprecated events are keyed by an EventKey now, which hashes the full values itself.
+     */
+    @Deprecated
     public String hashString(final String origString) {
         String hashString;
         if (origString == null) {
@@ -58,7 +65,22 @@ public abstract class NotificationEvent<T extends NotificationContentItem> {
 
     public abstract Set<ItemEntry> generateDataSet();
 
-    public abstract String generateEventKey();
+    /**
+     * @deprecated events are keyed by the EventKey of generateKey. This is still called by the default generateKey, so
+     *             subclasses written before EventKey keep working, and throws when it is not overridden.
+     */
+    @Deprecated
+    public String generateEventKey() {
+        throw new UnsupportedOperationException(getClass().getName() + " must override generateKey or generateEventKey");
+    }
+
+    /**
+     * The default hashes the string from generateEventKey, override this to build the key from the full values
+     * instead.
+     */
+    public EventKey generateKey() {
+        return new EventKey.Builder().add(generateEventKey()).build();
+    }
 
     public abstract int countCategoryItems();
 
@@ -78,7 +100,16 @@ public abstract class NotificationEvent<T extends NotificationContentItem> {
         return dataSet;
     }
 
-    public String getEventKey() {
+    public EventKey getKey() {
         return eventKey;
     }
+
+    /**
+     * @return the key rendered as 32 hex characters for display or persistence, EventKey.fromString turns it back into
+     *         the key. Earlier releases returned the string of generateEventKey here, so keys persisted from them
+     *         neither parse nor match an event, and have to be replaced with the keys of the current events.
+     */
+    public String getEventKey() {
+        return eventKey.toString();
+    }
 }
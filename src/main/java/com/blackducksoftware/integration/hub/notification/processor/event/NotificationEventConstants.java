@@ -23,24 +23,56 @@ package com.blackducksoftware.integration.hub.notification.processor.event;
 
 public class NotificationEventConstants {
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_NAME_VALUE_SEPARATOR = "=";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR = "|";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_ISSUE_TYPE_NAME = "t";
 
     public static final String EVENT_KEY_ISSUE_TYPE_VALUE_POLICY = "p";
 
     public static final String EVENT_KEY_ISSUE_TYPE_VALUE_VULNERABILITY = "v";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_JIRA_PROJECT_ID_NAME = "jp";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_HUB_PROJECT_VERSION_REL_URL_HASHED_NAME = "hpv";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_HUB_COMPONENT_REL_URL_HASHED_NAME = "hc";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_HUB_COMPONENT_VERSION_REL_URL_HASHED_NAME = "hcv";
 
+    /**
+     * @deprecated event keys are no longer built from name value pairs, see EventKey.
+     */
+    @Deprecated
     public static final String EVENT_KEY_HUB_POLICY_RULE_REL_URL_HASHED_NAME = "hr";
 
     private NotificationEventConstants() throws InstantiationException {
@@ -31,6 +31,8 @@ import com.blackducksoftware.integration.hub.notification.processor.ItemTypeEnum
 import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
 
 public class PolicyEvent extends NotificationEvent<PolicyContentItem> {
+    private static final long serialVersionUID = 751391074041835612L;
+
     private final PolicyRule policyRule;
 
     private final String policyRuleURL;
@@ -53,33 +55,23 @@ public class PolicyEvent extends NotificationEvent<PolicyContentItem> {
     }
 
     @Override
-    public String generateEventKey() {
-        final StringBuilder keyBuilder = new StringBuilder();
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_VALUE_POLICY);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_PROJECT_VERSION_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(getNotificationContent().getProjectVersion().getUrl()));
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_COMPONENT_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(getNotificationContent().getComponentUrl()));
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_COMPONENT_VERSION_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(getNotificationContent().getComponentVersionUrl()));
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
+    public EventKey generateKey() {
+        final EventKey.Builder keyBuilder = new EventKey.Builder();
+        keyBuilder.add(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_VALUE_POLICY);
+        keyBuilder.add(getNotificationContent().getProjectVersion().getUrl());
+        keyBuilder.add(getNotificationContent().getComponentUrl());
+        keyBuilder.add(getNotificationContent().getComponentVersionUrl());
+        keyBuilder.add(policyRuleURL);
+        return keyBuilder.build();
+    }
 
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_POLICY_RULE_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(policyRuleURL));
-        final String key = keyBuilder.toString();
-        return key;
+    /**
+     * @deprecated use generateKey, this is the rendered form of that key.
+     */
+    @Deprecated
+    @Override
+    public String generateEventKey() {
+        return generateKey().toString();
     }
 
     @Override
@@ -32,6 +32,7 @@ import com.blackducksoftware.integration.hub.notification.processor.ItemTypeEnum
 import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
 
 public class PolicyOverrideEvent extends PolicyEvent {
+    private static final long serialVersionUID = 2237980990800519964L;
 
     public PolicyOverrideEvent(NotificationCategoryEnum categoryType, PolicyOverrideContentItem notificationContent,
             PolicyRule policyRule, String policyRuleUrl) {
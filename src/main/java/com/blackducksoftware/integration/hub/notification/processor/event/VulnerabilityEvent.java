@@ -30,6 +30,8 @@ import com.blackducksoftware.integration.hub.notification.processor.ItemTypeEnum
 import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
 
 public class VulnerabilityEvent extends NotificationEvent<VulnerabilityContentItem> {
+    private static final long serialVersionUID = 871838989989591320L;
+
     private final Set<String> vulnerabilityIdSet;
 
     public VulnerabilityEvent(NotificationCategoryEnum categoryType, VulnerabilityContentItem notificationContent, Set<String> vulnerabilityIdSet) {
@@ -56,29 +58,22 @@ public class VulnerabilityEvent extends NotificationEvent<VulnerabilityContentIt
     }
 
     @Override
-    public String generateEventKey() {
-        final StringBuilder keyBuilder = new StringBuilder();
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_VALUE_VULNERABILITY);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_PROJECT_VERSION_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(getNotificationContent().getProjectVersion().getUrl()));
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_COMPONENT_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(""); // There is never a component URL
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_PAIR_SEPARATOR);
-
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_HUB_COMPONENT_VERSION_REL_URL_HASHED_NAME);
-        keyBuilder.append(NotificationEventConstants.EVENT_KEY_NAME_VALUE_SEPARATOR);
-        keyBuilder.append(hashString(getNotificationContent().getComponentVersionUrl()));
+    public EventKey generateKey() {
+        final EventKey.Builder keyBuilder = new EventKey.Builder();
+        keyBuilder.add(NotificationEventConstants.EVENT_KEY_ISSUE_TYPE_VALUE_VULNERABILITY);
+        keyBuilder.add(getNotificationContent().getProjectVersion().getUrl());
+        // there is never a component URL
+        keyBuilder.add(getNotificationContent().getComponentVersionUrl());
+        return keyBuilder.build();
+    }
 
-        final String key = keyBuilder.toString();
-        return key;
+    /**
+     * @deprecated use generateKey, this is the rendered form of that key.
+     */
+    @Deprecated
+    @Override
+    public String generateEventKey() {
+        return generateKey().toString();
     }
 
     public Set<String> getVulnerabilityIdSet() {
@@ -25,6 +25,7 @@ import static com.blackducksoftware.integration.hub.api.UrlConstants.QUERY_LIMIT
 import static com.blackducksoftware.integration.hub.api.UrlConstants.QUERY_OFFSET;
 
 import java.util.Map;
+import java.util.Map.Entry;
 
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 
@@ -41,6 +42,23 @@ public class HubPagedRequest extends HubRequest {
         super(restConnection);
     }
 
+    /**
+     * Creates an independent request for the same items, starting at the provided offset. This allows several pages
+     * of the same request to be executed at the same time.
+     */
+    public HubPagedRequest createPageRequest(final int pageOffset) {
+        final HubPagedRequest pageRequest = new HubPagedRequest(getRestConnection());
+        pageRequest.setUrl(getUrl());
+        pageRequest.addUrlSegments(getUrlSegments());
+        pageRequest.setQ(getQ());
+        for (final Entry<String, String> queryParameter : getQueryParameters().entrySet()) {
+            pageRequest.addQueryParameter(queryParameter.getKey(), queryParameter.getValue());
+        }
+        pageRequest.setLimit(limit);
+        pageRequest.setOffset(pageOffset);
+        return pageRequest;
+    }
+
     @Override
     public void populateQueryParameters() {
         super.populateQueryParameters();
@@ -35,7 +35,12 @@ import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 
 import okhttp3.HttpUrl;
 import okhttp3.Request;
@@ -63,13 +68,26 @@ public class HubRequest {
     }
 
     public JsonObject executeGetForResponseJson() throws HubIntegrationException {
+        final ResponseBody body = executeGetForResponseBody();
+        try {
+            return restConnection.getJsonParser().parse(body.charStream()).getAsJsonObject();
+        } catch (final JsonParseException e) {
+            throw new HubIntegrationException("There was a problem parsing this item : " + getUrl() + ". Error : " + e.getMessage(), e);
+        } finally {
+            body.close();
+        }
+    }
+
+    /**
+     * Provides the unread body of the response so it can be consumed as a stream. The caller is responsible for
+     * closing the body.
+     */
+    public ResponseBody executeGetForResponseBody() throws HubIntegrationException {
         final HttpUrl httpUrl = buildHttpUrl();
         try {
             final Request request = restConnection.createGetRequest(httpUrl);
             final Response response = restConnection.handleExecuteClientCall(request);
-            final String responseString = response.body().string();
-            final JsonObject jsonObject = restConnection.getJsonParser().parse(responseString).getAsJsonObject();
-            return jsonObject;
+            return response.body();
         } catch (final IOException e) {
             throw new HubIntegrationException("There was a problem getting this item : " + httpUrl.uri().toString() + ". Error : " + e.getMessage(), e);
         }
@@ -124,13 +142,111 @@ public class HubRequest {
         }
     }
 
+    /**
+     * The asynchronous methods below do not block the calling thread. Any failure, including a
+     * HubIntegrationException, is reported through the returned future.
+     */
+    public ListenableFuture<JsonObject> executeGetForResponseJsonAsync() {
+        return Futures.transform(executeGetForResponseStringAsync(), new Function<String, JsonObject>() {
+            @Override
+            public JsonObject apply(final String responseString) {
+                return restConnection.getJsonParser().parse(responseString).getAsJsonObject();
+            }
+        });
+    }
+
+    public ListenableFuture<String> executeGetForResponseStringAsync() {
+        final HttpUrl httpUrl;
+        try {
+            httpUrl = buildHttpUrl();
+        } catch (final HubIntegrationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        final Request request = restConnection.createGetRequest(httpUrl);
+        return Futures.transformAsync(restConnection.handleExecuteClientCallAsync(request), new AsyncFunction<Response, String>() {
+            @Override
+            public ListenableFuture<String> apply(final Response response) throws HubIntegrationException {
+                ResponseBody body = null;
+                try {
+                    body = response.body();
+                    return Futures.immediateFuture(body.string());
+                } catch (final IOException e) {
+                    throw new HubIntegrationException("There was a problem getting this item : " + httpUrl.uri().toString() + ". Error : " + e.getMessage(),
+                            e);
+                } finally {
+                    if (body != null) {
+                        body.close();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Completes with the unread body of the response, on the thread the response arrived on, so a listener added with
+     * a direct executor can read the body as a stream there. The caller is responsible for closing the body.
+     */
+    public ListenableFuture<ResponseBody> executeGetForResponseBodyAsync() {
+        final HttpUrl httpUrl;
+        try {
+            httpUrl = buildHttpUrl();
+        } catch (final HubIntegrationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        final Request request = restConnection.createGetRequest(httpUrl);
+        return Futures.transform(restConnection.handleExecuteClientCallAsync(request), new Function<Response, ResponseBody>() {
+            @Override
+            public ResponseBody apply(final Response response) {
+                return response.body();
+            }
+        });
+    }
+
+    public ListenableFuture<String> executePostAsync(final String content) {
+        return executePostAsync("application/json", content);
+    }
+
+    public ListenableFuture<String> executePostAsync(final String mediaType, final String content) {
+        final HttpUrl httpUrl;
+        try {
+            httpUrl = buildHttpUrl();
+        } catch (final HubIntegrationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        final Request request = restConnection.createPostRequest(httpUrl, restConnection.createJsonRequestBody(mediaType, content));
+        return Futures.transform(restConnection.handleExecuteClientCallAsync(request), new Function<Response, String>() {
+            @Override
+            public String apply(final Response response) {
+                response.body().close();
+                return response.header("location");
+            }
+        });
+    }
+
+    public ListenableFuture<Void> executeDeleteAsync() {
+        final HttpUrl httpUrl;
+        try {
+            httpUrl = buildHttpUrl();
+        } catch (final HubIntegrationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        final Request request = restConnection.createDeleteRequest(httpUrl);
+        return Futures.transform(restConnection.handleExecuteClientCallAsync(request), new Function<Response, Void>() {
+            @Override
+            public Void apply(final Response response) {
+                response.body().close();
+                return null;
+            }
+        });
+    }
+
     public void populateQueryParameters() {
         if (StringUtils.isNotBlank(q)) {
             queryParameters.put(QUERY_Q, q);
         }
     }
 
-    private HttpUrl buildHttpUrl() throws HubIntegrationException {
+    public HttpUrl buildHttpUrl() throws HubIntegrationException {
         populateQueryParameters();
         if (StringUtils.isBlank(url)) {
             url = restConnection.getBaseUrl().toString();
@@ -138,6 +254,10 @@ public class HubRequest {
         return restConnection.createHttpUrl(url, urlSegments, queryParameters);
     }
 
+    public RestConnection getRestConnection() {
+        return restConnection;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.blackducksoftware.integration.hub.cache.RevalidationStore;
+import com.blackducksoftware.integration.hub.cache.StoredResponse;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Makes GET requests conditional when the RestConnection has a RevalidationStore. The validators stored with the last
+ * response for the url are sent as If-None-Match/If-Modified-Since, and a 304 from the Hub is answered with the stored
+ * body as a 200, so callers never see the difference. Requests that already carry their own validators are left alone.
+ */
+public class ConditionalGetInterceptor implements Interceptor {
+    public static final String HEADER_ETAG = "ETag";
+
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    /**
+     * Larger bodies, like the CLI zip, are streamed to the caller without being stored.
+     */
+    public static final long MAXIMUM_STORED_BODY_BYTES = 1024 * 1024;
+
+    private final RestConnection restConnection;
+
+    public ConditionalGetInterceptor(final RestConnection restConnection) {
+        this.restConnection = restConnection;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        final Request request = chain.request();
+        final RevalidationStore revalidationStore = restConnection.getRevalidationStore();
+        if (revalidationStore == null || !"GET".equals(request.method()) || request.header(HEADER_IF_NONE_MATCH) != null
+                || request.header(HEADER_IF_MODIFIED_SINCE) != null) {
+            return chain.proceed(request);
+        }
+
+        final String url = request.url().toString();
+        StoredResponse storedResponse = revalidationStore.get(url);
+        if (storedResponse != null && !StringUtils.equals(storedResponse.getAccept(), request.header("Accept"))) {
+            storedResponse = null;
+        }
+
+        final Response response = chain.proceed(addValidators(request, storedResponse));
+        if (storedResponse != null && response.code() == 304) {
+            response.body().close();
+            final MediaType contentType = storedResponse.getContentType() == null ? null : MediaType.parse(storedResponse.getContentType());
+            return response.newBuilder().code(200).message("OK").body(ResponseBody.create(contentType, storedResponse.getBody())).build();
+        }
+        if (response.code() == 200) {
+            storeResponse(revalidationStore, url, request, response);
+        } else if (storedResponse != null) {
+            revalidationStore.invalidate(url);
+        }
+        return response;
+    }
+
+    private Request addValidators(final Request request, final StoredResponse storedResponse) {
+        if (storedResponse == null) {
+            return request;
+        }
+        final Request.Builder requestBuilder = request.newBuilder();
+        if (storedResponse.getETag() != null) {
+            requestBuilder.header(HEADER_IF_NONE_MATCH, storedResponse.getETag());
+        }
+        if (storedResponse.getLastModified() != null) {
+            requestBuilder.header(HEADER_IF_MODIFIED_SINCE, storedResponse.getLastModified());
+        }
+        return requestBuilder.build();
+    }
+
+    private void storeResponse(final RevalidationStore revalidationStore, final String url, final Request request, final Response response)
+            throws IOException {
+        final String eTag = response.header(HEADER_ETAG);
+        final String lastModified = response.header(HEADER_LAST_MODIFIED);
+        if (StringUtils.isBlank(eTag) && StringUtils.isBlank(lastModified)) {
+            revalidationStore.invalidate(url);
+            return;
+        }
+
+        // buffering never reads more than the limit, and the caller still reads the body from the same buffer
+        final BufferedSource source = response.body().source();
+        if (source.request(MAXIMUM_STORED_BODY_BYTES + 1)) {
+            revalidationStore.invalidate(url);
+            return;
+        }
+        final byte[] body = source.buffer().clone().readByteArray();
+        final MediaType contentType = response.body().contentType();
+        revalidationStore.put(url, new StoredResponse(StringUtils.trimToNull(eTag), StringUtils.trimToNull(lastModified), request.header("Accept"),
+                contentType == null ? null : contentType.toString(), body));
+    }
+
+}
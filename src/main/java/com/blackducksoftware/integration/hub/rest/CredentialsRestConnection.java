@@ -52,6 +52,9 @@ public class CredentialsRestConnection extends RestConnection {
         super(logger, hubServerConfig.getHubUrl(), hubServerConfig.getProxyInfo());
         this.hubServerConfig = hubServerConfig;
         setTimeout(hubServerConfig.getTimeout());
+        if (hubServerConfig.getConnectionProfile() != null) {
+            setConnectionProfile(hubServerConfig.getConnectionProfile());
+        }
     }
 
     @Override
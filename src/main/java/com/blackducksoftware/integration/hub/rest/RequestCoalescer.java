@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Lets concurrent callers asking for the same key share a single call. The first caller for a key makes the call and
+ * every caller that asks for the same key before it completes receives the same result, or the same failure. Once the
+ * call completes, the next caller for that key will make a new call.
+ */
+public class RequestCoalescer {
+    private final ConcurrentMap<String, ListenableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong callCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String key, final Callable<T> call) throws HubIntegrationException {
+        final SettableFuture<T> callFuture = SettableFuture.create();
+        final ListenableFuture<?> inFlightFuture = inFlight.putIfAbsent(key, callFuture);
+        if (inFlightFuture != null) {
+            coalescedCount.incrementAndGet();
+            return (T) waitFor(key, inFlightFuture);
+        }
+
+        callCount.incrementAndGet();
+        try {
+            final T result = call.call();
+            callFuture.set(result);
+            return result;
+        } catch (final HubIntegrationException | RuntimeException e) {
+            callFuture.setException(e);
+            throw e;
+        } catch (final Exception e) {
+            callFuture.setException(e);
+            throw new HubIntegrationException(e.getMessage(), e);
+        } finally {
+            inFlight.remove(key, callFuture);
+        }
+    }
+
+    /**
+     * Cancelling the returned future does not cancel the shared call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ListenableFuture<T> executeAsync(final String key, final AsyncCallable<T> call) {
+        final SettableFuture<T> callFuture = SettableFuture.create();
+        final ListenableFuture<?> inFlightFuture = inFlight.putIfAbsent(key, callFuture);
+        if (inFlightFuture != null) {
+            coalescedCount.incrementAndGet();
+            return Futures.nonCancellationPropagating((ListenableFuture<T>) inFlightFuture);
+        }
+
+        callCount.incrementAndGet();
+        callFuture.addListener(new Runnable() {
+            @Override
+            public void run() {
+                inFlight.remove(key, callFuture);
+            }
+        }, MoreExecutors.directExecutor());
+        try {
+            callFuture.setFuture(call.call());
+        } catch (final Exception e) {
+            callFuture.setException(e);
+        }
+        return Futures.nonCancellationPropagating(callFuture);
+    }
+
+    /**
+     * The number of calls that were actually made.
+     */
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    /**
+     * The number of callers that shared a call made for another caller.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private Object waitFor(final String key, final ListenableFuture<?> inFlightFuture) throws HubIntegrationException {
+        try {
+            return inFlightFuture.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for : " + key, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HubIntegrationException(cause.getMessage(), cause);
+        }
+    }
+
+}
@@ -25,29 +25,47 @@ import java.io.IOException;
 import java.net.URL;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.blackducksoftware.integration.hub.cache.HubResponseCache;
+import com.blackducksoftware.integration.hub.cache.RevalidationStore;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.global.HubConnectionProfile;
 import com.blackducksoftware.integration.hub.global.HubProxyInfo;
 import com.blackducksoftware.integration.log.IntLogger;
 import com.blackducksoftware.integration.log.LogLevel;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParser;
 
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.FormBody;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -61,6 +79,15 @@ import okhttp3.Response;
 public abstract class RestConnection {
     public static final String JSON_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSX";
 
+    public static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss 'GMT'";
+
+    /**
+     * Re-authenticates for the asynchronous calls that got a 401, so connect() never blocks a dispatcher thread. The
+     * threads are daemons that die when idle.
+     */
+    private static final ExecutorService REAUTHENTICATION_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("hub-reauthentication-%d").setDaemon(true).build());
+
     private final URL baseUrl;
 
     private final HubProxyInfo hubProxyInfo;
@@ -77,6 +104,29 @@ public abstract class RestConnection {
 
     private int timeout = 120;
 
+    private boolean retainItemJson = true;
+
+    private HubResponseCache responseCache;
+
+    private RequestCoalescer requestCoalescer;
+
+    private RevalidationStore revalidationStore;
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor = new ConditionalGetInterceptor(this);
+
+    private HubConnectionProfile connectionProfile = new HubConnectionProfile();
+
+    private ConnectionPool connectionPool;
+
+    private Dispatcher dispatcher;
+
+    private boolean connectionsWarmedUp;
+
+    private final Object reauthenticationLock = new Object();
+
+    // guarded by reauthenticationLock, the re-authentication the asynchronous calls that got a 401 are waiting for
+    private ListenableFuture<Void> reauthentication;
+
     public static Date parseDateString(final String dateString) throws ParseException {
         final SimpleDateFormat sdf = new SimpleDateFormat(JSON_DATE_FORMAT);
         sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
@@ -89,6 +139,15 @@ public abstract class RestConnection {
         return sdf.format(date);
     }
 
+    /**
+     * Formats a date for http headers such as If-Modified-Since.
+     */
+    public static String formatHttpDate(final Date date) {
+        final SimpleDateFormat sdf = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return sdf.format(date);
+    }
+
     public RestConnection(URL baseUrl) {
         this(null, baseUrl, null);
     }
@@ -122,12 +181,78 @@ public abstract class RestConnection {
         logMessage(LogLevel.DEBUG, "Setting connectTimeout to: " + timeout + "s on client context");
     }
 
+    public boolean isRetainItemJson() {
+        return retainItemJson;
+    }
+
+    /**
+     * When false, the items created from the responses of this connection will not keep their source json. Their
+     * _meta information is always available through HubResponse.getMeta().
+     */
+    public void setRetainItemJson(final boolean retainItemJson) {
+        this.retainItemJson = retainItemJson;
+    }
+
+    public HubResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Items requested by their url through a HubRequestService using this connection will be served from this cache
+     * when possible. A null cache, the default, means every item is requested from the Hub.
+     */
+    public void setResponseCache(final HubResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * When set, concurrent requests for the same item through a HubRequestService using this connection share a single
+     * call to the Hub and a single deserialized item. A null coalescer, the default, means every request is made.
+     */
+    public void setRequestCoalescer(final RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    public RevalidationStore getRevalidationStore() {
+        return revalidationStore;
+    }
+
+    /**
+     * When set, GET requests made through this connection send the validators of the last response stored for their
+     * url, and a 304 from the Hub is answered from the store. A null store, the default, means every GET downloads the
+     * full body.
+     */
+    public void setRevalidationStore(final RevalidationStore revalidationStore) {
+        this.revalidationStore = revalidationStore;
+    }
+
+    public HubConnectionProfile getConnectionProfile() {
+        return connectionProfile;
+    }
+
+    /**
+     * Takes effect the next time this connection connects.
+     */
+    public void setConnectionProfile(final HubConnectionProfile connectionProfile) {
+        this.connectionProfile = connectionProfile;
+        connectionPool = null;
+        dispatcher = null;
+        connectionsWarmedUp = false;
+    }
+
     public void connect() throws HubIntegrationException {
         addBuilderConnectionTimes();
+        addBuilderConnectionProfile();
         addBuilderProxyInformation();
+        addBuilderConditionalGet();
         addBuilderAuthentication();
         setClient(getBuilder().build());
         clientAuthenticate();
+        warmUpConnections();
     }
 
     public abstract void addBuilderAuthentication() throws HubIntegrationException;
@@ -179,6 +304,56 @@ public abstract class RestConnection {
         builder.readTimeout(timeout, TimeUnit.SECONDS);
     }
 
+    private void addBuilderConnectionProfile() {
+        // connect() runs again on every re-authentication, keep the pool so the open connections survive it
+        if (connectionPool == null) {
+            connectionPool = new ConnectionPool(connectionProfile.getMaxIdleConnections(), connectionProfile.getKeepAliveSeconds(), TimeUnit.SECONDS);
+        }
+        if (dispatcher == null) {
+            dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(connectionProfile.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(connectionProfile.getMaxRequestsPerHost());
+        }
+        builder.connectionPool(connectionPool);
+        builder.dispatcher(dispatcher);
+        if (connectionProfile.isHttp2Enabled()) {
+            builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        } else {
+            builder.protocols(Arrays.asList(Protocol.HTTP_1_1));
+        }
+    }
+
+    /**
+     * Opens connections to the Hub in the background so the first requests find them in the pool. Only the first
+     * connect warms up, a re-authentication keeps the pool and its connections. Nothing waits for the warm up, and a
+     * failure here is not an error, the requests that follow will report it if the Hub really can not be reached.
+     */
+    private void warmUpConnections() {
+        if (connectionsWarmedUp) {
+            return;
+        }
+        connectionsWarmedUp = true;
+        final int connections = Math.min(connectionProfile.getWarmUpConnections(), connectionProfile.getMaxIdleConnections());
+        if (connections <= 0) {
+            return;
+        }
+        final Callback callback = new Callback() {
+            @Override
+            public void onFailure(final Call call, final IOException e) {
+                logMessage(LogLevel.DEBUG, "Could not warm up a connection to " + call.request().url() + " : " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(final Call call, final Response response) {
+                response.body().close();
+            }
+        };
+        final Request request = new Request.Builder().url(createHttpUrl()).head().build();
+        for (int i = 0; i < connections; i++) {
+            getClient().newCall(request).enqueue(callback);
+        }
+    }
+
     private void addBuilderProxyInformation() throws HubIntegrationException {
         if (getHubProxyInfo() != null) {
             builder.proxy(getHubProxyInfo().getProxy(getBaseUrl()));
@@ -196,6 +371,13 @@ public abstract class RestConnection {
         }
     }
 
+    private void addBuilderConditionalGet() {
+        // connect() runs again on every re-authentication, so the interceptor must only be added once
+        if (!builder.interceptors().contains(conditionalGetInterceptor)) {
+            builder.addInterceptor(conditionalGetInterceptor);
+        }
+    }
+
     public RequestBody createJsonRequestBody(String content) {
         return createJsonRequestBody("application/json", content);
     }
@@ -256,7 +438,7 @@ public abstract class RestConnection {
         if (getClient() != null) {
             logRequestHeaders(request);
             Response response = getClient().newCall(request).execute();
-            if (!response.isSuccessful()) {
+            if (!response.isSuccessful() && !isNotModified(request, response)) {
                 if (response.code() == 401 && retryCount < 2) {
                     connect();
                     return handleExecuteClientCall(request, retryCount + 1);
@@ -274,6 +456,108 @@ public abstract class RestConnection {
         }
     }
 
+    /**
+     * The non-blocking counterpart of handleExecuteClientCall. The call is queued on the client's dispatcher and the
+     * returned future completes from the dispatcher's thread, so no thread waits on the response.
+     */
+    public ListenableFuture<Response> handleExecuteClientCallAsync(Request request) {
+        final SettableFuture<Response> responseFuture = SettableFuture.create();
+        try {
+            if (getClient() == null) {
+                connect();
+            }
+            enqueueClientCall(request, 0, responseFuture);
+        } catch (final HubIntegrationException e) {
+            responseFuture.setException(e);
+        }
+        return responseFuture;
+    }
+
+    private void enqueueClientCall(final Request request, final int retryCount, final SettableFuture<Response> responseFuture) {
+        logRequestHeaders(request);
+        getClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // the same exception the blocking requests report
+                responseFuture.setException(new HubIntegrationException(
+                        "There was a problem trying to " + request.method() + " this item : " + request.url().uri().toString() + ". Error : "
+                                + e.getMessage(),
+                        e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!response.isSuccessful() && !isNotModified(request, response)) {
+                    response.body().close();
+                    if (response.code() == 401 && retryCount < 2) {
+                        reauthenticateAndEnqueue(request, retryCount + 1, responseFuture);
+                    } else {
+                        responseFuture.setException(new HubIntegrationException(
+                                "There was a problem trying to " + request.method() + " this item : " + request.url().uri().toString() + ". Error : "
+                                        + response.message()));
+                    }
+                    return;
+                }
+                logResponseHeaders(response);
+                if (!responseFuture.set(response)) {
+                    // the caller cancelled the future, nobody will read this body
+                    response.body().close();
+                }
+            }
+        });
+    }
+
+    private void reauthenticateAndEnqueue(final Request request, final int retryCount, final SettableFuture<Response> responseFuture) {
+        Futures.addCallback(reauthenticate(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void result) {
+                try {
+                    enqueueClientCall(request, retryCount, responseFuture);
+                } catch (final RuntimeException e) {
+                    responseFuture.setException(e);
+                }
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                responseFuture.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * A burst of 401s shares one re-authentication, so connect() never runs for more than one of them at a time.
+     */
+    private ListenableFuture<Void> reauthenticate() {
+        synchronized (reauthenticationLock) {
+            if (reauthentication == null || reauthentication.isDone()) {
+                final SettableFuture<Void> reauthenticationFuture = SettableFuture.create();
+                reauthentication = reauthenticationFuture;
+                REAUTHENTICATION_EXECUTOR.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            connect();
+                            reauthenticationFuture.set(null);
+                        } catch (final HubIntegrationException | RuntimeException e) {
+                            reauthenticationFuture.setException(e);
+                        }
+                    }
+                });
+            }
+            return reauthentication;
+        }
+    }
+
+    /**
+     * A 304 is only an answer, not an error, when the caller sent its own validators.
+     */
+    private boolean isNotModified(final Request request, final Response response) {
+        return response.code() == 304
+                && (request.header(ConditionalGetInterceptor.HEADER_IF_NONE_MATCH) != null
+                        || request.header(ConditionalGetInterceptor.HEADER_IF_MODIFIED_SINCE) != null);
+    }
+
     private void logMessage(final LogLevel level, final String txt) {
         if (logger != null) {
             if (level == LogLevel.ERROR) {
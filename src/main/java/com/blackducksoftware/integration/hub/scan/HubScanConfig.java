@@ -59,11 +59,22 @@ public class HubScanConfig {
 
     private final String pluginVersion;
 
+    private final int maxParallelScans;
+
     public HubScanConfig(final String projectName, final String version, final String phase,
             final String distribution, final File workingDirectory, final int scanMemory,
             final ImmutableList<String> scanTargetPaths, final boolean dryRun, final File toolsDir, final ThirdPartyName thirdPartyName,
             final String thirdPartyVersion,
             final String pluginVersion) {
+        this(projectName, version, phase, distribution, workingDirectory, scanMemory, scanTargetPaths, dryRun, toolsDir, thirdPartyName,
+                thirdPartyVersion, pluginVersion, 1);
+    }
+
+    public HubScanConfig(final String projectName, final String version, final String phase,
+            final String distribution, final File workingDirectory, final int scanMemory,
+            final ImmutableList<String> scanTargetPaths, final boolean dryRun, final File toolsDir, final ThirdPartyName thirdPartyName,
+            final String thirdPartyVersion,
+            final String pluginVersion, final int maxParallelScans) {
         this.projectName = projectName;
         this.version = version;
         this.phase = phase;
@@ -76,6 +87,7 @@ public class HubScanConfig {
         this.thirdPartyName = thirdPartyName;
         this.thirdPartyVersion = thirdPartyVersion;
         this.pluginVersion = pluginVersion;
+        this.maxParallelScans = maxParallelScans;
     }
 
     public String getProjectName() {
@@ -126,6 +138,10 @@ public class HubScanConfig {
         return pluginVersion;
     }
 
+    public int getMaxParallelScans() {
+        return maxParallelScans;
+    }
+
     public void print(final IntLogger logger) {
         try {
             logger.alwaysLog("--> Using Working Directory : " + getWorkingDirectory().getCanonicalPath());
@@ -145,6 +161,9 @@ public class HubScanConfig {
         }
         logger.alwaysLog("--> Scan Memory : " + getScanMemory());
         logger.alwaysLog("--> Dry Run : " + isDryRun());
+        if (maxParallelScans > 1) {
+            logger.alwaysLog("--> Max Parallel Scans : " + getMaxParallelScans());
+        }
     }
 
     @Override
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.blackducksoftware.integration.hub.api.item.HubPagedResponse;
+import com.blackducksoftware.integration.hub.api.item.HubResponse;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.request.HubPagedRequest;
+
+/**
+ * Lazily walks all the pages of a HubPagedRequest. The next page is only requested once the items of the current page
+ * have been consumed, so only a single page of items is ever referenced by the iterator.
+ *
+ * Since Iterator can not throw checked exceptions, a HubIntegrationException thrown while requesting a page is wrapped
+ * in an IllegalStateException.
+ */
+public class HubPagedIterator<T extends HubResponse> implements Iterator<T> {
+    private final HubParameterizedRequestService<T> requestService;
+
+    private final HubPagedRequest hubPagedRequest;
+
+    private Iterator<T> currentPage = Collections.<T> emptyList().iterator();
+
+    private int nextOffset;
+
+    private int totalCount = -1;
+
+    public HubPagedIterator(final HubParameterizedRequestService<T> requestService, final HubPagedRequest hubPagedRequest) {
+        this.requestService = requestService;
+        this.hubPagedRequest = hubPagedRequest;
+        this.nextOffset = hubPagedRequest.getOffset();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            if (!hasMorePages()) {
+                return false;
+            }
+            requestNextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Hub items can not be removed through a paged iterator.");
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    private boolean hasMorePages() {
+        return totalCount < 0 || nextOffset < totalCount;
+    }
+
+    private void requestNextPage() {
+        hubPagedRequest.setOffset(nextOffset);
+        final HubPagedResponse<T> page;
+        try {
+            page = requestService.getPagedResponse(hubPagedRequest);
+        } catch (final HubIntegrationException e) {
+            throw new IllegalStateException("There was a problem getting the page at offset " + nextOffset + " : " + e.getMessage(), e);
+        }
+        final List<T> items = page.getItems();
+        totalCount = page.getTotalCount();
+        if (items.isEmpty()) {
+            // the Hub reported more items than it returned, stop rather than request the same offset forever
+            totalCount = nextOffset;
+        }
+        nextOffset += items.size();
+        currentPage = items.iterator();
+    }
+
+}
@@ -21,10 +21,19 @@
  *******************************************************************************/
 package com.blackducksoftware.integration.hub.service;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.blackducksoftware.integration.hub.api.item.HubPagedResponse;
 import com.blackducksoftware.integration.hub.api.item.HubResponse;
@@ -33,40 +42,77 @@ import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.request.HubPagedRequest;
 import com.blackducksoftware.integration.hub.request.HubRequest;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import okhttp3.ResponseBody;
 
 public class HubParameterizedRequestService<T extends HubResponse> extends HubRequestService {
+    // the most pages getAllItemsAsync(hubPagedRequest) requests at once, OkHttp's default limit of requests to one host
+    private static final int DEFAULT_MAX_CONCURRENT_ASYNC_REQUESTS = 5;
+
     private final Class<T> clazz;
 
     private final Type listType;
 
+    // a subclass that overrides getItems(JsonObject) still has every page bound through it
+    private final boolean overridesGetItems;
+
     public HubParameterizedRequestService(final RestConnection restConnection, Class<T> clazz) {
         super(restConnection);
         this.clazz = clazz;
         // we can use this once we don't need to support older versions (2.3.0 for hub-artifactory) anymore
         // listType = TypeToken.getParameterized(List.class, new Type[] { clazz }).getType();
         listType = new ParameterizedListType(clazz);
+        overridesGetItems = isGetItemsOverridden();
+    }
+
+    private boolean isGetItemsOverridden() {
+        try {
+            return getClass().getMethod("getItems", JsonObject.class).getDeclaringClass() != HubParameterizedRequestService.class;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
     }
 
+    /**
+     * The page is read directly from the response stream: each element of the items array is bound as soon as it is
+     * read, so neither the response as a String nor the page as a JsonObject is ever held in memory. A subclass that
+     * overrides getItems(JsonObject) gets the page as a JsonObject instead, as before.
+     */
     public HubPagedResponse<T> getPagedResponse(HubPagedRequest hubPagedRequest) throws HubIntegrationException {
-        final JsonObject jsonObject = hubPagedRequest.executeGetForResponseJson();
-        final int totalCount = jsonObject.get("totalCount").getAsInt();
-        final List<T> items = getItems(jsonObject);
-        return new HubPagedResponse<>(totalCount, items);
+        final ResponseBody body = hubPagedRequest.executeGetForResponseBody();
+        try (JsonReader jsonReader = new JsonReader(body.charStream())) {
+            return readPagedResponse(jsonReader);
+        } catch (final IOException | JsonParseException | IllegalStateException e) {
+            throw new HubIntegrationException("There was a problem reading the page of items : " + hubPagedRequest.getUrl() + ". Error : " + e.getMessage(),
+                    e);
+        } finally {
+            body.close();
+        }
     }
 
     public List<T> getItems(HubPagedRequest hubPagedRequest) throws HubIntegrationException {
-        final JsonObject jsonObject = hubPagedRequest.executeGetForResponseJson();
-        final List<T> items = getItems(jsonObject);
-        return items;
+        return getPagedResponse(hubPagedRequest).getItems();
     }
 
     /**
-     * This method can be overridden by subclasses to provide special treatment for extracting the items from the
-     * jsonObject.
+     * @deprecated pages are read as a stream and bound item by item with getItem(JsonElement). The paged requests,
+     *             blocking or not, only call this when a subclass overrides it, and then hold the whole page as a
+     *             JsonObject to do so. Override getItem(JsonElement) instead to change how each item is created.
      */
+    @Deprecated
     public List<T> getItems(JsonObject jsonObject) {
         final LinkedList<T> itemList = new LinkedList<>();
         final JsonElement itemsElement = jsonObject.get("items");
@@ -74,17 +120,118 @@ public class HubParameterizedRequestService<T extends HubResponse> extends HubRe
         final int count = itemsArray.size();
         for (int index = 0; index < count; index++) {
             final JsonElement element = itemsArray.get(index);
-            final T item = getItem(element, clazz);
+            final T item = getItem(element);
             itemList.add(item);
         }
         return itemList;
     }
 
+    public T getItem(final JsonElement jsonElement) {
+        return getItem(jsonElement, clazz);
+    }
+
+    private HubPagedResponse<T> readPagedResponse(final JsonReader jsonReader) throws IOException {
+        if (overridesGetItems) {
+            final JsonObject page = getRestConnection().getJsonParser().parse(jsonReader).getAsJsonObject();
+            final JsonElement totalCountElement = page.get("totalCount");
+            return new HubPagedResponse<>(totalCountElement == null ? 0 : totalCountElement.getAsInt(), getItems(page));
+        }
+        int totalCount = 0;
+        final List<T> items = new ArrayList<>();
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            if ("totalCount".equals(name)) {
+                totalCount = jsonReader.nextInt();
+            } else if ("items".equals(name)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    final JsonElement element = getRestConnection().getJsonParser().parse(jsonReader);
+                    items.add(getItem(element));
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return new HubPagedResponse<>(totalCount, items);
+    }
+
     public List<T> getAllItems(final HubPagedRequest hubPagedRequest) throws HubIntegrationException {
-        final List<T> allItems = new ArrayList<>();
+        final HubPagedResponse<T> firstPage = getPagedResponse(hubPagedRequest);
+        return getAllItems(hubPagedRequest, firstPage);
+    }
 
+    /**
+     * Once the first page provides the totalCount, the remaining pages are requested concurrently, with at most
+     * maxConcurrentRequests requests in flight at once. The items are returned in the same order as getAllItems would
+     * return them. The pages are requested on an executor shared by all the services.
+     */
+    public List<T> getAllItems(final HubPagedRequest hubPagedRequest, final int maxConcurrentRequests) throws HubIntegrationException {
+        return getAllItems(hubPagedRequest, maxConcurrentRequests, PageExecutorHolder.PAGE_EXECUTOR);
+    }
+
+    /**
+     * As getAllItems(hubPagedRequest, maxConcurrentRequests), with the pages requested on the provided executor. The
+     * executor is not shut down, and no more than maxConcurrentRequests of its threads are used at once.
+     */
+    public List<T> getAllItems(final HubPagedRequest hubPagedRequest, final int maxConcurrentRequests, final ExecutorService executorService)
+            throws HubIntegrationException {
         final HubPagedResponse<T> firstPage = getPagedResponse(hubPagedRequest);
         final int totalCount = firstPage.getTotalCount();
+        final List<T> firstItems = firstPage.getItems();
+        final int pageSize = firstItems.size();
+        final int firstOffset = hubPagedRequest.getOffset();
+        if (maxConcurrentRequests <= 1 || pageSize == 0 || firstOffset + pageSize >= totalCount) {
+            return getAllItems(hubPagedRequest, firstPage);
+        }
+
+        final List<HubPagedRequest> pageRequests = new ArrayList<>();
+        for (int pageOffset = firstOffset + pageSize; pageOffset < totalCount; pageOffset += pageSize) {
+            final HubPagedRequest pageRequest = hubPagedRequest.createPageRequest(pageOffset);
+            pageRequest.setLimit(pageSize);
+            pageRequests.add(pageRequest);
+        }
+
+        final AtomicReferenceArray<List<T>> pages = new AtomicReferenceArray<>(pageRequests.size());
+        final AtomicInteger nextPageIndex = new AtomicInteger();
+        final int workerCount = Math.min(maxConcurrentRequests, pageRequests.size());
+        final List<Future<Void>> workerFutures = new ArrayList<>(workerCount);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workerFutures.add(executorService.submit(new PageCallable(pageRequests, pages, nextPageIndex)));
+            }
+            for (final Future<Void> workerFuture : workerFutures) {
+                workerFuture.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while getting the pages of : " + hubPagedRequest.getUrl(), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof HubIntegrationException) {
+                throw (HubIntegrationException) e.getCause();
+            }
+            throw new HubIntegrationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            // the executor may be shared, so only the work of this call is stopped
+            nextPageIndex.set(pageRequests.size());
+            for (final Future<Void> workerFuture : workerFutures) {
+                workerFuture.cancel(true);
+            }
+        }
+
+        final List<T> allItems = new ArrayList<>(totalCount - firstOffset);
+        allItems.addAll(firstItems);
+        for (int pageIndex = 0; pageIndex < pages.length(); pageIndex++) {
+            allItems.addAll(pages.get(pageIndex));
+        }
+        return allItems;
+    }
+
+    private List<T> getAllItems(final HubPagedRequest hubPagedRequest, final HubPagedResponse<T> firstPage) throws HubIntegrationException {
+        final List<T> allItems = new ArrayList<>();
+        final int totalCount = firstPage.getTotalCount();
         final List<T> items = firstPage.getItems();
         allItems.addAll(items);
 
@@ -110,6 +257,145 @@ public class HubParameterizedRequestService<T extends HubResponse> extends HubRe
         return getAllItems(hubPagedRequest);
     }
 
+    /**
+     * Unlike getAllItems, the pages are requested one at a time as the returned Iterable is consumed, so the full
+     * result set is never held in memory. Each call to iterator() pages through a copy of the request, starting from
+     * the offset the request had when this method was called, so the request itself is never changed and several
+     * iterators can be used at once.
+     */
+    public Iterable<T> iterateAllItems(final HubPagedRequest hubPagedRequest) {
+        final int startingOffset = hubPagedRequest.getOffset();
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new HubPagedIterator<>(HubParameterizedRequestService.this, hubPagedRequest.createPageRequest(startingOffset));
+            }
+        };
+    }
+
+    public Iterable<T> iterateAllItems(List<String> urlSegments) {
+        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(urlSegments);
+        return iterateAllItems(hubPagedRequest);
+    }
+
+    public Iterable<T> iterateAllItems(String url) {
+        final HubPagedRequest hubPagedRequest = getHubRequestFactory().createGetPagedRequest(url);
+        return iterateAllItems(hubPagedRequest);
+    }
+
+    /**
+     * The page is read the same way as by the blocking getPagedResponse, straight from the response stream on the
+     * thread the response arrived on.
+     */
+    public ListenableFuture<HubPagedResponse<T>> getPagedResponseAsync(final HubPagedRequest hubPagedRequest) {
+        return Futures.transformAsync(hubPagedRequest.executeGetForResponseBodyAsync(), new AsyncFunction<ResponseBody, HubPagedResponse<T>>() {
+            @Override
+            public ListenableFuture<HubPagedResponse<T>> apply(final ResponseBody body) throws HubIntegrationException {
+                try (JsonReader jsonReader = new JsonReader(body.charStream())) {
+                    return Futures.immediateFuture(readPagedResponse(jsonReader));
+                } catch (final IOException | JsonParseException | IllegalStateException e) {
+                    throw new HubIntegrationException(
+                            "There was a problem reading the page of items : " + hubPagedRequest.getUrl() + ". Error : " + e.getMessage(), e);
+                } finally {
+                    body.close();
+                }
+            }
+        });
+    }
+
+    public ListenableFuture<List<T>> getItemsAsync(final HubPagedRequest hubPagedRequest) {
+        return Futures.transform(getPagedResponseAsync(hubPagedRequest), new Function<HubPagedResponse<T>, List<T>>() {
+            @Override
+            public List<T> apply(final HubPagedResponse<T> pagedResponse) {
+                return pagedResponse.getItems();
+            }
+        });
+    }
+
+    /**
+     * The non-blocking counterpart of getAllItems. Once the first page provides the totalCount, the remaining pages are
+     * requested with at most 5 in flight at once, and the items are returned in
+     * offset order.
+     */
+    public ListenableFuture<List<T>> getAllItemsAsync(final HubPagedRequest hubPagedRequest) {
+        return getAllItemsAsync(hubPagedRequest, DEFAULT_MAX_CONCURRENT_ASYNC_REQUESTS);
+    }
+
+    /**
+     * As getAllItemsAsync(hubPagedRequest), with no more than maxConcurrentRequests pages requested at once. Each page
+     * that completes requests the next one, so no thread waits for the pages.
+     */
+    public ListenableFuture<List<T>> getAllItemsAsync(final HubPagedRequest hubPagedRequest, final int maxConcurrentRequests) {
+        return Futures.transformAsync(getPagedResponseAsync(hubPagedRequest), new AsyncFunction<HubPagedResponse<T>, List<T>>() {
+            @Override
+            public ListenableFuture<List<T>> apply(final HubPagedResponse<T> firstPage) {
+                final int totalCount = firstPage.getTotalCount();
+                final List<T> firstItems = firstPage.getItems();
+                final int pageSize = firstItems.size();
+                final List<HubPagedRequest> pageRequests = new ArrayList<>();
+                if (pageSize > 0) {
+                    for (int pageOffset = hubPagedRequest.getOffset() + pageSize; pageOffset < totalCount; pageOffset += pageSize) {
+                        final HubPagedRequest pageRequest = hubPagedRequest.createPageRequest(pageOffset);
+                        pageRequest.setLimit(pageSize);
+                        pageRequests.add(pageRequest);
+                    }
+                }
+
+                final AtomicReferenceArray<List<T>> pages = new AtomicReferenceArray<>(pageRequests.size());
+                final AtomicInteger nextPageIndex = new AtomicInteger();
+                final int workerCount = Math.min(Math.max(1, maxConcurrentRequests), pageRequests.size());
+                final List<ListenableFuture<Void>> workerFutures = new ArrayList<>(workerCount);
+                for (int i = 0; i < workerCount; i++) {
+                    final SettableFuture<Void> workerFuture = SettableFuture.create();
+                    workerFutures.add(workerFuture);
+                    requestNextPageAsync(pageRequests, pages, nextPageIndex, workerFuture);
+                }
+                return Futures.transform(Futures.allAsList(workerFutures), new Function<List<Void>, List<T>>() {
+                    @Override
+                    public List<T> apply(final List<Void> workersDone) {
+                        final List<T> allItems = new ArrayList<>(totalCount);
+                        allItems.addAll(firstItems);
+                        for (int pageIndex = 0; pageIndex < pages.length(); pageIndex++) {
+                            allItems.addAll(pages.get(pageIndex));
+                        }
+                        return allItems;
+                    }
+                });
+            }
+        });
+    }
+
+    private void requestNextPageAsync(final List<HubPagedRequest> pageRequests, final AtomicReferenceArray<List<T>> pages, final AtomicInteger nextPageIndex,
+            final SettableFuture<Void> workerFuture) {
+        final int pageIndex = nextPageIndex.getAndIncrement();
+        if (pageIndex >= pageRequests.size()) {
+            workerFuture.set(null);
+            return;
+        }
+        Futures.addCallback(getItemsAsync(pageRequests.get(pageIndex)), new FutureCallback<List<T>>() {
+            @Override
+            public void onSuccess(final List<T> items) {
+                pages.set(pageIndex, items);
+                requestNextPageAsync(pageRequests, pages, nextPageIndex, workerFuture);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                // the result fails with the first failure, so the pages not yet requested are not needed
+                nextPageIndex.set(pageRequests.size());
+                workerFuture.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    public ListenableFuture<T> getItemAsync(final HubRequest hubRequest) {
+        return getItemAsync(hubRequest, clazz);
+    }
+
+    public ListenableFuture<T> getItemAsync(String url) {
+        return getItemAsync(url, clazz);
+    }
+
     public T getItem(final HubRequest hubRequest) throws HubIntegrationException {
         return getItem(hubRequest, clazz);
     }
@@ -118,4 +404,40 @@ public class HubParameterizedRequestService<T extends HubResponse> extends HubRe
         return getItem(url, clazz);
     }
 
+    /**
+     * Requests pages until there are none left, taking the next one from the shared index.
+     */
+    private class PageCallable implements Callable<Void> {
+        private final List<HubPagedRequest> pageRequests;
+
+        private final AtomicReferenceArray<List<T>> pages;
+
+        private final AtomicInteger nextPageIndex;
+
+        public PageCallable(final List<HubPagedRequest> pageRequests, final AtomicReferenceArray<List<T>> pages, final AtomicInteger nextPageIndex) {
+            this.pageRequests = pageRequests;
+            this.pages = pages;
+            this.nextPageIndex = nextPageIndex;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            int pageIndex;
+            while ((pageIndex = nextPageIndex.getAndIncrement()) < pageRequests.size()) {
+                pages.set(pageIndex, getPagedResponse(pageRequests.get(pageIndex)).getItems());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Shared by every service that does not provide an executor of its own, and only created once a service first
+     * requests pages concurrently. Each call uses at most maxConcurrentRequests of its threads, which are daemons that
+     * die when idle, so it never has to be shut down.
+     */
+    private static class PageExecutorHolder {
+        private static final ExecutorService PAGE_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("hub-page-%d").setDaemon(true).build());
+    }
+
 }
@@ -22,12 +22,19 @@
 package com.blackducksoftware.integration.hub.service;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.blackducksoftware.integration.hub.api.item.HubResponse;
+import com.blackducksoftware.integration.hub.cache.HubResponseCache;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.request.HubRequest;
 import com.blackducksoftware.integration.hub.request.HubRequestFactory;
+import com.blackducksoftware.integration.hub.rest.RequestCoalescer;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
@@ -53,27 +60,115 @@ public class HubRequestService {
         return jsonObject;
     }
 
-    public <T extends HubResponse> T getItem(final HubRequest hubRequest, Class<T> clazz) throws HubIntegrationException {
+    public <T extends HubResponse> T getItem(final HubRequest hubRequest, final Class<T> clazz) throws HubIntegrationException {
+        final RequestCoalescer requestCoalescer = getRestConnection().getRequestCoalescer();
+        if (requestCoalescer == null) {
+            return requestItem(hubRequest, clazz);
+        }
+        return requestCoalescer.execute(getCoalescingKey(hubRequest, clazz), new Callable<T>() {
+            @Override
+            public T call() throws HubIntegrationException {
+                return requestItem(hubRequest, clazz);
+            }
+        });
+    }
+
+    private <T extends HubResponse> T requestItem(final HubRequest hubRequest, final Class<T> clazz) throws HubIntegrationException {
         final String response = hubRequest.executeGetForResponseString();
         final T item = getRestConnection().getGson().fromJson(response, clazz);
-        item.setJson(response);
+        if (getRestConnection().isRetainItemJson()) {
+            item.setJson(response);
+        }
         return item;
     }
 
     public <T extends HubResponse> T getItem(String url, Class<T> clazz) throws HubIntegrationException {
+        final HubResponseCache responseCache = getRestConnection().getResponseCache();
+        if (responseCache != null) {
+            final T cachedItem = responseCache.get(url, clazz);
+            if (cachedItem != null) {
+                return cachedItem;
+            }
+        }
+        final HubRequest hubRequest = getHubRequestFactory().createGetRequest(url);
+        final T item = getItem(hubRequest, clazz);
+        if (responseCache != null) {
+            responseCache.put(url, clazz, item);
+        }
+        return item;
+    }
+
+    public <T extends HubResponse> ListenableFuture<T> getItemAsync(final HubRequest hubRequest, final Class<T> clazz) {
+        final RequestCoalescer requestCoalescer = getRestConnection().getRequestCoalescer();
+        if (requestCoalescer == null) {
+            return requestItemAsync(hubRequest, clazz);
+        }
+        final String key;
+        try {
+            key = getCoalescingKey(hubRequest, clazz);
+        } catch (final HubIntegrationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        return requestCoalescer.executeAsync(key, new AsyncCallable<T>() {
+            @Override
+            public ListenableFuture<T> call() {
+                return requestItemAsync(hubRequest, clazz);
+            }
+        });
+    }
+
+    private <T extends HubResponse> ListenableFuture<T> requestItemAsync(final HubRequest hubRequest, final Class<T> clazz) {
+        return Futures.transform(hubRequest.executeGetForResponseStringAsync(), new Function<String, T>() {
+            @Override
+            public T apply(final String response) {
+                final T item = getRestConnection().getGson().fromJson(response, clazz);
+                if (getRestConnection().isRetainItemJson()) {
+                    item.setJson(response);
+                }
+                return item;
+            }
+        });
+    }
+
+    public <T extends HubResponse> ListenableFuture<T> getItemAsync(final String url, final Class<T> clazz) {
+        final HubResponseCache responseCache = getRestConnection().getResponseCache();
+        if (responseCache != null) {
+            final T cachedItem = responseCache.get(url, clazz);
+            if (cachedItem != null) {
+                return Futures.immediateFuture(cachedItem);
+            }
+        }
         final HubRequest hubRequest = getHubRequestFactory().createGetRequest(url);
-        return getItem(hubRequest, clazz);
+        final ListenableFuture<T> itemFuture = getItemAsync(hubRequest, clazz);
+        if (responseCache == null) {
+            return itemFuture;
+        }
+        return Futures.transform(itemFuture, new Function<T, T>() {
+            @Override
+            public T apply(final T item) {
+                responseCache.put(url, clazz, item);
+                return item;
+            }
+        });
+    }
+
+    private String getCoalescingKey(final HubRequest hubRequest, final Class<?> clazz) throws HubIntegrationException {
+        return clazz.getName() + " " + hubRequest.buildHttpUrl().toString();
     }
 
     public <T extends HubResponse> T getItem(final JsonObject jsonObject, final Class<T> clazz) {
         final T item = getRestConnection().getGson().fromJson(jsonObject, clazz);
-        item.setJson(jsonObject.toString());
+        if (getRestConnection().isRetainItemJson()) {
+            item.setJson(jsonObject.toString());
+        }
         return item;
     }
 
     public <T extends HubResponse> T getItem(final JsonElement jsonElement, final Class<T> clazz) {
         final T item = getRestConnection().getGson().fromJson(jsonElement, clazz);
-        item.setJson(jsonElement.toString());
+        if (getRestConnection().isRetainItemJson()) {
+            item.setJson(jsonElement.toString());
+        }
         return item;
     }
 
@@ -50,6 +50,7 @@ import com.blackducksoftware.integration.hub.dataservice.cli.CLIDataService;
 import com.blackducksoftware.integration.hub.dataservice.extension.ExtensionConfigDataService;
 import com.blackducksoftware.integration.hub.dataservice.notification.NotificationDataService;
 import com.blackducksoftware.integration.hub.dataservice.notification.item.PolicyNotificationFilter;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ExecutionStrategy;
 import com.blackducksoftware.integration.hub.dataservice.phonehome.PhoneHomeDataService;
 import com.blackducksoftware.integration.hub.dataservice.policystatus.PolicyStatusDataService;
 import com.blackducksoftware.integration.hub.dataservice.report.RiskReportDataService;
@@ -122,11 +123,24 @@ public class HubServicesFactory {
                 createMetaService(logger));
     }
 
+    public NotificationDataService createNotificationDataService(final IntLogger logger,
+            final PolicyNotificationFilter policyNotificationFilter, final ExecutionStrategy executionStrategy) {
+        return new NotificationDataService(logger, restConnection, createNotificationRequestService(logger), createProjectVersionRequestService(logger),
+                createPolicyRequestService(), createVersionBomPolicyRequestService(), createHubRequestService(), policyNotificationFilter,
+                createMetaService(logger), executionStrategy);
+    }
+
     public ExtensionConfigDataService createExtensionConfigDataService(final IntLogger logger) {
         return new ExtensionConfigDataService(logger, restConnection, createUserRequestService(),
                 createHubRequestService(), createExtensionConfigRequestService(), createExtensionUserOptionRequestService(), createMetaService(logger));
     }
 
+    public ExtensionConfigDataService createExtensionConfigDataService(final IntLogger logger, final ExecutionStrategy executionStrategy) {
+        return new ExtensionConfigDataService(logger, restConnection, createUserRequestService(),
+                createHubRequestService(), createExtensionConfigRequestService(), createExtensionUserOptionRequestService(), createMetaService(logger),
+                executionStrategy);
+    }
+
     public VulnerabilityDataService createVulnerabilityDataService(final IntLogger logger) {
         return new VulnerabilityDataService(restConnection, createComponentRequestService(), createHubRequestService(),
                 createVulnerabilityRequestService(), createMetaService(logger));
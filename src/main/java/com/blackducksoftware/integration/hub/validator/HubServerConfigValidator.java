@@ -30,6 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 
 import com.blackducksoftware.integration.hub.builder.HubCredentialsBuilder;
+import com.blackducksoftware.integration.hub.global.HubConnectionProfile;
 import com.blackducksoftware.integration.hub.global.HubCredentials;
 import com.blackducksoftware.integration.hub.global.HubProxyInfo;
 import com.blackducksoftware.integration.hub.global.HubProxyInfoFieldEnum;
@@ -78,6 +79,16 @@ public class HubServerConfigValidator extends AbstractValidator {
 
     private String ignoredProxyHosts;
 
+    private int maxIdleConnections = HubConnectionProfile.DEFAULT_MAX_IDLE_CONNECTIONS;
+
+    private int keepAliveSeconds = HubConnectionProfile.DEFAULT_KEEP_ALIVE_SECONDS;
+
+    private int maxRequests = HubConnectionProfile.DEFAULT_MAX_REQUESTS;
+
+    private int maxRequestsPerHost = HubConnectionProfile.DEFAULT_MAX_REQUESTS_PER_HOST;
+
+    private int warmUpConnections = HubConnectionProfile.DEFAULT_WARM_UP_CONNECTIONS;
+
     private HubProxyInfo proxyInfo;
 
     private HubCredentials credentials;
@@ -91,6 +102,7 @@ public class HubServerConfigValidator extends AbstractValidator {
         result.addAllResultsStrings(credentialResult.getResultMap(), credentialResult.getValidationStatus());
         validateHubUrl(result);
         validateTimeout(result, null);
+        validateConnectionProfile(result);
         return result;
     }
 
@@ -241,6 +253,25 @@ public class HubServerConfigValidator extends AbstractValidator {
         }
     }
 
+    public void validateConnectionProfile(final ValidationResults result) {
+        if (maxIdleConnections < 0) {
+            result.addResult(HubServerConfigFieldEnum.CONNECTIONPROFILE,
+                    new ValidationResult(ValidationResultEnum.ERROR, "The maximum idle connections can not be negative."));
+        }
+        if (keepAliveSeconds <= 0) {
+            result.addResult(HubServerConfigFieldEnum.CONNECTIONPROFILE,
+                    new ValidationResult(ValidationResultEnum.ERROR, "The keep alive must be greater than zero."));
+        }
+        if (maxRequests <= 0 || maxRequestsPerHost <= 0) {
+            result.addResult(HubServerConfigFieldEnum.CONNECTIONPROFILE,
+                    new ValidationResult(ValidationResultEnum.ERROR, "The maximum requests must be greater than zero."));
+        }
+        if (warmUpConnections < 0) {
+            result.addResult(HubServerConfigFieldEnum.CONNECTIONPROFILE,
+                    new ValidationResult(ValidationResultEnum.ERROR, "The warm up connections can not be negative."));
+        }
+    }
+
     public void setHubUrl(final String hubUrl) {
         this.hubUrl = StringUtils.trimToNull(hubUrl);
     }
@@ -344,4 +375,44 @@ public class HubServerConfigValidator extends AbstractValidator {
     public void setIgnoredProxyHosts(final String ignoredProxyHosts) {
         this.ignoredProxyHosts = ignoredProxyHosts;
     }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(final int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public int getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public void setKeepAliveSeconds(final int keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(final int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(final int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    public void setWarmUpConnections(final int warmUpConnections) {
+        this.warmUpConnections = warmUpConnections;
+    }
 }
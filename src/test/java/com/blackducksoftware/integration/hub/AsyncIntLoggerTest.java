@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.log.LogLevel;
+
+public class AsyncIntLoggerTest {
+    @Test
+    public void testDeliversInOrder() {
+        final IntBufferedLogger bufferedLogger = new IntBufferedLogger();
+        final AsyncIntLogger logger = new AsyncIntLogger(bufferedLogger);
+        for (int i = 0; i < 1000; i++) {
+            logger.info("info " + i);
+        }
+        logger.error("error");
+        logger.close();
+
+        final List<String> infoMessages = bufferedLogger.getOutputList(LogLevel.INFO);
+        assertEquals(1000, infoMessages.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("info " + i, infoMessages.get(i));
+        }
+        assertEquals("error", bufferedLogger.getOutputString(LogLevel.ERROR));
+        assertEquals(1001, logger.getProcessedCount());
+        assertEquals(0, logger.getDroppedCount());
+    }
+
+    @Test
+    public void testDropsDebugButNotInfoWhenFull() throws Exception {
+        final BlockingLogger blockingLogger = new BlockingLogger();
+        blockingLogger.setLogLevel(LogLevel.DEBUG);
+        final AsyncIntLogger logger = new AsyncIntLogger(blockingLogger, 10, 4, 3);
+        logger.info("first");
+        blockingLogger.delivering.await();
+
+        for (int i = 0; i < 100; i++) {
+            logger.debug("debug " + i);
+        }
+        logger.trace("not logged at this level");
+        final Thread infoThread = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 20; i++) {
+                    logger.info("info " + i);
+                }
+            }
+        };
+        infoThread.start();
+        blockingLogger.release.countDown();
+        infoThread.join();
+        logger.close();
+
+        final long debugLogged = blockingLogger.getOutputList(LogLevel.DEBUG).size();
+        assertTrue(debugLogged < 100);
+        assertEquals(100, debugLogged + logger.getDroppedCount());
+        final String infoLogged = blockingLogger.getOutputString(LogLevel.INFO);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(infoLogged.contains("info " + i));
+        }
+        assertNull(blockingLogger.getOutputString(LogLevel.TRACE));
+        assertEquals(21 + debugLogged, logger.getProcessedCount());
+    }
+
+    @Test
+    public void testLogsDirectlyOnceClosed() {
+        final IntBufferedLogger bufferedLogger = new IntBufferedLogger();
+        final AsyncIntLogger logger = new AsyncIntLogger(bufferedLogger);
+        logger.close();
+        logger.warn("after close");
+        logger.close();
+
+        assertEquals("after close", bufferedLogger.getOutputString(LogLevel.WARN));
+        assertEquals(1, logger.getProcessedCount());
+    }
+
+    @Test
+    public void testCloseRacingProducersLosesNothingAndDeliversOneAtATime() throws Exception {
+        final AtomicInteger delivering = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final IntBufferedLogger countingLogger = new IntBufferedLogger() {
+            @Override
+            public synchronized void info(final String txt) {
+                super.info(txt);
+            }
+
+            @Override
+            public void warn(final String txt) {
+                if (delivering.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                Thread.yield();
+                delivering.decrementAndGet();
+                info(txt);
+            }
+        };
+        final AsyncIntLogger logger = new AsyncIntLogger(countingLogger, 4, 2, 1);
+        final List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 4; producer++) {
+            final Thread producerThread = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 500; i++) {
+                        logger.warn("warn " + i);
+                    }
+                }
+            };
+            producers.add(producerThread);
+            producerThread.start();
+        }
+        logger.close();
+        for (final Thread producerThread : producers) {
+            producerThread.join();
+        }
+
+        assertEquals(2000, countingLogger.getOutputList(LogLevel.INFO).size());
+        assertEquals(2000, logger.getProcessedCount());
+        assertFalse(overlapped.get());
+    }
+
+    @Test
+    public void testMessagesTheLoggerFailsOnAreCountedAsDropped() {
+        final IntBufferedLogger failingLogger = new IntBufferedLogger() {
+            @Override
+            public void info(final String txt) {
+                if (txt.endsWith("0")) {
+                    throw new IllegalStateException(txt);
+                }
+                super.info(txt);
+            }
+        };
+        final AsyncIntLogger logger = new AsyncIntLogger(failingLogger);
+        for (int i = 0; i < 100; i++) {
+            logger.info("info " + i);
+        }
+        logger.close();
+
+        assertEquals(90, failingLogger.getOutputList(LogLevel.INFO).size());
+        assertEquals(90, logger.getProcessedCount());
+        assertEquals(10, logger.getDroppedCount());
+    }
+
+    private static class BlockingLogger extends IntBufferedLogger {
+        private final CountDownLatch delivering = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private LogLevel logLevel;
+
+        @Override
+        public void setLogLevel(final LogLevel logLevel) {
+            this.logLevel = logLevel;
+        }
+
+        @Override
+        public LogLevel getLogLevel() {
+            return logLevel;
+        }
+
+        @Override
+        public void info(final String txt) {
+            delivering.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.info(txt);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+
+/**
+ * Measures splitting the output of a CLI scan into log messages, written in the chunks StreamRedirectThread reads.
+ * Set logFile to a captured CLI log to measure real output, for example with -p logFile=/tmp/scan.cli.log. Without one
+ * it generates a log in the same shape: mostly INFO and DEBUG lines, with an exception and its stack trace every
+ * thousand lines. Run it from the test classpath with org.openjdk.jmh.Main ScannerSplitStreamBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScannerSplitStreamBenchmark {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Param({ "" })
+    private String logFile;
+
+    @Param({ "100000" })
+    private int generatedLineCount;
+
+    private byte[] log;
+
+    @Setup
+    public void readLog() throws IOException {
+        if (logFile.isEmpty()) {
+            log = generateLog().getBytes(StandardCharsets.UTF_8);
+        } else {
+            log = FileUtils.readFileToByteArray(new File(logFile));
+        }
+    }
+
+    private String generateLog() {
+        final StringBuilder generatedLog = new StringBuilder();
+        for (int index = 0; index < generatedLineCount; index++) {
+            final String time = "2017-03-01 12:00:" + String.format("%02d", index % 60) + " EST";
+            if (index % 1000 == 999) {
+                generatedLog.append(time).append(" ERROR: Could not upload the scan of /src/module").append(index).append('\n');
+                generatedLog.append("java.io.IOException: Connection reset\n");
+                for (int frame = 0; frame < 40; frame++) {
+                    generatedLog.append("\tat com.blackducksoftware.scan.cli.Uploader.upload").append(frame).append("(Uploader.java:")
+                            .append(100 + frame).append(")\n");
+                }
+            } else if (index % 3 == 0) {
+                generatedLog.append(time).append(" INFO: Scanned ").append(index * 17).append(" files in /src/module").append(index / 100)
+                        .append('\n');
+            } else {
+                generatedLog.append(time).append(" DEBUG: Hashing /src/module").append(index / 100).append("/lib/file").append(index)
+                        .append(".jar\n");
+            }
+        }
+        generatedLog.append("INFO: Finished in 600 seconds\n");
+        return generatedLog.toString();
+    }
+
+    @Benchmark
+    public String split() throws IOException {
+        final ScannerSplitStream stream = new ScannerSplitStream(new IntBufferedLogger(), new NullOutputStream());
+        for (int offset = 0; offset < log.length; offset += CHUNK_SIZE) {
+            stream.write(log, offset, Math.min(CHUNK_SIZE, log.length - offset));
+        }
+        stream.flush();
+        return stream.getOutput();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.log.LogLevel;
+
+public class ScannerSplitStreamTest {
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    @Test
+    public void testMultiByteCharactersSplitAcrossWrites() throws Exception {
+        final String log = "INFO: scanning héllo 日本 😀\nWARN: done\n";
+        final byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+
+        final IntBufferedLogger byteLogger = new IntBufferedLogger();
+        final ByteArrayOutputStream byteFile = new ByteArrayOutputStream();
+        final ScannerSplitStream byteStream = new ScannerSplitStream(byteLogger, byteFile);
+        for (final byte b : bytes) {
+            byteStream.write(b & 0xff);
+        }
+        byteStream.flush();
+
+        final IntBufferedLogger chunkLogger = new IntBufferedLogger();
+        final ScannerSplitStream chunkStream = new ScannerSplitStream(chunkLogger, new ByteArrayOutputStream());
+        // every chunk ends part way through a character
+        for (int offset = 0; offset < bytes.length; offset += 3) {
+            chunkStream.write(bytes, offset, Math.min(3, bytes.length - offset));
+        }
+        chunkStream.flush();
+
+        for (final IntBufferedLogger logger : Arrays.asList(byteLogger, chunkLogger)) {
+            assertEquals(Collections.singletonList("INFO: scanning héllo 日本 😀"), logger.getOutputList(LogLevel.INFO));
+            assertEquals(Collections.singletonList("WARN: done"), logger.getOutputList(LogLevel.WARN));
+        }
+        assertArrayEquals(bytes, byteFile.toByteArray());
+    }
+
+    @Test
+    public void testContinuationLinesAndLevels() throws Exception {
+        final IntBufferedLogger logger = new IntBufferedLogger();
+        final ScannerSplitStream stream = new ScannerSplitStream(logger, new ByteArrayOutputStream());
+        final String log = "ERROR: it failed\r\n\tat one\r\n\tat two\rDEBUG: hidden\nmore hidden\nINFO: Finished in 3 seconds\n";
+        stream.write(log.getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+
+        assertEquals(Collections.singletonList("ERROR: it failed" + LINE_SEPARATOR + "\tat one" + LINE_SEPARATOR + "\tat two"),
+                logger.getOutputList(LogLevel.ERROR));
+        assertEquals(Collections.singletonList("INFO: Finished in 3 seconds"), logger.getOutputList(LogLevel.INFO));
+        assertTrue(logger.getOutputList(LogLevel.DEBUG).isEmpty());
+        assertEquals("ERROR: it failed" + LINE_SEPARATOR + "\tat one" + LINE_SEPARATOR + "\tat two" + LINE_SEPARATOR
+                + "INFO: Finished in 3 seconds" + LINE_SEPARATOR, stream.getOutput());
+    }
+
+    @Test
+    public void testCarriageReturnBeforeFlush() throws Exception {
+        final IntBufferedLogger logger = new IntBufferedLogger();
+        final ScannerSplitStream stream = new ScannerSplitStream(logger, new ByteArrayOutputStream());
+        stream.write("INFO: first\r".getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+        stream.write("\nINFO: second\n".getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+
+        assertEquals(Arrays.asList("INFO: first", "INFO: second"), logger.getOutputList(LogLevel.INFO));
+        assertEquals("INFO: first" + LINE_SEPARATOR + "INFO: second" + LINE_SEPARATOR, stream.getOutput());
+    }
+
+    @Test
+    public void testOutputAndMessagesAreBounded() throws Exception {
+        final int maxOutputLength = 100;
+        final IntBufferedLogger logger = new IntBufferedLogger();
+        final ScannerSplitStream stream = new ScannerSplitStream(logger, new ByteArrayOutputStream(), maxOutputLength);
+        final StringBuilder log = new StringBuilder();
+        for (int index = 0; index < 1000; index++) {
+            log.append("INFO: line ").append(index).append('\n');
+        }
+        log.append("WARN: a long message\n");
+        for (int index = 0; index < 1000; index++) {
+            log.append("part of the message ").append(index).append('\n');
+        }
+        log.append("INFO: last\n");
+        stream.write(log.toString().getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+
+        assertEquals(maxOutputLength, stream.getOutput().length());
+        assertTrue(stream.getOutput().endsWith("INFO: last" + LINE_SEPARATOR));
+        final String warning = logger.getOutputList(LogLevel.WARN).get(0);
+        assertTrue(warning.startsWith("WARN: a long message"));
+        assertTrue(warning, warning.endsWith("more characters"));
+        assertTrue(warning.length() < 2 * maxOutputLength);
+        assertEquals(1001, logger.getOutputList(LogLevel.INFO).size());
+    }
+
+    @Test
+    public void testLongLinesAreBounded() throws Exception {
+        final int maxOutputLength = 100;
+        final IntBufferedLogger logger = new IntBufferedLogger();
+        final ScannerSplitStream stream = new ScannerSplitStream(logger, new ByteArrayOutputStream(), maxOutputLength);
+        final StringBuilder log = new StringBuilder("ERROR: a long line ");
+        for (int index = 0; index < 10000; index++) {
+            log.append('x');
+        }
+        log.append("\nWARN: no end of line ");
+        for (int index = 0; index < 10000; index++) {
+            log.append('y');
+        }
+        stream.write(log.toString().getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+
+        final String error = logger.getOutputList(LogLevel.ERROR).get(0);
+        assertTrue(error.startsWith("ERROR: a long line x"));
+        assertTrue(error, error.endsWith("... 9919 more characters"));
+        assertTrue(error.length() < 2 * maxOutputLength);
+        final String warning = logger.getOutputList(LogLevel.WARN).get(0);
+        assertTrue(warning.startsWith("WARN: no end of line y"));
+        assertTrue(warning, warning.endsWith("... 9921 more characters"));
+        assertTrue(warning.length() < 2 * maxOutputLength);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StreamRedirectThreadTest {
+
+    @Test
+    public void testCopiesInBlocks() throws Exception {
+        final byte[] bytes = new byte[1024 * 1024 + 17];
+        new Random(7).nextBytes(bytes);
+        final CountingOutputStream out = new CountingOutputStream();
+
+        final StreamRedirectThread redirectThread = new StreamRedirectThread(new ByteArrayInputStream(bytes), out);
+        redirectThread.start();
+        redirectThread.join();
+
+        assertNull(redirectThread.getException());
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(0, out.singleByteWrites);
+        assertTrue(out.blockWrites < 100);
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+        private int singleByteWrites;
+
+        private int blockWrites;
+
+        @Override
+        public synchronized void write(final int b) {
+            singleByteWrites++;
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) {
+            blockWrites++;
+            super.write(b, off, len);
+        }
+    }
+
+}
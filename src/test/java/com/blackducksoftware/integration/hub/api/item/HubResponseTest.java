@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.api.item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.project.ProjectItem;
+import com.google.gson.Gson;
+
+public class HubResponseTest {
+    private static final String PROJECT_JSON = "{\"name\":\"project\",\"description\":\"a project\",\"projectTier\":2,"
+            + "\"_meta\":{\"href\":\"http://a.hub.server/api/projects/1\",\"allow\":[\"GET\"],\"links\":[]}}";
+
+    private final Gson gson = new Gson();
+
+    private ProjectItem createProject(final String json) {
+        final ProjectItem project = gson.fromJson(json, ProjectItem.class);
+        project.setJson(json);
+        return project;
+    }
+
+    @Test
+    public void testEqualItemsHaveEqualHashCodes() {
+        final ProjectItem project = createProject(PROJECT_JSON);
+        final ProjectItem sameProject = createProject(PROJECT_JSON);
+        assertEquals(project, sameProject);
+        assertEquals(project.hashCode(), sameProject.hashCode());
+    }
+
+    @Test
+    public void testSubclassFieldsAreCompared() {
+        final ProjectItem project = createProject(PROJECT_JSON);
+        final ProjectItem otherProject = gson.fromJson(PROJECT_JSON.replace("\"projectTier\":2", "\"projectTier\":3"), ProjectItem.class);
+        otherProject.setJson(PROJECT_JSON);
+        assertNotEquals(project, otherProject);
+    }
+
+    @Test
+    public void testJsonIsCompared() {
+        final ProjectItem project = createProject(PROJECT_JSON);
+        final ProjectItem projectWithoutJson = createProject(PROJECT_JSON);
+        projectWithoutJson.setJson(null);
+        assertNotEquals(project, projectWithoutJson);
+    }
+
+    @Test
+    public void testPolicyRuleFieldsAndMetaAreCompared() {
+        final String ruleJson = "{\"name\":\"rule\",\"enabled\":true,\"_meta\":{\"href\":\"http://a.hub.server/api/policy-rules/1\"}}";
+        final PolicyRule rule = gson.fromJson(ruleJson, PolicyRule.class);
+        final PolicyRule sameRule = gson.fromJson(ruleJson, PolicyRule.class);
+        assertEquals(rule, sameRule);
+        assertEquals(rule.hashCode(), sameRule.hashCode());
+        assertNotEquals(rule, gson.fromJson(ruleJson.replace("\"enabled\":true", "\"enabled\":false"), PolicyRule.class));
+
+        final int hashCode = rule.hashCode();
+        rule.setMeta(gson.fromJson(ruleJson.replace("policy-rules/1", "policy-rules/2"), PolicyRule.class).getMeta());
+        assertNotEquals(rule, sameRule);
+        assertNotEquals(hashCode, rule.hashCode());
+    }
+
+    @Test
+    public void testItemsWithoutTheirOwnEqualsCompareMetaAndJson() {
+        final HubItem item = gson.fromJson(PROJECT_JSON, HubItem.class);
+        item.setJson(PROJECT_JSON);
+        final HubItem sameItem = gson.fromJson(PROJECT_JSON, HubItem.class);
+        sameItem.setJson(PROJECT_JSON);
+        assertEquals(item, sameItem);
+        assertEquals(item.hashCode(), sameItem.hashCode());
+        sameItem.setJson(PROJECT_JSON.replace("a project", "another project"));
+        assertNotEquals(item, sameItem);
+    }
+
+    @Test
+    public void testDifferentClassesAreNotEqual() {
+        final HubItem item = gson.fromJson(PROJECT_JSON, HubItem.class);
+        final ProjectItem project = gson.fromJson(PROJECT_JSON, ProjectItem.class);
+        assertFalse(item.equals(project));
+        assertFalse(project.equals(item));
+    }
+
+}
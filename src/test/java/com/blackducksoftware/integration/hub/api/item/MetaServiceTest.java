@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.api.item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.meta.MetaAllowEnum;
+import com.blackducksoftware.integration.hub.notification.processor.MockRestConnection;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.service.HubRequestService;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.google.gson.JsonElement;
+
+public class MetaServiceTest {
+    private static final String ITEM_HREF = "http://a.hub.server/api/projects/1";
+
+    private static final String ITEM_JSON = "{ \"name\": \"project\", \"_meta\": { \"href\": \"" + ITEM_HREF + "\","
+            + "\"allow\": [\"GET\", \"PUT\"],"
+            + "\"links\": [ { \"rel\": \"versions\", \"href\": \"" + ITEM_HREF + "/versions\" },"
+            + "{ \"rel\": \"policy-rule\", \"href\": \"http://a.hub.server/api/policy-rules/1\" },"
+            + "{ \"rel\": \"policy-rule\", \"href\": \"http://a.hub.server/api/policy-rules/2\" } ] } }";
+
+    private RestConnection restConnection;
+
+    private MetaService metaService;
+
+    @Before
+    public void init() throws Exception {
+        restConnection = new MockRestConnection();
+        metaService = new HubServicesFactory(restConnection).createMetaService(new IntBufferedLogger());
+    }
+
+    @Test
+    public void testMetaWithoutRetainedJson() throws Exception {
+        restConnection.setRetainItemJson(false);
+        final HubItem item = createItem();
+
+        assertNull(item.getJson());
+        assertMeta(item);
+    }
+
+    @Test
+    public void testMetaFromRetainedJsonOnly() throws Exception {
+        final HubItem item = createItem();
+        item.setMeta(null);
+
+        assertNotNull(item.getJson());
+        assertMeta(item);
+    }
+
+    @Test
+    public void testMetaIsIndexedOncePerItem() throws Exception {
+        final HubItem item = createItem();
+
+        metaService.getHref(item);
+        metaService.getLink(item, MetaService.VERSIONS_LINK);
+        metaService.getAllowedMethods(item);
+
+        assertEquals(1, metaService.getMetaCacheStats().missCount());
+        assertEquals(2, metaService.getMetaCacheStats().hitCount());
+    }
+
+    @Test
+    public void testLinksCanBeChangedWithoutChangingTheIndex() throws Exception {
+        final HubItem item = createItem();
+
+        final Map<String, List<String>> links = metaService.getLinks(item);
+        links.get(MetaService.POLICY_RULE_LINK).clear();
+        links.remove(MetaService.VERSIONS_LINK);
+
+        assertEquals(2, metaService.getLinks(item).get(MetaService.POLICY_RULE_LINK).size());
+        assertEquals(ITEM_HREF + "/versions", metaService.getLink(item, MetaService.VERSIONS_LINK));
+    }
+
+    private HubItem createItem() {
+        final JsonElement element = restConnection.getJsonParser().parse(ITEM_JSON);
+        final HubItem item = new HubRequestService(restConnection).getItem(element, HubItem.class);
+        return item;
+    }
+
+    private void assertMeta(final HubItem item) throws Exception {
+        assertEquals(ITEM_HREF, metaService.getHref(item));
+        assertEquals(ITEM_HREF + "/versions", metaService.getLink(item, MetaService.VERSIONS_LINK));
+
+        final Map<String, List<String>> links = metaService.getLinks(item);
+        assertEquals(2, links.get(MetaService.POLICY_RULE_LINK).size());
+
+        final List<MetaAllowEnum> allow = metaService.getAllowedMethods(item);
+        assertEquals(2, allow.size());
+        assertTrue(allow.contains(MetaAllowEnum.PUT));
+    }
+
+}
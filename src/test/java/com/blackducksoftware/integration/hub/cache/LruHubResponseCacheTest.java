@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersion;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.google.common.base.Ticker;
+
+public class LruHubResponseCacheTest {
+    private static final String RULE_URL = "http://a.hub.server/api/policy-rules/1";
+
+    private static final String VERSION_URL = "http://a.hub.server/api/components/1/versions/1";
+
+    @Test
+    public void testItemsExpireByType() throws Exception {
+        final ManualTicker ticker = new ManualTicker();
+        final LruHubResponseCache cache = new LruHubResponseCache(100, 1, TimeUnit.MINUTES, ticker);
+        cache.setTimeToLive(PolicyRule.class, 10, TimeUnit.MINUTES);
+        final PolicyRule rule = new PolicyRule();
+        final ComponentVersion version = new ComponentVersion();
+        cache.put(RULE_URL, PolicyRule.class, rule);
+        cache.put(VERSION_URL, ComponentVersion.class, version);
+
+        assertSame(rule, cache.get(RULE_URL, PolicyRule.class));
+        assertSame(version, cache.get(VERSION_URL, ComponentVersion.class));
+        assertNull(cache.get(RULE_URL, ComponentVersion.class));
+
+        ticker.advance(2, TimeUnit.MINUTES);
+        assertSame(rule, cache.get(RULE_URL, PolicyRule.class));
+        assertNull(cache.get(VERSION_URL, ComponentVersion.class));
+
+        ticker.advance(10, TimeUnit.MINUTES);
+        assertNull(cache.get(RULE_URL, PolicyRule.class));
+
+        assertEquals(3, cache.getStats().hitCount());
+        assertEquals(3, cache.getStats().missCount());
+    }
+
+    @Test
+    public void testZeroTimeToLiveIsNotCached() throws Exception {
+        final LruHubResponseCache cache = new LruHubResponseCache(100, 1, TimeUnit.MINUTES);
+        cache.setTimeToLive(PolicyRule.class, 0, TimeUnit.MINUTES);
+        cache.put(RULE_URL, PolicyRule.class, new PolicyRule());
+
+        assertNull(cache.get(RULE_URL, PolicyRule.class));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeEviction() throws Exception {
+        final LruHubResponseCache cache = new LruHubResponseCache(1, 1, TimeUnit.MINUTES);
+        cache.put(RULE_URL, PolicyRule.class, new PolicyRule());
+        cache.put(RULE_URL + "2", PolicyRule.class, new PolicyRule());
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getStats().evictionCount());
+        assertNull(cache.get(RULE_URL, PolicyRule.class));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final LruHubResponseCache cache = new LruHubResponseCache(100, 1, TimeUnit.MINUTES);
+        cache.put(RULE_URL, PolicyRule.class, new PolicyRule());
+        cache.invalidate(RULE_URL);
+
+        assertNull(cache.get(RULE_URL, PolicyRule.class));
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos = 0;
+
+        public void advance(final long time, final TimeUnit timeUnit) {
+            nanos += timeUnit.toNanos(time);
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.util.CIEnvironmentVariables;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class CLIDownloadServiceTest {
+    private static final String ARCHIVE_URL = "http://hub/download/scan.cli.zip";
+
+    private static final int FILE_COUNT = 500;
+
+    private static final long ENTRY_TIME = 1262304000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testUnpacksEveryEntry() throws Exception {
+        final byte[] largeFile = new byte[3 * 1024 * 1024];
+        new Random(3).nextBytes(largeFile);
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("scan.cli-1.0/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("scan.cli-1.0/empty/"));
+            zip.closeEntry();
+            for (int i = 0; i < FILE_COUNT; i++) {
+                final ZipEntry entry = new ZipEntry("scan.cli-1.0/jre/lib/dir" + (i % 7) + "/file" + i + ".txt");
+                entry.setTime(ENTRY_TIME);
+                zip.putNextEntry(entry);
+                zip.write(("contents of file " + i).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("scan.cli-1.0/lib/scan.cli-1.0.jar"));
+            zip.write(largeFile);
+            zip.closeEntry();
+        }
+
+        final File installDirectory = folder.newFolder();
+        final CLIDownloadService cliDownloadService = new CLIDownloadService(new IntBufferedLogger(), mockRestConnection(archive.toByteArray()));
+        cliDownloadService.customInstall(new CLILocation(installDirectory), new CIEnvironmentVariables(), new URL(ARCHIVE_URL), "1.0", "localhost");
+
+        final File cliHome = new File(new File(installDirectory, CLILocation.CLI_UNZIP_DIR), "scan.cli-1.0");
+        assertTrue(new File(cliHome, "empty").isDirectory());
+        assertArrayEquals(largeFile, FileUtils.readFileToByteArray(new File(cliHome, "lib/scan.cli-1.0.jar")));
+        for (int i = 0; i < FILE_COUNT; i++) {
+            final File file = new File(cliHome, "jre/lib/dir" + (i % 7) + "/file" + i + ".txt");
+            assertEquals("contents of file " + i, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+            assertEquals(ENTRY_TIME, file.lastModified());
+        }
+        assertEquals(FILE_COUNT + 1, FileUtils.listFiles(cliHome, null, true).size());
+    }
+
+    @Test
+    public void testFailedUnzipStopsItsThreads() throws Exception {
+        final File archive = folder.newFile("scan.cli.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < FILE_COUNT; i++) {
+                zip.putNextEntry(new ZipEntry("scan.cli-1.0/file" + i + ".txt"));
+                zip.write(("contents of file " + i).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        final File installDirectory = folder.newFolder();
+        // a directory where the first file goes, so writing that file fails
+        assertTrue(new File(installDirectory, "scan.cli-1.0/file0.txt").mkdirs());
+
+        final CLIDownloadService cliDownloadService = new CLIDownloadService(new IntBufferedLogger(), null);
+        try {
+            cliDownloadService.unzip(installDirectory, archive, new IntBufferedLogger(), 4);
+            fail("Expected the unzip to fail");
+        } catch (final IOException e) {
+        }
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("hub-cli-unzip-")) {
+                assertTrue(thread.isDaemon());
+                thread.join(10000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+
+    private RestConnection mockRestConnection(final byte[] archive) throws Exception {
+        final RestConnection restConnection = mock(RestConnection.class);
+        final HttpUrl httpUrl = HttpUrl.parse(ARCHIVE_URL);
+        final Request request = new Request.Builder().url(httpUrl).get().build();
+        when(restConnection.createHttpUrl(any(URL.class))).thenReturn(httpUrl);
+        when(restConnection.createGetRequest(any(HttpUrl.class), anyMapOf(String.class, String.class))).thenReturn(request);
+        when(restConnection.handleExecuteClientCall(any(Request.class))).thenReturn(new Response.Builder().request(request)
+                .protocol(Protocol.HTTP_1_1).code(200).body(ResponseBody.create(MediaType.parse("application/zip"), archive)).build());
+        return restConnection;
+    }
+
+}
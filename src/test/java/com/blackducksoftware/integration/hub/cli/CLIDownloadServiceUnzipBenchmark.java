@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cli;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+
+/**
+ * Measures a cold install of the CLI: unpacking an archive shaped like scan.cli.zip, with many small files and a few
+ * large jars, into an empty directory. The directory is deleted before every invocation. threadsPerProcessor of zero
+ * unpacks on the calling thread, as before the archive was unpacked in parallel. The result depends on the processors
+ * and the file system, so run it on the kind of machine the CLI is installed on, from the test classpath with
+ * org.openjdk.jmh.Main CLIDownloadServiceUnzipBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CLIDownloadServiceUnzipBenchmark {
+    @Param({ "0", "1", "2", "4" })
+    private int threadsPerProcessor;
+
+    @Param({ "3000" })
+    private int smallFileCount;
+
+    @Param({ "10" })
+    private int jarCount;
+
+    private final CLIDownloadService cliDownloadService = new CLIDownloadService(new IntBufferedLogger(), null);
+
+    private File workingDirectory;
+
+    private File archive;
+
+    private File installDirectory;
+
+    @Setup(Level.Trial)
+    public void createArchive() throws IOException {
+        workingDirectory = Files.createTempDirectory("hub-cli-benchmark").toFile();
+        archive = new File(workingDirectory, "scan.cli.zip");
+        installDirectory = new File(workingDirectory, "install");
+
+        final Random random = new Random(7);
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < smallFileCount; i++) {
+                zip.putNextEntry(new ZipEntry("scan.cli-1.0/jre/lib/dir" + (i % 40) + "/file" + i + ".class"));
+                zip.write(createContents(random, 512 + random.nextInt(8 * 1024)));
+                zip.closeEntry();
+            }
+            for (int i = 0; i < jarCount; i++) {
+                zip.putNextEntry(new ZipEntry("scan.cli-1.0/lib/library" + i + ".jar"));
+                zip.write(createContents(random, 4 * 1024 * 1024));
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private byte[] createContents(final Random random, final int length) {
+        // half random bytes and half zeros, so the entries inflate about as much as class files do
+        final byte[] contents = new byte[length];
+        final byte[] randomBytes = new byte[length / 2];
+        random.nextBytes(randomBytes);
+        System.arraycopy(randomBytes, 0, contents, 0, randomBytes.length);
+        return contents;
+    }
+
+    @Setup(Level.Invocation)
+    public void deleteInstall() throws IOException {
+        FileUtils.deleteDirectory(installDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteWorkingDirectory() throws IOException {
+        FileUtils.deleteDirectory(workingDirectory);
+    }
+
+    @Benchmark
+    public File unzip() throws IOException {
+        final int maxThreads = Math.max(1, Runtime.getRuntime().availableProcessors() * threadsPerProcessor);
+        cliDownloadService.unzip(installDirectory, archive, new IntBufferedLogger(), maxThreads);
+        return installDirectory;
+    }
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.blackducksoftware.integration.hub.HubSupportHelper;
+import com.blackducksoftware.integration.hub.capability.HubCapabilitiesEnum;
+import com.blackducksoftware.integration.hub.global.HubServerConfig;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.log.IntLogger;
+import com.blackducksoftware.integration.util.CIEnvironmentVariables;
+import com.google.gson.Gson;
+
+public class SimpleScanServiceTest {
+    private static final String TARGET_PREFIX = "/targets/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File installDirectory;
+
+    private HubServerConfig hubServerConfig;
+
+    private HubSupportHelper hubSupportHelper;
+
+    private RestConnection restConnection;
+
+    @Before
+    public void init() throws Exception {
+        installDirectory = folder.newFolder("install");
+        final File cliHome = new File(new File(installDirectory, CLILocation.CLI_UNZIP_DIR), "scan.cli-1.0");
+        FileUtils.touch(new File(cliHome, "jre/bin/java"));
+        FileUtils.touch(new File(cliHome, "jre/bin/java.exe"));
+        FileUtils.touch(new File(cliHome, "lib/scan.cli-1.0.jar"));
+
+        hubServerConfig = mock(HubServerConfig.class, RETURNS_DEEP_STUBS);
+        when(hubServerConfig.getHubUrl()).thenReturn(new URL("https://hub.example.com"));
+        when(hubServerConfig.getGlobalCredentials().getUsername()).thenReturn("user");
+        when(hubServerConfig.getGlobalCredentials().getDecryptedPassword()).thenReturn("password");
+        hubSupportHelper = mock(HubSupportHelper.class);
+        when(hubSupportHelper.hasCapability(any(HubCapabilitiesEnum.class))).thenReturn(true);
+        restConnection = mock(RestConnection.class);
+        when(restConnection.getGson()).thenReturn(new Gson());
+    }
+
+    private List<String> createTargets(final int targetCount) {
+        final List<String> targets = new ArrayList<>();
+        for (int i = 0; i < targetCount; i++) {
+            targets.add(TARGET_PREFIX + "module" + i);
+        }
+        return targets;
+    }
+
+    @Test
+    public void testTargetsAreSplitBetweenParallelScans() throws Exception {
+        final FakeScanService scanService = new FakeScanService(createTargets(5), 8);
+        scanService.setMaxParallelScans(3);
+        scanService.setupAndExecuteScan();
+
+        assertEquals(3, scanService.getScanLogDirectories().size());
+        for (int i = 0; i < 3; i++) {
+            final File scanLogDirectory = scanService.getScanLogDirectories().get(i);
+            assertEquals(new File(scanService.getLogDirectory(), "scan_" + (i + 1)), scanLogDirectory);
+        }
+        assertEquals(Arrays.asList(TARGET_PREFIX + "module0", TARGET_PREFIX + "module3"), scanService.getScannedTargets("scan_1"));
+        assertEquals(Arrays.asList(TARGET_PREFIX + "module1", TARGET_PREFIX + "module4"), scanService.getScannedTargets("scan_2"));
+        assertEquals(Arrays.asList(TARGET_PREFIX + "module2"), scanService.getScannedTargets("scan_3"));
+        assertEquals(5, scanService.getScanSummaryItems().size());
+    }
+
+    @Test
+    public void testParallelScansAreLimitedByTheMachine() throws Exception {
+        final FakeScanService scanService = new FakeScanService(createTargets(6), 2);
+        scanService.setMaxParallelScans(4);
+        scanService.setupAndExecuteScan();
+
+        assertEquals(2, scanService.getScanLogDirectories().size());
+        assertTrue(scanService.maxScansInFlight.get() <= 2);
+        assertEquals(6, scanService.getScanSummaryItems().size());
+    }
+
+    @Test
+    public void testSingleScanUsesTheLogDirectory() throws Exception {
+        final FakeScanService scanService = new FakeScanService(createTargets(3), 8);
+        scanService.setupAndExecuteScan();
+
+        assertEquals(Collections.singletonList(scanService.getLogDirectory()), scanService.getScanLogDirectories());
+        assertEquals(3, scanService.getScanSummaryItems().size());
+    }
+
+    @Test
+    public void testMissingStatusFilesReturnNoSummaries() throws Exception {
+        final FakeScanService scanService = new FakeScanService(createTargets(4), 8);
+        scanService.setMaxParallelScans(2);
+        scanService.setupAndExecuteScan();
+        FileUtils.deleteDirectory(new File(scanService.getScanLogDirectories().get(1), "status"));
+
+        assertTrue(scanService.getScanSummaryItems().isEmpty());
+    }
+
+    @Test
+    public void testLogDirectoriesAreResetForEachScan() throws Exception {
+        final FakeScanService scanService = new FakeScanService(createTargets(4), 8);
+        scanService.setMaxParallelScans(2);
+        scanService.setupAndExecuteScan();
+        scanService.setupAndExecuteScan();
+
+        assertEquals(2, scanService.getScanLogDirectories().size());
+        assertEquals(4, scanService.getScanSummaryItems().size());
+    }
+
+    /**
+     * Writes a status file for each target instead of running the cli.
+     */
+    private class FakeScanService extends SimpleScanService {
+        private final int maxConcurrentScans;
+
+        private final AtomicInteger scansInFlight = new AtomicInteger();
+
+        private final AtomicInteger maxScansInFlight = new AtomicInteger();
+
+        public FakeScanService(final List<String> scanTargetPaths, final int maxConcurrentScans) {
+            super(new IntBufferedLogger(), restConnection, hubServerConfig, hubSupportHelper, new CIEnvironmentVariables(), installDirectory, 256,
+                    false, "project", "1.0", scanTargetPaths, folder.getRoot());
+            this.maxConcurrentScans = maxConcurrentScans;
+        }
+
+        @Override
+        protected int getMaxConcurrentScans() {
+            return maxConcurrentScans;
+        }
+
+        @Override
+        protected void executeScan(final List<String> cmd, final File logDirectory, final IntLogger logger) throws IOException {
+            final int inFlight = scansInFlight.incrementAndGet();
+            synchronized (maxScansInFlight) {
+                maxScansInFlight.set(Math.max(maxScansInFlight.get(), inFlight));
+            }
+            try {
+                final StringBuilder targets = new StringBuilder();
+                for (final String argument : cmd) {
+                    if (argument.startsWith(TARGET_PREFIX)) {
+                        final String name = argument.substring(TARGET_PREFIX.length());
+                        FileUtils.write(new File(logDirectory, "status/" + name + ".json"), "{\"statusMessage\":\"" + name + "\"}",
+                                StandardCharsets.UTF_8);
+                        targets.append(argument).append('\n');
+                    }
+                }
+                FileUtils.write(new File(logDirectory, "targets.txt"), targets.toString(), StandardCharsets.UTF_8);
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                scansInFlight.decrementAndGet();
+            }
+        }
+
+        public List<String> getScannedTargets(final String scanDirectoryName) throws IOException {
+            return FileUtils.readLines(new File(new File(getLogDirectory(), scanDirectoryName), "targets.txt"), StandardCharsets.UTF_8);
+        }
+    }
+
+}
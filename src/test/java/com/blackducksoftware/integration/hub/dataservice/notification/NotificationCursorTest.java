@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Date;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+
+public class NotificationCursorTest {
+    private static final Date EARLIER = new Date(1491213600123L);
+
+    private static final Date LATER = new Date(1491213600456L);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEmptyCursorAcceptsEverything() throws Exception {
+        final NotificationCursor cursor = NotificationCursor.load(new File(folder.getRoot(), "missing.json"));
+        assertNull(cursor.getLastCreatedAt());
+        assertTrue(cursor.isNew(EARLIER, "a"));
+    }
+
+    @Test
+    public void testSameTimestampIsFilteredById() throws Exception {
+        final NotificationCursor cursor = new NotificationCursor();
+        cursor.advance(EARLIER, "a");
+        cursor.advance(LATER, "b");
+
+        assertFalse(cursor.isNew(EARLIER, "c"));
+        assertFalse(cursor.isNew(LATER, "b"));
+        assertTrue(cursor.isNew(LATER, "c"));
+        assertTrue(cursor.isNew(new Date(LATER.getTime() + 1), "b"));
+    }
+
+    @Test
+    public void testSavedCursorResumes() throws Exception {
+        final File cursorFile = new File(folder.getRoot(), "feeds/global.json");
+        final NotificationCursor cursor = new NotificationCursor();
+        cursor.advance(LATER, "b");
+        cursor.advance(LATER, "c");
+        cursor.save(cursorFile);
+
+        final NotificationCursor loaded = NotificationCursor.load(cursorFile);
+        assertEquals(LATER, loaded.getLastCreatedAt());
+        assertFalse(loaded.isNew(LATER, "b"));
+        assertFalse(loaded.isNew(LATER, "c"));
+        assertTrue(loaded.isNew(LATER, "d"));
+        assertEquals(1, folder.getRoot().listFiles().length);
+        assertEquals(1, cursorFile.getParentFile().listFiles().length);
+    }
+
+    @Test
+    public void testFailedSaveLeavesNoTemporaryFile() throws Exception {
+        // a directory that is not empty can not be replaced by the cursor file
+        final File cursorFile = folder.newFolder("global.json");
+        assertTrue(new File(cursorFile, "other.json").createNewFile());
+        final NotificationCursor cursor = new NotificationCursor();
+        cursor.advance(LATER, "b");
+        try {
+            cursor.save(cursorFile);
+            fail("Expected the save to fail");
+        } catch (final HubIntegrationException e) {
+        }
+        assertEquals(1, folder.getRoot().listFiles().length);
+    }
+
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.SortedSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersion;
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersionStatus;
+import com.blackducksoftware.integration.hub.api.item.MetaService;
+import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
+import com.blackducksoftware.integration.hub.api.notification.NotificationRequestService;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationContent;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationItem;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRequestService;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionItem;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionRequestService;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ProcessingSummary;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.service.HubRequestService;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+
+public class NotificationDataServiceTest {
+    private static final String PROJECT_VERSION_LINK = "http://hub/api/projects/1/versions/1";
+
+    private static final String FAILING_PROJECT_VERSION_LINK = "http://hub/api/projects/2/versions/1";
+
+    private static final String COMPONENT_VERSION_LINK = "http://hub/api/components/1/versions/1";
+
+    private static final String RULE_LINK = "http://hub/api/policy-rules/1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private NotificationRequestService notificationRequestService;
+
+    private ProjectVersionRequestService projectVersionService;
+
+    private MetaService metaService;
+
+    private ProjectVersionItem projectVersion;
+
+    private NotificationDataService dataService;
+
+    @Before
+    public void init() throws Exception {
+        notificationRequestService = mock(NotificationRequestService.class);
+        projectVersionService = mock(ProjectVersionRequestService.class);
+        final PolicyRequestService policyService = mock(PolicyRequestService.class);
+        final HubRequestService hubRequestService = mock(HubRequestService.class);
+        metaService = mock(MetaService.class);
+        projectVersion = mock(ProjectVersionItem.class);
+        when(projectVersion.getVersionName()).thenReturn("1.0");
+        when(projectVersionService.getItem(PROJECT_VERSION_LINK)).thenReturn(projectVersion);
+        final ComponentVersion componentVersion = mock(ComponentVersion.class);
+        when(componentVersion.getVersionName()).thenReturn("2.0");
+        when(hubRequestService.getItem(COMPONENT_VERSION_LINK, ComponentVersion.class)).thenReturn(componentVersion);
+        when(policyService.getItem(RULE_LINK)).thenReturn(mock(PolicyRule.class));
+
+        dataService = new NotificationDataService(new IntBufferedLogger(), null, notificationRequestService, projectVersionService, policyService, null,
+                hubRequestService, metaService);
+    }
+
+    @After
+    public void close() {
+        dataService.close();
+    }
+
+    private RuleViolationClearedNotificationItem createItem(final String projectVersionLink, final long createdAt) throws HubIntegrationException {
+        final ComponentVersionStatus componentVersionStatus = new ComponentVersionStatus();
+        componentVersionStatus.setComponentName("component");
+        componentVersionStatus.setComponentVersionLink(COMPONENT_VERSION_LINK);
+        componentVersionStatus.setPolicies(Arrays.asList(RULE_LINK));
+        final RuleViolationClearedNotificationContent content = new RuleViolationClearedNotificationContent();
+        content.setProjectName("project");
+        content.setProjectVersionLink(projectVersionLink);
+        content.setComponentVersionStatuses(Arrays.asList(componentVersionStatus));
+        final RuleViolationClearedNotificationItem item = new RuleViolationClearedNotificationItem();
+        item.content = content;
+        item.createdAt = new Date(createdAt);
+        when(metaService.getHref(item)).thenReturn("http://hub/api/notifications/" + createdAt);
+        return item;
+    }
+
+    private List<Long> getCreatedAtTimes(final SortedSet<NotificationContentItem> contentItems) {
+        final List<Long> times = new ArrayList<>();
+        for (final NotificationContentItem contentItem : contentItems) {
+            times.add(contentItem.getCreatedAt().getTime());
+        }
+        return times;
+    }
+
+    @Test
+    public void testFailedNotificationIsFetchedAgain() throws Exception {
+        when(projectVersionService.getItem(FAILING_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"))
+                .thenReturn(projectVersion);
+        final List<NotificationItem> items = new ArrayList<>();
+        items.add(createItem(PROJECT_VERSION_LINK, 100));
+        items.add(createItem(FAILING_PROJECT_VERSION_LINK, 200));
+        items.add(createItem(PROJECT_VERSION_LINK, 300));
+        when(notificationRequestService.getAllNotifications(any(Date.class), any(Date.class))).thenReturn(items);
+        final File cursorFile = new File(folder.getRoot(), "cursor.json");
+
+        // the notification after the failed one is held back so the cursor does not move past the failed one
+        assertEquals(Arrays.asList(100L), getCreatedAtTimes(dataService.getNewNotifications(cursorFile, new Date(0))));
+        assertEquals(new Date(100), NotificationCursor.load(cursorFile).getLastCreatedAt());
+
+        assertEquals(Arrays.asList(200L, 300L), getCreatedAtTimes(dataService.getNewNotifications(cursorFile, new Date(0))));
+        assertEquals(new Date(300), NotificationCursor.load(cursorFile).getLastCreatedAt());
+
+        assertTrue(dataService.getNewNotifications(cursorFile, new Date(0)).isEmpty());
+    }
+
+    @Test
+    public void testResultsAccountForFailedNotifications() throws Exception {
+        when(projectVersionService.getItem(FAILING_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"));
+        final List<NotificationItem> items = new ArrayList<>();
+        items.add(createItem(PROJECT_VERSION_LINK, 100));
+        items.add(createItem(FAILING_PROJECT_VERSION_LINK, 200));
+        items.add(new NotificationItem());
+        when(notificationRequestService.getAllNotifications(any(Date.class), any(Date.class))).thenReturn(items);
+
+        final NotificationResults results = dataService.getAllNotificationResults(new Date(0), new Date());
+        assertEquals(Arrays.asList(100L), getCreatedAtTimes(results.getNotificationContentItems()));
+        final ProcessingSummary<NotificationContentItem, NotificationItem> summary = results.getSummary();
+        assertEquals(3, summary.getItemCount());
+        assertEquals(1, summary.getSucceededCount());
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(1, summary.getSkippedCount());
+        assertSame(items.get(1), summary.getUnsuccessfulOutcomes().get(0).getItem());
+    }
+
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.notification.transformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersion;
+import com.blackducksoftware.integration.hub.api.component.version.ComponentVersionStatus;
+import com.blackducksoftware.integration.hub.api.notification.NotificationItem;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationContent;
+import com.blackducksoftware.integration.hub.api.notification.RuleViolationClearedNotificationItem;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRequestService;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionItem;
+import com.blackducksoftware.integration.hub.api.project.version.ProjectVersionRequestService;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ItemOutcome;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ParallelResourceProcessor;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ProcessingSummary;
+import com.blackducksoftware.integration.hub.dataservice.parallel.ResultHandler;
+import com.blackducksoftware.integration.hub.dataservice.parallel.RetryPolicy;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.exception.HubItemTransformException;
+import com.blackducksoftware.integration.hub.service.HubRequestService;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+
+public class NotificationBatchTransformerTest {
+    private static final String PROJECT_VERSION_LINK = "http://hub/api/projects/1/versions/1";
+
+    private static final String OTHER_PROJECT_VERSION_LINK = "http://hub/api/projects/2/versions/1";
+
+    private static final String COMPONENT_VERSION_LINK = "http://hub/api/components/1/versions/1";
+
+    private static final String RULE_LINK = "http://hub/api/policy-rules/1";
+
+    private ProjectVersionRequestService projectVersionService;
+
+    private PolicyRequestService policyService;
+
+    private HubRequestService hubRequestService;
+
+    private ProjectVersionItem projectVersion;
+
+    private NotificationBatchTransformer batchTransformer;
+
+    @Before
+    public void init() throws Exception {
+        projectVersionService = mock(ProjectVersionRequestService.class);
+        policyService = mock(PolicyRequestService.class);
+        hubRequestService = mock(HubRequestService.class);
+        projectVersion = mock(ProjectVersionItem.class);
+        when(projectVersion.getVersionName()).thenReturn("1.0");
+        when(projectVersionService.getItem(PROJECT_VERSION_LINK)).thenReturn(projectVersion);
+        final ComponentVersion componentVersion = mock(ComponentVersion.class);
+        when(componentVersion.getVersionName()).thenReturn("2.0");
+        when(hubRequestService.getItem(COMPONENT_VERSION_LINK, ComponentVersion.class)).thenReturn(componentVersion);
+        when(policyService.getItem(RULE_LINK)).thenReturn(mock(PolicyRule.class));
+
+        batchTransformer = new NotificationBatchTransformer(new IntBufferedLogger());
+        batchTransformer.addTransform(RuleViolationClearedNotificationItem.class,
+                new PolicyViolationClearedTransformer(null, projectVersionService, policyService, null, hubRequestService, null, null));
+    }
+
+    private RuleViolationClearedNotificationItem createItem(final String projectVersionLink, final long createdAt) {
+        final ComponentVersionStatus componentVersionStatus = new ComponentVersionStatus();
+        componentVersionStatus.setComponentName("component");
+        componentVersionStatus.setComponentVersionLink(COMPONENT_VERSION_LINK);
+        componentVersionStatus.setPolicies(Arrays.asList(RULE_LINK));
+        final RuleViolationClearedNotificationContent content = new RuleViolationClearedNotificationContent();
+        content.setProjectName("project");
+        content.setProjectVersionLink(projectVersionLink);
+        content.setComponentVersionStatuses(Arrays.asList(componentVersionStatus));
+        final RuleViolationClearedNotificationItem item = new RuleViolationClearedNotificationItem();
+        item.content = content;
+        item.createdAt = new Date(createdAt);
+        return item;
+    }
+
+    @Test
+    public void testSharedLookupsAreRequestedOncePerBatch() throws Exception {
+        final List<NotificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(createItem(PROJECT_VERSION_LINK, i));
+        }
+        final List<NotificationBatch> batches = batchTransformer.createBatches(items, 50);
+        assertEquals(1, batches.size());
+
+        final List<NotificationContentItem> contentItems = batchTransformer.transform(batches.get(0));
+        assertEquals(5, contentItems.size());
+        verify(projectVersionService, times(1)).getItem(PROJECT_VERSION_LINK);
+        verify(hubRequestService, times(1)).getItem(COMPONENT_VERSION_LINK, ComponentVersion.class);
+        verify(policyService, times(1)).getItem(RULE_LINK);
+    }
+
+    @Test
+    public void testOverriddenLookupsAreCalledOnACacheMiss() throws Exception {
+        final List<String> requestedLinks = new ArrayList<>();
+        final NotificationBatchTransformer overridingBatchTransformer = new NotificationBatchTransformer(new IntBufferedLogger());
+        overridingBatchTransformer.addTransform(RuleViolationClearedNotificationItem.class,
+                new PolicyViolationClearedTransformer(null, projectVersionService, policyService, null, hubRequestService, null, null) {
+                    @Override
+                    protected String getComponentVersionName(final String componentVersionLink) {
+                        requestedLinks.add(componentVersionLink);
+                        return "overridden";
+                    }
+                });
+        final NotificationBatch batch = new NotificationBatch(PROJECT_VERSION_LINK);
+        batch.add(createItem(PROJECT_VERSION_LINK, 0));
+        batch.add(createItem(PROJECT_VERSION_LINK, 1));
+
+        final List<NotificationContentItem> contentItems = overridingBatchTransformer.transform(batch);
+        assertEquals(2, contentItems.size());
+        assertEquals("overridden", contentItems.get(0).getComponentVersion());
+        assertEquals(Arrays.asList(COMPONENT_VERSION_LINK), requestedLinks);
+        verify(hubRequestService, times(0)).getItem(COMPONENT_VERSION_LINK, ComponentVersion.class);
+    }
+
+    @Test
+    public void testFailedNotificationsFailTheBatchAndAreRetriedAlone() throws Exception {
+        when(projectVersionService.getItem(OTHER_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"))
+                .thenReturn(projectVersion);
+        final NotificationBatch batch = new NotificationBatch(OTHER_PROJECT_VERSION_LINK);
+        batch.add(createItem(OTHER_PROJECT_VERSION_LINK, 0));
+        batch.add(createItem(OTHER_PROJECT_VERSION_LINK, 1));
+
+        try {
+            batchTransformer.transform(batch);
+            fail("Expected the batch to fail");
+        } catch (final HubItemTransformException e) {
+        }
+        assertFalse(batch.isTransformed(0));
+        assertTrue(batch.isTransformed(1));
+        assertEquals(1, batch.getFailedItems().size());
+        assertEquals(1, batch.getResults().size());
+
+        assertEquals(2, batchTransformer.transform(batch).size());
+        assertTrue(batch.getFailedItems().isEmpty());
+        verify(hubRequestService, times(2)).getItem(COMPONENT_VERSION_LINK, ComponentVersion.class);
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedByTheProcessor() throws Exception {
+        when(projectVersionService.getItem(OTHER_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"))
+                .thenReturn(projectVersion);
+        final ProcessingSummary<NotificationContentItem, NotificationBatch> summary = processBatch(new RetryPolicy(1, 1, 1));
+        assertEquals(0, summary.getFailedCount());
+        assertEquals(1, summary.getRetryCount());
+    }
+
+    @Test
+    public void testFailedBatchIsReportedByTheProcessor() throws Exception {
+        when(projectVersionService.getItem(OTHER_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"))
+                .thenReturn(projectVersion);
+        final ProcessingSummary<NotificationContentItem, NotificationBatch> summary = processBatch(RetryPolicy.NONE);
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(1, summary.getUnsuccessfulOutcomes().get(0).getItem().getFailedItems().size());
+    }
+
+    @Test
+    public void testNotificationsAreSummarizedOneByOne() throws Exception {
+        when(projectVersionService.getItem(OTHER_PROJECT_VERSION_LINK)).thenThrow(new HubIntegrationException("unavailable"))
+                .thenReturn(projectVersion);
+        final List<NotificationItem> items = new ArrayList<>();
+        items.add(createItem(OTHER_PROJECT_VERSION_LINK, 0));
+        items.add(new NotificationItem());
+        items.add(createItem(OTHER_PROJECT_VERSION_LINK, 1));
+        final ProcessingSummary.Builder<NotificationContentItem, NotificationItem> summaryBuilder = new ProcessingSummary.Builder<>();
+        final List<NotificationBatch> batches = batchTransformer.createBatches(items, 50);
+        assertEquals(1, batches.size());
+        try {
+            batchTransformer.transform(batches.get(0));
+            fail("Expected the batch to fail");
+        } catch (final HubItemTransformException e) {
+        }
+
+        final ProcessingSummary<NotificationContentItem, NotificationItem> summary = batchTransformer.summarize(items, batches, summaryBuilder);
+        assertEquals(3, summary.getItemCount());
+        assertEquals(1, summary.getSucceededCount());
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(1, summary.getSkippedCount());
+        final ItemOutcome<NotificationContentItem, NotificationItem> failed = summary.getUnsuccessfulOutcomes().get(0);
+        assertSame(items.get(0), failed.getItem());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getFailure() instanceof HubItemTransformException);
+        final ItemOutcome<NotificationContentItem, NotificationItem> skipped = summary.getUnsuccessfulOutcomes().get(1);
+        assertSame(items.get(1), skipped.getItem());
+        assertEquals(ItemOutcome.Status.SKIPPED, skipped.getStatus());
+    }
+
+    private ProcessingSummary<NotificationContentItem, NotificationBatch> processBatch(final RetryPolicy retryPolicy) {
+        final List<NotificationItem> items = new ArrayList<>();
+        items.add(createItem(OTHER_PROJECT_VERSION_LINK, 0));
+        items.add(createItem(OTHER_PROJECT_VERSION_LINK, 1));
+        final List<NotificationContentItem> contentItems = new ArrayList<>();
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final ParallelResourceProcessor<NotificationContentItem, NotificationBatch> processor = new ParallelResourceProcessor<>(
+                    new IntBufferedLogger(), executorService);
+            processor.addTransform(NotificationBatch.class, batchTransformer);
+            processor.setRetryPolicy(retryPolicy);
+            final ProcessingSummary<NotificationContentItem, NotificationBatch> summary = processor.process(batchTransformer.createBatches(items, 50), 1,
+                    new ResultHandler<NotificationContentItem>() {
+                        @Override
+                        public void handleResults(final List<NotificationContentItem> results) {
+                            contentItems.addAll(results);
+                        }
+                    });
+            assertEquals(summary.hasFailures() ? 0 : 2, contentItems.size());
+            return summary;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchesAreSplitByProjectVersionAndSize() {
+        final List<NotificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(createItem(PROJECT_VERSION_LINK, i));
+        }
+        items.add(createItem(OTHER_PROJECT_VERSION_LINK, 5));
+        items.add(new NotificationItem());
+
+        final List<NotificationBatch> batches = batchTransformer.createBatches(items, 2);
+        assertEquals(4, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        assertEquals(1, batches.get(2).size());
+        assertEquals(OTHER_PROJECT_VERSION_LINK, batches.get(3).getProjectVersionLink());
+    }
+
+}
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.dataservice.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.dataservice.ItemTransform;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.exception.HubItemTransformException;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+
+public class ParallelResourceProcessorTest {
+    private static final int ITEM_COUNT = 200;
+
+    private static final int MAX_PENDING = 8;
+
+    @Test
+    public void testPipelinedProcessBoundsPendingItems() {
+        final AtomicInteger produced = new AtomicInteger();
+        final AtomicInteger transformed = new AtomicInteger();
+        final AtomicInteger maxAhead = new AtomicInteger();
+        final Iterable<Integer> items = new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    @Override
+                    public boolean hasNext() {
+                        return produced.get() < ITEM_COUNT;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        final int ahead = produced.get() - transformed.get();
+                        if (ahead > maxAhead.get()) {
+                            maxAhead.set(ahead);
+                        }
+                        return produced.getAndIncrement();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+
+        final ParallelResourceProcessor<String, Integer> processor = new ParallelResourceProcessor<>(new IntBufferedLogger());
+        processor.addTransform(Integer.class, new ItemTransform<List<String>, Integer>() {
+            @Override
+            public List<String> transform(final Integer item) throws HubIntegrationException {
+                try {
+                    Thread.sleep(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                transformed.incrementAndGet();
+                return Arrays.asList(String.valueOf(item));
+            }
+        });
+
+        final List<String> results;
+        try {
+            results = processor.process(items, MAX_PENDING);
+        } finally {
+            processor.close();
+        }
+        assertEquals(ITEM_COUNT, results.size());
+        assertTrue("The iterator ran " + maxAhead.get() + " items ahead", maxAhead.get() < MAX_PENDING);
+
+        final List<Integer> sorted = new ArrayList<>();
+        for (final String result : results) {
+            sorted.add(Integer.valueOf(result));
+        }
+        Collections.sort(sorted);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), sorted.get(i));
+        }
+    }
+
+    @Test
+    public void testEveryExecutionStrategyProcessesAllItems() {
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(i);
+        }
+        for (final ExecutionStrategy executionStrategy : ExecutionStrategy.values()) {
+            final ParallelResourceProcessor<String, Integer> processor = new ParallelResourceProcessor<>(new IntBufferedLogger(), executionStrategy);
+            processor.addTransform(Integer.class, new ItemTransform<List<String>, Integer>() {
+                @Override
+                public List<String> transform(final Integer item) {
+                    return Arrays.asList(Thread.currentThread().isDaemon() ? "daemon" : "user");
+                }
+            });
+            try {
+                final List<String> results = processor.process(items);
+                assertEquals(executionStrategy.name(), ITEM_COUNT, results.size());
+                assertEquals(executionStrategy.name(), Collections.nCopies(ITEM_COUNT, "daemon"), results);
+            } finally {
+                processor.close();
+            }
+        }
+    }
+
+    @Test
+    public void testProcessInOrderEmitsInInputOrder() {
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(i);
+        }
+        final ParallelResourceProcessor<String, Integer> processor = new ParallelResourceProcessor<>(new IntBufferedLogger());
+        processor.addTransform(Integer.class, new ItemTransform<List<String>, Integer>() {
+            @Override
+            public List<String> transform(final Integer item) throws HubIntegrationException {
+                if (item % 7 == 3) {
+                    throw new HubIntegrationException("failed " + item);
+                }
+                try {
+                    // the early items finish last, so they have to be reordered
+                    Thread.sleep(item % 5 == 0 ? 5 : 0);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Arrays.asList(String.valueOf(item));
+            }
+        });
+
+        final List<Integer> emitted = new ArrayList<>();
+        try {
+            processor.processInOrder(items, MAX_PENDING, new ResultHandler<String>() {
+                @Override
+                public void handleResults(final List<String> results) {
+                    for (final String result : results) {
+                        emitted.add(Integer.valueOf(result));
+                    }
+                }
+            });
+        } finally {
+            processor.close();
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (final Integer item : items) {
+            if (item % 7 != 3) {
+                expected.add(item);
+            }
+        }
+        assertEquals(expected, emitted);
+    }
+
+    @Test
+    public void testStreamingHandlesResultsBeforeIterationEnds() {
+        final AtomicInteger produced = new AtomicInteger();
+        final AtomicInteger handledBeforeLastItem = new AtomicInteger(-1);
+        final List<String> handled = new ArrayList<>();
+        final Iterable<Integer> items = new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    @Override
+                    public boolean hasNext() {
+                        return produced.get() < ITEM_COUNT;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (produced.get() == ITEM_COUNT - 1) {
+                            handledBeforeLastItem.set(handled.size());
+                        }
+                        return produced.getAndIncrement();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+
+        final ParallelResourceProcessor<String, Integer> processor = new ParallelResourceProcessor<>(new IntBufferedLogger());
+        processor.addTransform(Integer.class, new ItemTransform<List<String>, Integer>() {
+            @Override
+            public List<String> transform(final Integer item) {
+                return Arrays.asList(String.valueOf(item));
+            }
+        });
+        try {
+            processor.process(items, MAX_PENDING, new ResultHandler<String>() {
+                @Override
+                public void handleResults(final List<String> results) {
+                    handled.addAll(results);
+                }
+            });
+        } finally {
+            processor.close();
+        }
+        assertEquals(ITEM_COUNT, handled.size());
+        assertTrue("Only " + handledBeforeLastItem.get() + " results were handled before the last item",
+                handledBeforeLastItem.get() > ITEM_COUNT - 1 - MAX_PENDING);
+    }
+
+    @Test
+    public void testSummaryAccountsForRetriesFailuresAndSkippedItems() {
+        final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final List<Object> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(i);
+            attempts.put(i, new AtomicInteger());
+        }
+        items.add("no transform");
+
+        final ParallelResourceProcessor<String, Object> processor = new ParallelResourceProcessor<>(new IntBufferedLogger());
+        processor.setRetryPolicy(new RetryPolicy(2, 1, 4));
+        processor.addTransform(Integer.class, new ItemTransform<List<String>, Object>() {
+            @Override
+            public List<String> transform(final Object item) throws HubIntegrationException {
+                final int attempt = attempts.get(item).incrementAndGet();
+                final int value = (Integer) item;
+                if (value % 10 == 1 && attempt == 1) {
+                    throw new HubItemTransformException("transient " + item);
+                }
+                if (value % 10 == 2) {
+                    throw new HubItemTransformException("always " + item);
+                }
+                if (value % 10 == 3) {
+                    throw new HubIntegrationException("not retried " + item);
+                }
+                return Arrays.asList(String.valueOf(item));
+            }
+        });
+
+        final List<String> handled = new ArrayList<>();
+        final ProcessingSummary<String, Object> summary;
+        try {
+            summary = processor.process(items, MAX_PENDING, new ResultHandler<String>() {
+                @Override
+                public void handleResults(final List<String> results) {
+                    handled.addAll(results);
+                }
+            });
+        } finally {
+            processor.close();
+        }
+
+        final int perGroup = ITEM_COUNT / 10;
+        assertEquals(ITEM_COUNT + 1, summary.getItemCount());
+        assertEquals(ITEM_COUNT - 2 * perGroup, summary.getSucceededCount());
+        assertEquals(handled.size(), summary.getSucceededCount());
+        assertEquals(2 * perGroup, summary.getFailedCount());
+        assertEquals(1, summary.getSkippedCount());
+        assertEquals(perGroup + 2 * perGroup, summary.getRetryCount());
+        assertTrue(summary.hasFailures());
+        assertTrue(summary.getMedianLatencyMillis() <= summary.getP99LatencyMillis());
+        assertTrue(summary.getThroughputPerSecond() > 0);
+
+        assertEquals(2 * perGroup + 1, summary.getUnsuccessfulOutcomes().size());
+        for (final ItemOutcome<String, Object> outcome : summary.getUnsuccessfulOutcomes()) {
+            if (outcome.getStatus() == ItemOutcome.Status.SKIPPED) {
+                assertEquals("no transform", outcome.getItem());
+                continue;
+            }
+            final int value = (Integer) outcome.getItem();
+            assertEquals(value % 10 == 2 ? 3 : 1, outcome.getAttempts());
+            assertTrue(outcome.getResults().isEmpty());
+        }
+    }
+
+    @Test
+    public void testRetryPolicyBackoffDoublesUpToTheMaximum() {
+        final RetryPolicy retryPolicy = new RetryPolicy(5, 100, 350);
+        assertEquals(100, retryPolicy.getBackoffMillis(1));
+        assertEquals(200, retryPolicy.getBackoffMillis(2));
+        assertEquals(350, retryPolicy.getBackoffMillis(3));
+        assertEquals(350, retryPolicy.getBackoffMillis(30));
+        assertTrue(retryPolicy.isRetryable(new HubItemTransformException("transient")));
+        assertFalse(retryPolicy.isRetryable(new HubIntegrationException("not transient")));
+    }
+
+    @Test
+    public void testCloseOnlyShutsDownOwnedExecutor() {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final ParallelResourceProcessor<String, Integer> processor = new ParallelResourceProcessor<>(new IntBufferedLogger(), executorService);
+            processor.close();
+            assertFalse(executorService.isShutdown());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
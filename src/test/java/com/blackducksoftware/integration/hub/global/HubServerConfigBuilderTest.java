@@ -29,6 +29,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -308,4 +309,37 @@ public class HubServerConfigBuilderTest {
         assertEquals(443, config.getHubUrl().getPort());
         assertEquals("/blackducksoftware", config.getHubUrl().getPath());
     }
+
+    @Test
+    public void testConnectionProfileFromProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty("hub.url", VALID_URL);
+        properties.setProperty("hub.username", VALID_USERNAME_STRING);
+        properties.setProperty("hub.password", VALID_PASSWORD_STRING);
+        properties.setProperty("hub.connection.max.requests.per.host", "32");
+        properties.setProperty("hub.connection.http2.enabled", "false");
+        properties.setProperty("hub.connection.warm.up", "not a number");
+        final HubServerConfigBuilder builder = new HubServerConfigBuilder();
+        builder.setFromProperties(properties);
+        final HubConnectionProfile connectionProfile = builder.buildObject().getConnectionProfile();
+
+        assertEquals(32, connectionProfile.getMaxRequestsPerHost());
+        assertFalse(connectionProfile.isHttp2Enabled());
+        assertEquals(HubConnectionProfile.DEFAULT_WARM_UP_CONNECTIONS, connectionProfile.getWarmUpConnections());
+        assertEquals(HubConnectionProfile.DEFAULT_MAX_IDLE_CONNECTIONS, connectionProfile.getMaxIdleConnections());
+    }
+
+    @Test
+    public void testValidateConnectionProfile() {
+        expectedMessages.add("The keep alive must be greater than zero.");
+        expectedMessages.add("The warm up connections can not be negative.");
+        final HubServerConfigValidator validator = new HubServerConfigValidator();
+        validator.setKeepAliveSeconds(0);
+        validator.setWarmUpConnections(-1);
+        final ValidationResults result = new ValidationResults();
+        validator.validateConnectionProfile(result);
+        assertFalse(result.isSuccess());
+
+        actualMessages = getMessages(result);
+    }
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.item.MetaService;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.PolicyViolationContentItem;
+import com.blackducksoftware.integration.hub.notification.processor.event.PolicyEvent;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class ConcurrentMapProcessorCacheTest {
+    private static final int THREAD_COUNT = 8;
+
+    private static final int EVENTS_PER_THREAD = 500;
+
+    private final EventTestUtil testUtil = new EventTestUtil();
+
+    private MetaService metaService;
+
+    @Before
+    public void init() throws Exception {
+        final RestConnection restConnection = new MockRestConnection();
+        final HubServicesFactory factory = new HubServicesFactory(restConnection);
+        final IntLogger logger = new IntBufferedLogger();
+        metaService = factory.createMetaService(logger);
+    }
+
+    @Test
+    public void testConcurrentAddMergesDataSets() throws Exception {
+        final PolicyViolationContentItem item = testUtil.createPolicyViolation(new Date(), EventTestUtil.PROJECT_NAME, EventTestUtil.PROJECT_VERSION_NAME,
+                EventTestUtil.COMPONENT, EventTestUtil.VERSION);
+        final PolicyRule policyRule = item.getPolicyRuleList().get(0);
+        final String policyRuleUrl = metaService.getHref(policyRule);
+        final ConcurrentMapProcessorCache<PolicyEvent> cache = new ConcurrentMapProcessorCache<>();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                final int threadIndex = thread;
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int index = 0; index < EVENTS_PER_THREAD; index++) {
+                            final PolicyEvent event = new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, policyRule, policyRuleUrl);
+                            event.getDataSet().add(new ItemEntry("thread" + threadIndex, String.valueOf(index)));
+                            cache.addEvent(event);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, cache.getEvents().size());
+        final PolicyEvent storedEvent = cache.getEvents().iterator().next();
+        // the rule, component and version entries plus every entry added by the threads
+        assertEquals(3 + THREAD_COUNT * EVENTS_PER_THREAD, storedEvent.getDataSet().size());
+    }
+
+    @Test
+    public void testEventRemove() throws Exception {
+        final PolicyViolationContentItem item = testUtil.createPolicyViolation(new Date(), EventTestUtil.PROJECT_NAME, EventTestUtil.PROJECT_VERSION_NAME,
+                EventTestUtil.COMPONENT, EventTestUtil.VERSION);
+        final PolicyRule policyRule = item.getPolicyRuleList().get(0);
+        final PolicyEvent event = new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, policyRule, metaService.getHref(policyRule));
+        final ConcurrentMapProcessorCache<PolicyEvent> cache = new ConcurrentMapProcessorCache<>();
+
+        cache.addEvent(event);
+        cache.removeEvent(event);
+        assertFalse(cache.hasEvent(event.getKey()));
+        assertEquals(0, cache.getEvents().size());
+    }
+
+}
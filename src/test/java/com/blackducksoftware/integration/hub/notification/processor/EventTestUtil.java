@@ -156,7 +156,8 @@ public class EventTestUtil {
     }
 
     public PolicyRule createPolicyRule(String name, String description, String createdBy, String updatedBy, String href) {
-        final PolicyRule rule = Mockito.mock(PolicyRule.class);
+        // serializable, so events holding the rule can be spilled to disk
+        final PolicyRule rule = Mockito.mock(PolicyRule.class, Mockito.withSettings().serializable());
         Mockito.when(rule.getName()).thenReturn(name);
         Mockito.when(rule.getDescription()).thenReturn(description);
         Mockito.when(rule.getEnabled()).thenReturn(true);
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ItemEntryTest {
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final ItemEntry entry = new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT);
+        final ItemEntry sameEntry = new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT);
+        assertEquals(entry, sameEntry);
+        assertEquals(entry.hashCode(), sameEntry.hashCode());
+        assertNotEquals(entry, new ItemEntry(ItemTypeEnum.RULE.name(), EventTestUtil.COMPONENT));
+        assertNotEquals(entry, new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT2));
+        assertEquals(new ItemEntry(null, null), new ItemEntry(null, null));
+        assertFalse(entry.equals(null));
+    }
+
+    @Test
+    public void testSetMergeKeepsOneEntryPerValue() {
+        final Set<ItemEntry> dataSet = new LinkedHashSet<>();
+        dataSet.add(new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT));
+        dataSet.add(new ItemEntry("", EventTestUtil.VERSION));
+        final Set<ItemEntry> otherDataSet = new LinkedHashSet<>();
+        otherDataSet.add(new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT));
+        otherDataSet.add(new ItemEntry("", EventTestUtil.VERSION2));
+        dataSet.addAll(otherDataSet);
+        assertEquals(3, dataSet.size());
+        assertTrue(dataSet.contains(new ItemEntry("", EventTestUtil.VERSION2)));
+    }
+
+    @Test
+    public void testToStringLeavesOutTheCachedHash() {
+        final String rendered = new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT).toString();
+        assertTrue(rendered.contains(EventTestUtil.COMPONENT));
+        assertFalse(rendered.contains("hashCode"));
+    }
+
+}
@@ -23,11 +23,14 @@ package com.blackducksoftware.integration.hub.notification.processor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -140,7 +143,7 @@ public class MapProcessorCacheTest {
         cache.addEvent(event);
         cache.addEvent(removeEvent);
         cache.addEvent(event);
-        cache.removeEvent(removeEvent.getEventKey());
+        cache.removeEvent(removeEvent.getKey());
         assertEquals(eventList.size() - 1, cache.getEvents().size());
         boolean found = false;
         for (final PolicyEvent cachedEvent : cache.getEvents()) {
@@ -171,11 +174,11 @@ public class MapProcessorCacheTest {
 
         cache.addEvent(event);
 
-        assertTrue(cache.hasEvent(event.getEventKey()));
-        assertFalse(cache.hasEvent(event2.getEventKey()));
+        assertTrue(cache.hasEvent(event.getKey()));
+        assertFalse(cache.hasEvent(event2.getKey()));
         cache.addEvent(event2);
-        assertTrue(cache.hasEvent(event.getEventKey()));
-        assertTrue(cache.hasEvent(event2.getEventKey()));
+        assertTrue(cache.hasEvent(event.getKey()));
+        assertTrue(cache.hasEvent(event2.getKey()));
     }
 
     @Test
@@ -212,4 +215,46 @@ public class MapProcessorCacheTest {
         }
         assertTrue(foundEvent1 && foundEvent2);
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testKeysOfEarlierReleasesMatchNothing() throws Exception {
+        final PolicyViolationContentItem item = testUtil.createPolicyViolation(new Date(), EventTestUtil.PROJECT_NAME, EventTestUtil.PROJECT_VERSION_NAME,
+                EventTestUtil.COMPONENT,
+                EventTestUtil.VERSION);
+        final PolicyRule policyRule = item.getPolicyRuleList().get(0);
+        final PolicyEvent event = new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, policyRule,
+                metaService.getHref(policyRule));
+        final MapProcessorCache<PolicyEvent> cache = new MapProcessorCache<>();
+        cache.addEvent(event);
+
+        // the format of getEventKey() before events were keyed by EventKey, documented as not migrated
+        final String oldKey = "t=p|hpv=1|hc=2|hcv=3|hr=4";
+        assertFalse(cache.hasEvent(oldKey));
+        assertNull(cache.getEvent(oldKey));
+        cache.removeEvent(oldKey);
+        assertTrue(cache.hasEvent(event.getEventKey()));
+        assertEquals(event, cache.getEvent(event.getEventKey()));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testEventMapIsKeyedByTheRenderedKeys() throws Exception {
+        final PolicyViolationContentItem item = testUtil.createPolicyViolation(new Date(), EventTestUtil.PROJECT_NAME, EventTestUtil.PROJECT_VERSION_NAME,
+                EventTestUtil.COMPONENT,
+                EventTestUtil.VERSION);
+        final PolicyRule policyRule = item.getPolicyRuleList().get(0);
+        final PolicyEvent event = new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, policyRule,
+                metaService.getHref(policyRule));
+        final MapProcessorCache<PolicyEvent> cache = new MapProcessorCache<>();
+        cache.addEvent(event);
+
+        final Map<String, PolicyEvent> eventMap = cache.getEventMap();
+        assertEquals(1, eventMap.size());
+        assertSame(event, eventMap.get(event.getEventKey()));
+        assertEquals(event.getEventKey(), eventMap.keySet().iterator().next());
+        assertNull(eventMap.get("t=p|hpv=1|hc=2|hcv=3|hr=4"));
+        assertSame(event, eventMap.remove(event.getEventKey()));
+        assertFalse(cache.hasEvent(event.getKey()));
+    }
 }
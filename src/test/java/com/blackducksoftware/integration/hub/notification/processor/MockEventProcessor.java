@@ -84,7 +84,7 @@ public class MockEventProcessor extends NotificationSubProcessor<NotificationEve
         for (final PolicyRule rule : policyOverrideContentItem.getPolicyRuleList()) {
             final PolicyOverrideEvent event = new PolicyOverrideEvent(NotificationCategoryEnum.POLICY_VIOLATION,
                     policyOverrideContentItem, rule, getMetaService().getHref(rule));
-            if (getCache().hasEvent(event.getEventKey())) {
+            if (getCache().hasEvent(event.getKey())) {
                 getCache().removeEvent(event);
             } else {
                 event.setCategoryType(NotificationCategoryEnum.POLICY_VIOLATION_OVERRIDE);
@@ -97,7 +97,7 @@ public class MockEventProcessor extends NotificationSubProcessor<NotificationEve
         for (final PolicyRule rule : policyViolationCleared.getPolicyRuleList()) {
             final PolicyEvent event = new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, policyViolationCleared, rule,
                     getMetaService().getHref(rule));
-            if (getCache().hasEvent(event.getEventKey())) {
+            if (getCache().hasEvent(event.getKey())) {
                 getCache().removeEvent(event);
             } else {
                 event.setCategoryType(NotificationCategoryEnum.POLICY_VIOLATION_CLEARED);
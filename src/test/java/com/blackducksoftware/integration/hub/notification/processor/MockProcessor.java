@@ -37,7 +37,11 @@ import com.blackducksoftware.integration.hub.service.HubRequestService;
 public class MockProcessor extends NotificationProcessor<Collection<NotificationEvent<?>>> {
 
     public MockProcessor(HubRequestService hubRequestService, VulnerabilityRequestService vulnerabilityRequestService, MetaService metaService) {
-        final MapProcessorCache<NotificationEvent<? extends NotificationContentItem>> cache = new MapProcessorCache<>();
+        this(hubRequestService, vulnerabilityRequestService, metaService, new MapProcessorCache<NotificationEvent<? extends NotificationContentItem>>());
+    }
+
+    public MockProcessor(HubRequestService hubRequestService, VulnerabilityRequestService vulnerabilityRequestService, MetaService metaService,
+            MapProcessorCache<NotificationEvent<? extends NotificationContentItem>> cache) {
         getCacheList().add(cache);
         getProcessorMap().put(PolicyViolationContentItem.class, new MockEventProcessor(cache, metaService));
         getProcessorMap().put(PolicyViolationClearedContentItem.class, new MockEventProcessor(cache, metaService));
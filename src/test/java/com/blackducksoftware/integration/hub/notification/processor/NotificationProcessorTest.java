@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -436,4 +437,44 @@ public class NotificationProcessorTest {
             assertTrue(dataSet.contains(versionKey));
         }
     }
+
+    @Test
+    public void testProcessInParallelMatchesSequentialProcessing() throws Exception {
+        final SortedSet<NotificationContentItem> notifications = new TreeSet<>();
+        final DateTime dateTime = new DateTime();
+        final int projectCount = 40;
+        for (int index = 0; index < projectCount; index++) {
+            final String projectName = EventTestUtil.PROJECT_NAME + index;
+            notifications.add(testUtil.createPolicyViolation(dateTime.plusSeconds(index).toDate(), projectName,
+                    EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT, EventTestUtil.VERSION));
+            if (index % 2 == 0) {
+                notifications.add(testUtil.createPolicyOverride(dateTime.plusSeconds(projectCount + index).toDate(), projectName,
+                        EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT, EventTestUtil.VERSION));
+            }
+            notifications.add(testUtil.createPolicyViolation(dateTime.plusSeconds(2 * projectCount + index).toDate(), projectName,
+                    EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT2, EventTestUtil.VERSION2));
+        }
+
+        final Collection<NotificationEvent<?>> sequentialEvents = createMockedNotificationProcessor().process(notifications);
+        final MockProcessor parallelProcessor = new MockProcessor(Mockito.mock(HubRequestService.class),
+                Mockito.mock(VulnerabilityRequestService.class), metaService,
+                new ConcurrentMapProcessorCache<NotificationEvent<? extends NotificationContentItem>>());
+        final Collection<NotificationEvent<?>> parallelEvents = parallelProcessor.processInParallel(notifications);
+
+        assertEquals(3 * projectCount, sequentialEvents.size());
+        assertEquals(getEventKeys(sequentialEvents), getEventKeys(parallelEvents));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testProcessInParallelRequiresConcurrentCache() throws Exception {
+        createMockedNotificationProcessor().processInParallel(new TreeSet<NotificationContentItem>());
+    }
+
+    private Set<String> getEventKeys(final Collection<NotificationEvent<?>> events) {
+        final Set<String> eventKeys = new HashSet<>();
+        for (final NotificationEvent<?> event : events) {
+            eventKeys.add(event.getEventKey());
+        }
+        return eventKeys;
+    }
 }
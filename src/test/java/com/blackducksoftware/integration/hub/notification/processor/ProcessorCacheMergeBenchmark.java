@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.project.ProjectVersion;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.PolicyViolationContentItem;
+import com.blackducksoftware.integration.hub.notification.processor.event.EventKey;
+import com.blackducksoftware.integration.hub.notification.processor.event.PolicyEvent;
+import com.google.gson.Gson;
+
+/**
+ * Measures the MapProcessorCache merge of a notification digest, where every event merges its ItemEntry set into the
+ * stored event, and the HashSet of the policy rules behind those events. Each workload is also run with the
+ * reflective equals and hashCode the value types used before, as the baseline. Run it from the test classpath with
+ * org.openjdk.jmh.Main ProcessorCacheMergeBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ProcessorCacheMergeBenchmark {
+    private static final String RULE_JSON = "{\"name\":\"Rule %d\",\"description\":\"description\",\"enabled\":true,\"overridable\":true,"
+            + "\"createdBy\":\"you\",\"updatedBy\":\"me\",\"_meta\":{\"href\":\"http://a.hub.server/api/policy-rules/%d\",\"allow\":[\"GET\"],"
+            + "\"links\":[{\"rel\":\"policy-rule\",\"href\":\"http://a.hub.server/api/policy-rules/%d\"}]}}";
+
+    @Param({ "20000" })
+    private int eventCount;
+
+    @Param({ "50" })
+    private int ruleCount;
+
+    private List<PolicyEvent> events;
+
+    private List<PolicyRule> rules;
+
+    @Setup
+    public void createEvents() throws URISyntaxException {
+        final Gson gson = new Gson();
+        rules = new ArrayList<>(ruleCount);
+        for (int ruleIndex = 0; ruleIndex < ruleCount; ruleIndex++) {
+            rules.add(gson.fromJson(String.format(RULE_JSON, ruleIndex, ruleIndex, ruleIndex), PolicyRule.class));
+        }
+
+        // a few project versions and components, so most events merge into an event already in the cache
+        events = new ArrayList<>(eventCount);
+        for (int eventIndex = 0; eventIndex < eventCount; eventIndex++) {
+            final ProjectVersion projectVersion = new ProjectVersion();
+            projectVersion.setProjectName("Project");
+            projectVersion.setProjectVersionName("Version " + (eventIndex % 10));
+            projectVersion.setUrl(EventTestUtil.PROJECT_VERSION_URL_PREFIX + "Project" + EventTestUtil.PROJECT_VERSION_URL_SEGMENT + (eventIndex % 10));
+            final String componentName = EventTestUtil.COMPONENT + (eventIndex % 100);
+            final String componentVersion = EventTestUtil.VERSION + (eventIndex % 7);
+            final String componentUrl = EventTestUtil.COMPONENT_URL_PREFIX + componentName;
+            final PolicyRule rule = rules.get(eventIndex % ruleCount);
+            final PolicyViolationContentItem item = new PolicyViolationContentItem(new Date(), projectVersion, componentName, componentVersion,
+                    componentUrl, componentUrl + EventTestUtil.VERSIONS_URL_SEGMENT + componentVersion, Collections.singletonList(rule));
+            events.add(new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, rule, rule.getMeta().getHref()));
+        }
+    }
+
+    // the cache merges into the data set of the first event with each key, so every merge starts from fresh sets
+    @Setup(Level.Invocation)
+    public void resetDataSets() {
+        for (final PolicyEvent event : events) {
+            event.init();
+        }
+    }
+
+    @Benchmark
+    public int mergeEvents() {
+        final MapProcessorCache<PolicyEvent> cache = new MapProcessorCache<>();
+        for (final PolicyEvent event : events) {
+            cache.addEvent(event);
+        }
+        return cache.getEventKeyMap().size();
+    }
+
+    @Benchmark
+    public int mergeEventsReflective() {
+        final Map<EventKey, Set<ReflectiveValue>> eventMap = new LinkedHashMap<>(500);
+        for (final PolicyEvent event : events) {
+            Set<ReflectiveValue> storedDataSet = eventMap.get(event.getKey());
+            if (storedDataSet == null) {
+                storedDataSet = new LinkedHashSet<>();
+                eventMap.put(event.getKey(), storedDataSet);
+            }
+            for (final ItemEntry entry : event.getDataSet()) {
+                storedDataSet.add(new ReflectiveValue(entry));
+            }
+        }
+        return eventMap.size();
+    }
+
+    @Benchmark
+    public int collectRules() {
+        final Set<PolicyRule> ruleSet = new HashSet<>();
+        for (final PolicyEvent event : events) {
+            ruleSet.add(event.getPolicyRule());
+        }
+        return ruleSet.size();
+    }
+
+    @Benchmark
+    public int collectRulesReflective() {
+        final Set<ReflectiveValue> ruleSet = new HashSet<>();
+        for (final PolicyEvent event : events) {
+            ruleSet.add(new ReflectiveValue(event.getPolicyRule()));
+        }
+        return ruleSet.size();
+    }
+
+    /**
+     * Hashes and compares the value it wraps the way the reflective builders did.
+     */
+    private static class ReflectiveValue {
+        private final Object value;
+
+        public ReflectiveValue(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return HashCodeBuilder.reflectionHashCode(value);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof ReflectiveValue && EqualsBuilder.reflectionEquals(value, ((ReflectiveValue) obj).value);
+        }
+    }
+
+}
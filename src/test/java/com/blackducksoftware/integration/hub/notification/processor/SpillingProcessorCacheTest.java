@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.hub.api.item.MetaService;
+import com.blackducksoftware.integration.hub.api.policy.PolicyRule;
+import com.blackducksoftware.integration.hub.api.vulnerability.VulnerabilityRequestService;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.dataservice.notification.item.PolicyViolationContentItem;
+import com.blackducksoftware.integration.hub.notification.processor.event.EventKey;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.hub.notification.processor.event.PolicyEvent;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.service.HubRequestService;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.log.IntBufferedLogger;
+import com.blackducksoftware.integration.log.IntLogger;
+
+public class SpillingProcessorCacheTest {
+    private static final int MAX_EVENTS_IN_MEMORY = 5;
+
+    private static final int PROJECT_COUNT = 30;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final EventTestUtil testUtil = new EventTestUtil();
+
+    private MetaService metaService;
+
+    @Before
+    public void init() throws Exception {
+        final RestConnection restConnection = new MockRestConnection();
+        final HubServicesFactory factory = new HubServicesFactory(restConnection);
+        final IntLogger logger = new IntBufferedLogger();
+        metaService = factory.createMetaService(logger);
+    }
+
+    private PolicyEvent createEvent(final int projectIndex) throws Exception {
+        final PolicyViolationContentItem item = testUtil.createPolicyViolation(new Date(), EventTestUtil.PROJECT_NAME + projectIndex,
+                EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT, EventTestUtil.VERSION);
+        final PolicyRule policyRule = item.getPolicyRuleList().get(0);
+        return new PolicyEvent(NotificationCategoryEnum.POLICY_VIOLATION, item, policyRule, metaService.getHref(policyRule));
+    }
+
+    @Test
+    public void testSpilledEventsAreMergedRemovedAndIterated() throws Exception {
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, folder.getRoot())) {
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                cache.addEvent(createEvent(index));
+            }
+            assertEquals(PROJECT_COUNT - MAX_EVENTS_IN_MEMORY, cache.getSpilledEventCount());
+            assertEquals(1, folder.getRoot().listFiles().length);
+
+            // the first events were spilled, adding them again merges into the spilled copies
+            final PolicyEvent mergedEvent = createEvent(0);
+            mergedEvent.getDataSet().add(new ItemEntry(ItemTypeEnum.PERSON.name(), EventTestUtil.FIRST_NAME));
+            cache.addEvent(mergedEvent);
+            final PolicyEvent removedEvent = createEvent(1);
+            assertTrue(cache.hasEvent(removedEvent.getKey()));
+            cache.removeEvent(removedEvent);
+            assertFalse(cache.hasEvent(removedEvent.getKey()));
+
+            final Collection<PolicyEvent> events = cache.getEvents();
+            assertEquals(PROJECT_COUNT - 1, events.size());
+            final Set<String> eventKeys = new HashSet<>();
+            for (final PolicyEvent event : events) {
+                assertTrue(eventKeys.add(event.getEventKey()));
+                final boolean merged = event.getKey().equals(mergedEvent.getKey());
+                assertEquals(merged ? 4 : 3, event.getDataSet().size());
+                assertTrue(event.getDataSet().contains(new ItemEntry(ItemTypeEnum.COMPONENT.name(), EventTestUtil.COMPONENT)));
+            }
+            assertEquals(PROJECT_COUNT - 1, eventKeys.size());
+            assertFalse(eventKeys.contains(removedEvent.getEventKey()));
+        }
+        assertEquals(0, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testProcessorResultsMatchTheInMemoryCache() throws Exception {
+        final SortedSet<NotificationContentItem> notifications = new TreeSet<>();
+        final DateTime dateTime = new DateTime();
+        for (int index = 0; index < PROJECT_COUNT; index++) {
+            final String projectName = EventTestUtil.PROJECT_NAME + index;
+            notifications.add(testUtil.createPolicyViolation(dateTime.plusSeconds(index).toDate(), projectName,
+                    EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT, EventTestUtil.VERSION));
+            if (index % 3 == 0) {
+                notifications.add(testUtil.createPolicyCleared(dateTime.plusSeconds(PROJECT_COUNT + index).toDate(), projectName,
+                        EventTestUtil.PROJECT_VERSION_NAME, EventTestUtil.COMPONENT, EventTestUtil.VERSION));
+            }
+        }
+
+        final MockProcessor inMemoryProcessor = new MockProcessor(Mockito.mock(HubRequestService.class),
+                Mockito.mock(VulnerabilityRequestService.class), metaService);
+        final Set<String> expectedKeys = getEventKeys(inMemoryProcessor.process(notifications));
+        try (SpillingProcessorCache<NotificationEvent<? extends NotificationContentItem>> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY,
+                folder.getRoot())) {
+            final MockProcessor spillingProcessor = new MockProcessor(Mockito.mock(HubRequestService.class),
+                    Mockito.mock(VulnerabilityRequestService.class), metaService, cache);
+            final Collection<NotificationEvent<?>> events = spillingProcessor.process(notifications);
+            assertTrue(cache.getSpilledEventCount() > 0);
+            assertEquals(expectedKeys.size(), events.size());
+            assertEquals(expectedKeys, getEventKeys(events));
+        }
+    }
+
+    private Set<String> getEventKeys(final Collection<NotificationEvent<?>> events) {
+        final Set<String> eventKeys = new HashSet<>();
+        for (final NotificationEvent<?> event : events) {
+            eventKeys.add(event.getEventKey());
+        }
+        return eventKeys;
+    }
+
+    @Test
+    public void testEventMapIsAReadOnlyView() throws Exception {
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, folder.getRoot())) {
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                cache.addEvent(createEvent(index));
+            }
+            final Map<EventKey, PolicyEvent> eventMap = cache.getEventKeyMap();
+            assertEquals(PROJECT_COUNT, eventMap.size());
+            final PolicyEvent spilledEvent = createEvent(0);
+            assertTrue(eventMap.containsKey(spilledEvent.getKey()));
+            assertEquals(spilledEvent.getKey(), eventMap.get(spilledEvent.getKey()).getKey());
+            assertEquals(PROJECT_COUNT - MAX_EVENTS_IN_MEMORY, cache.getSpilledEventCount());
+
+            final Set<EventKey> eventKeys = new HashSet<>();
+            for (final Map.Entry<EventKey, PolicyEvent> entry : eventMap.entrySet()) {
+                assertEquals(entry.getKey(), entry.getValue().getKey());
+                eventKeys.add(entry.getKey());
+            }
+            assertEquals(PROJECT_COUNT, eventKeys.size());
+            try {
+                eventMap.remove(spilledEvent.getKey());
+                fail("Expected the event map to be read-only");
+            } catch (final UnsupportedOperationException e) {
+            }
+            assertTrue(cache.hasEvent(spilledEvent.getKey()));
+        }
+    }
+
+    @Test
+    public void testSpilledEventsAreChangedByReplacingThem() throws Exception {
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, folder.getRoot())) {
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                cache.addEvent(createEvent(index));
+            }
+            final EventKey spilledKey = createEvent(0).getKey();
+            cache.getEventKeyMap().get(spilledKey).setCategoryType(NotificationCategoryEnum.POLICY_VIOLATION_CLEARED);
+            assertEquals(NotificationCategoryEnum.POLICY_VIOLATION, cache.getEventKeyMap().get(spilledKey).getCategoryType());
+
+            final PolicyEvent changedEvent = createEvent(0);
+            changedEvent.setCategoryType(NotificationCategoryEnum.POLICY_VIOLATION_CLEARED);
+            cache.removeEvent(changedEvent);
+            cache.addEvent(changedEvent);
+            for (int index = 1; index < PROJECT_COUNT; index++) {
+                cache.getEvent(createEvent(index).getKey());
+            }
+            assertTrue(cache.getSpilledEventCount() > 0);
+            assertEquals(NotificationCategoryEnum.POLICY_VIOLATION_CLEARED, cache.getEventKeyMap().get(spilledKey).getCategoryType());
+        }
+    }
+
+    @Test
+    public void testRecordsAreSmallerThanPlainSerialization() throws Exception {
+        final File directory = folder.newFolder();
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, directory)) {
+            long serializedLength = 0;
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                final PolicyEvent event = createEvent(index);
+                if (index < PROJECT_COUNT - MAX_EVENTS_IN_MEMORY) {
+                    serializedLength += getSerializedLength(event);
+                }
+                cache.addEvent(event);
+            }
+            final long spillLength = directory.listFiles()[0].length();
+            assertTrue(spillLength + " should be less than " + serializedLength, spillLength < serializedLength);
+        }
+    }
+
+    private int getSerializedLength(final PolicyEvent event) throws Exception {
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(byteStream)) {
+            objectStream.writeObject(event);
+        }
+        return byteStream.size();
+    }
+
+    @Test
+    public void testStaleRecordsAreCompactedAway() throws Exception {
+        final File directory = folder.newFolder();
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, directory)) {
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                cache.addEvent(createEvent(index));
+            }
+            final long initialLength = directory.listFiles()[0].length();
+
+            // every merge reads a spilled event back and spills another one, leaving a stale record behind
+            for (int round = 0; round < 10; round++) {
+                for (int index = 0; index < PROJECT_COUNT; index++) {
+                    cache.addEvent(createEvent(index));
+                    assertEquals(1, directory.listFiles().length);
+                    final long spillLength = directory.listFiles()[0].length();
+                    assertTrue(spillLength + " should stay near twice " + initialLength, spillLength <= 2 * initialLength + initialLength / 2);
+                }
+            }
+
+            assertEquals(PROJECT_COUNT - MAX_EVENTS_IN_MEMORY, cache.getSpilledEventCount());
+            final Set<EventKey> eventKeys = new HashSet<>();
+            for (final PolicyEvent event : cache.getEvents()) {
+                assertTrue(eventKeys.add(event.getKey()));
+                assertEquals(3, event.getDataSet().size());
+            }
+            assertEquals(PROJECT_COUNT, eventKeys.size());
+
+            for (int index = 0; index < PROJECT_COUNT; index++) {
+                cache.removeEvent(createEvent(index));
+            }
+            assertEquals(0, directory.listFiles()[0].length());
+        }
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testNothingIsWrittenBelowTheBound() throws Exception {
+        final File directory = folder.newFolder();
+        try (SpillingProcessorCache<PolicyEvent> cache = new SpillingProcessorCache<>(MAX_EVENTS_IN_MEMORY, directory)) {
+            for (int index = 0; index < MAX_EVENTS_IN_MEMORY; index++) {
+                cache.addEvent(createEvent(index));
+            }
+            assertEquals(0, cache.getSpilledEventCount());
+            assertEquals(MAX_EVENTS_IN_MEMORY, cache.getEvents().size());
+            assertEquals(0, directory.listFiles().length);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.notification.processor.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.dataservice.notification.item.NotificationContentItem;
+import com.blackducksoftware.integration.hub.notification.processor.ItemEntry;
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+
+public class EventKeyTest {
+    private static final String PROJECT_VERSION_URL = "http://a.hub.server/api/projects/1/versions/";
+
+    @Test
+    public void testSameValuesGiveEqualKeys() {
+        final EventKey key = new EventKey.Builder().add("p").add(PROJECT_VERSION_URL + "1").add(null).build();
+        final EventKey sameKey = new EventKey.Builder().add("p").add(PROJECT_VERSION_URL + "1").add(null).build();
+        assertEquals(key, sameKey);
+        assertEquals(key.hashCode(), sameKey.hashCode());
+    }
+
+    @Test
+    public void testUrlsWithTheSameStringHashCodeGiveDifferentKeys() {
+        // "Aa" and "BB" have the same String.hashCode(), which merged unrelated events when keys were built from it
+        assertEquals((PROJECT_VERSION_URL + "Aa").hashCode(), (PROJECT_VERSION_URL + "BB").hashCode());
+        final EventKey key = new EventKey.Builder().add("p").add(PROJECT_VERSION_URL + "Aa").build();
+        final EventKey otherKey = new EventKey.Builder().add("p").add(PROJECT_VERSION_URL + "BB").build();
+        assertNotEquals(key, otherKey);
+    }
+
+    @Test
+    public void testValueBoundariesAreKept() {
+        assertNotEquals(new EventKey.Builder().add("ab").add("c").build(), new EventKey.Builder().add("a").add("bc").build());
+        assertNotEquals(new EventKey.Builder().add("").build(), new EventKey.Builder().add(null).build());
+    }
+
+    @Test
+    public void testStringRenderingRoundTrips() {
+        final EventKey key = new EventKey.Builder().add("v").add(PROJECT_VERSION_URL + "1").build();
+        final String rendered = key.toString();
+        assertEquals(32, rendered.length());
+        assertEquals(key, EventKey.fromString(rendered));
+        assertEquals(rendered, EventKey.fromString(rendered).toString());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testEventWithOnlyAStringKeyIsKeyedByItsHash() {
+        final NotificationEvent<NotificationContentItem> event = new NotificationEvent<NotificationContentItem>(NotificationCategoryEnum.POLICY_VIOLATION,
+                null) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Set<ItemEntry> generateDataSet() {
+                return new LinkedHashSet<>();
+            }
+
+            @Override
+            public String generateEventKey() {
+                return "t=p|hpv=" + PROJECT_VERSION_URL + "1";
+            }
+
+            @Override
+            public int countCategoryItems() {
+                return 1;
+            }
+        };
+        event.init();
+        assertEquals(new EventKey.Builder().add("t=p|hpv=" + PROJECT_VERSION_URL + "1").build(), event.getKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStringIsRejected() {
+        EventKey.fromString("t=p|hpv=12345");
+    }
+
+}
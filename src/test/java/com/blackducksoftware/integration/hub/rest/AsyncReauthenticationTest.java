@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class AsyncReauthenticationTest {
+    private static final String URL = "http://hub/api/projects";
+
+    @Test
+    public void testReauthenticatesOffTheDispatcher() throws Exception {
+        final FakeRestConnection restConnection = new FakeRestConnection(401, 200);
+        restConnection.connect();
+        restConnection.getAuthenticationThreads().clear();
+
+        final Response response = restConnection.handleExecuteClientCallAsync(new Request.Builder().url(URL).get().build()).get(10,
+                TimeUnit.SECONDS);
+
+        assertEquals(200, response.code());
+        response.body().close();
+        assertEquals(1, restConnection.getAuthenticationThreads().size());
+        assertFalse(restConnection.getAuthenticationThreads().get(0).startsWith("OkHttp"));
+    }
+
+    @Test
+    public void testFailureIsAHubIntegrationException() throws Exception {
+        final FakeRestConnection restConnection = new FakeRestConnection();
+        restConnection.connect();
+
+        try {
+            restConnection.handleExecuteClientCallAsync(new Request.Builder().url(URL).get().build()).get(10, TimeUnit.SECONDS);
+            fail("The call should have failed");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof HubIntegrationException);
+            assertTrue(e.getCause().getCause() instanceof IOException);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.blackducksoftware.integration.hub.cache.InMemoryRevalidationStore;
+
+import okhttp3.Interceptor.Chain;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class ConditionalGetInterceptorTest {
+    private static final String URL = "http://hub/api/projects";
+
+    private static final String BODY = "{\"totalCount\":0,\"items\":[]}";
+
+    private final List<Request> sentRequests = new ArrayList<>();
+
+    private final List<Response> responses = new ArrayList<>();
+
+    private InMemoryRevalidationStore revalidationStore;
+
+    private ConditionalGetInterceptor interceptor;
+
+    private Chain chain;
+
+    @Before
+    public void init() throws Exception {
+        revalidationStore = new InMemoryRevalidationStore(1024 * 1024);
+        final RestConnection restConnection = mock(RestConnection.class);
+        when(restConnection.getRevalidationStore()).thenReturn(revalidationStore);
+        interceptor = new ConditionalGetInterceptor(restConnection);
+
+        chain = mock(Chain.class);
+        when(chain.request()).thenReturn(new Request.Builder().url(URL).header("Accept", "application/json").get().build());
+        when(chain.proceed(any(Request.class))).thenAnswer(new Answer<Response>() {
+            @Override
+            public Response answer(final InvocationOnMock invocation) {
+                final Request request = (Request) invocation.getArguments()[0];
+                sentRequests.add(request);
+                return responses.remove(0).newBuilder().request(request).build();
+            }
+        });
+    }
+
+    private Response.Builder response(final int code) {
+        return new Response.Builder().request(new Request.Builder().url(URL).build()).protocol(Protocol.HTTP_1_1).code(code).message("message");
+    }
+
+    @Test
+    public void testStoredBodyIsServedOnNotModified() throws Exception {
+        responses.add(response(200).header("ETag", "\"1\"").body(ResponseBody.create(MediaType.parse("application/json"), BODY)).build());
+        responses.add(response(304).body(ResponseBody.create(null, "")).build());
+
+        assertEquals(BODY, interceptor.intercept(chain).body().string());
+        assertNull(sentRequests.get(0).header("If-None-Match"));
+
+        final Response revalidated = interceptor.intercept(chain);
+        assertEquals("\"1\"", sentRequests.get(1).header("If-None-Match"));
+        assertEquals(200, revalidated.code());
+        assertEquals("json", revalidated.body().contentType().subtype());
+        assertEquals(BODY, revalidated.body().string());
+    }
+
+    @Test
+    public void testChangedBodyReplacesStoredBody() throws Exception {
+        responses.add(response(200).header("Last-Modified", "Mon, 03 Apr 2017 10:00:00 GMT").body(ResponseBody.create(null, BODY)).build());
+        responses.add(response(200).header("Last-Modified", "Tue, 04 Apr 2017 10:00:00 GMT").body(ResponseBody.create(null, "changed")).build());
+        responses.add(response(304).body(ResponseBody.create(null, "")).build());
+
+        interceptor.intercept(chain).body().string();
+        assertEquals("changed", interceptor.intercept(chain).body().string());
+        assertEquals("Mon, 03 Apr 2017 10:00:00 GMT", sentRequests.get(1).header("If-Modified-Since"));
+        assertEquals("changed", interceptor.intercept(chain).body().string());
+        assertEquals("Tue, 04 Apr 2017 10:00:00 GMT", sentRequests.get(2).header("If-Modified-Since"));
+    }
+
+    @Test
+    public void testResponsesWithoutValidatorsAreNotStored() throws Exception {
+        responses.add(response(200).body(ResponseBody.create(null, BODY)).build());
+
+        assertEquals(BODY, interceptor.intercept(chain).body().string());
+        assertEquals(0, revalidationStore.size());
+    }
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Answers every GET with the next of the given codes, and fails them once the codes run out, without going to a Hub
+ * server. HEAD requests wait until releaseHeadRequests is called, then succeed.
+ */
+public class FakeRestConnection extends RestConnection {
+    private final List<String> authenticationThreads = new CopyOnWriteArrayList<>();
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch headLatch = new CountDownLatch(1);
+
+    private final int[] codes;
+
+    private final AtomicInteger nextCode = new AtomicInteger();
+
+    private boolean interceptorAdded;
+
+    public FakeRestConnection(final int... codes) throws Exception {
+        super(new URL("http://hub"));
+        this.codes = codes;
+    }
+
+    @Override
+    public void addBuilderAuthentication() {
+        if (interceptorAdded) {
+            return;
+        }
+        interceptorAdded = true;
+        getBuilder().addInterceptor(new Interceptor() {
+            @Override
+            public Response intercept(final Chain chain) throws IOException {
+                final Request request = chain.request();
+                events.add(request.method());
+                if ("HEAD".equals(request.method())) {
+                    try {
+                        headLatch.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return createResponse(request, 200);
+                }
+                final int codeIndex = nextCode.getAndIncrement();
+                if (codeIndex >= codes.length) {
+                    throw new IOException("No more responses");
+                }
+                return createResponse(request, codes[codeIndex]);
+            }
+        });
+    }
+
+    @Override
+    public void clientAuthenticate() {
+        events.add("authenticate");
+        authenticationThreads.add(Thread.currentThread().getName());
+    }
+
+    public List<String> getAuthenticationThreads() {
+        return authenticationThreads;
+    }
+
+    /**
+     * The authentications and the methods of the requests, in the order they happened.
+     */
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void releaseHeadRequests() {
+        headLatch.countDown();
+    }
+
+    private Response createResponse(final Request request, final int code) {
+        return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code)
+                .body(ResponseBody.create(MediaType.parse("application/json"), "{}")).build();
+    }
+
+}
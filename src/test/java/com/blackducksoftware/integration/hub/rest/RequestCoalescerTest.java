@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+public class RequestCoalescerTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    public void testConcurrentCallersShareOneCall() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Object result = new Object();
+        final Callable<Object> call = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                calls.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+                return result;
+            }
+        };
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executorService.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return coalescer.execute("key", call);
+                    }
+                }));
+            }
+            while (coalescer.getCallCount() + coalescer.getCoalescedCount() < CALLERS) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (final Future<Object> future : futures) {
+                assertSame(result, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(CALLERS - 1, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testCompletedCallIsNotReused() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final AtomicInteger calls = new AtomicInteger();
+        final Callable<Integer> call = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return calls.incrementAndGet();
+            }
+        };
+        assertEquals(Integer.valueOf(1), coalescer.execute("key", call));
+        assertEquals(Integer.valueOf(2), coalescer.execute("key", call));
+        assertEquals(Integer.valueOf(3), coalescer.execute("other", call));
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotRemembered() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final SettableFuture<String> inFlight = SettableFuture.create();
+        final ListenableFuture<String> first = coalescer.executeAsync("key", new AsyncCallable<String>() {
+            @Override
+            public ListenableFuture<String> call() {
+                return inFlight;
+            }
+        });
+        final ListenableFuture<String> second = coalescer.executeAsync("key", new AsyncCallable<String>() {
+            @Override
+            public ListenableFuture<String> call() {
+                fail("The in-flight call should have been shared");
+                return null;
+            }
+        });
+        assertEquals(1, coalescer.getCoalescedCount());
+
+        second.cancel(true);
+        inFlight.setException(new HubIntegrationException("failed"));
+        try {
+            first.get();
+            fail("Expected the shared call to fail");
+        } catch (final Exception e) {
+            assertEquals("failed", e.getCause().getMessage());
+        }
+
+        assertEquals("retried", coalescer.execute("key", new Callable<String>() {
+            @Override
+            public String call() {
+                return "retried";
+            }
+        }));
+    }
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.global.HubConnectionProfile;
+
+public class WarmUpConnectionsTest {
+
+    @Test
+    public void testNoWarmUpByDefault() throws Exception {
+        final FakeRestConnection restConnection = new FakeRestConnection();
+        restConnection.connect();
+        Thread.sleep(100);
+
+        assertEquals(Arrays.asList("authenticate"), restConnection.getEvents());
+    }
+
+    @Test
+    public void testWarmsUpOnceAfterAuthenticatingWithoutWaiting() throws Exception {
+        final FakeRestConnection restConnection = new FakeRestConnection();
+        restConnection.setConnectionProfile(new HubConnectionProfile(5, 300, 64, 20, false, 2));
+        try {
+            // the HEAD requests are held until released, so connect returning proves nothing waits for them
+            restConnection.connect();
+            restConnection.connect();
+            waitForEvents(restConnection, 4);
+
+            assertEquals("authenticate", restConnection.getEvents().get(0));
+        } finally {
+            restConnection.releaseHeadRequests();
+        }
+        Thread.sleep(100);
+        assertEquals(2, Collections.frequency(restConnection.getEvents(), "authenticate"));
+        assertEquals(2, Collections.frequency(restConnection.getEvents(), "HEAD"));
+    }
+
+    private void waitForEvents(final FakeRestConnection restConnection, final int count) throws InterruptedException {
+        for (int i = 0; i < 500 && restConnection.getEvents().size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+}
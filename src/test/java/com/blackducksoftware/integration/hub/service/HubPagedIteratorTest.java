@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.item.HubItem;
+import com.blackducksoftware.integration.hub.request.HubPagedRequest;
+
+public class HubPagedIteratorTest {
+
+    @Test
+    public void testIteratesAllPagesInOrder() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(25);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, "http://a.hub.server/api/items");
+
+        final List<HubItem> items = new ArrayList<>();
+        for (final HubItem item : requestService.iterateAllItems(hubPagedRequest)) {
+            items.add(item);
+        }
+
+        assertEquals(25, items.size());
+        for (int index = 0; index < items.size(); index++) {
+            assertEquals(String.valueOf(index), items.get(index).getJson());
+        }
+        assertEquals(3, requestService.getPagesRequested());
+    }
+
+    @Test
+    public void testPagesAreRequestedLazily() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(25);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, "http://a.hub.server/api/items");
+
+        final Iterator<HubItem> iterator = requestService.iterateAllItems(hubPagedRequest).iterator();
+        assertEquals(0, requestService.getPagesRequested());
+        for (int index = 0; index < 10; index++) {
+            iterator.next();
+        }
+        assertEquals(1, requestService.getPagesRequested());
+        iterator.next();
+        assertEquals(2, requestService.getPagesRequested());
+    }
+
+    @Test
+    public void testIteratorsLeaveTheRequestAlone() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(25);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, "http://a.hub.server/api/items");
+        hubPagedRequest.setOffset(5);
+
+        final Iterable<HubItem> iterable = requestService.iterateAllItems(hubPagedRequest);
+        final Iterator<HubItem> first = iterable.iterator();
+        for (int index = 0; index < 15; index++) {
+            first.next();
+        }
+        final Iterator<HubItem> second = iterable.iterator();
+        assertEquals("5", second.next().getJson());
+        assertEquals("20", first.next().getJson());
+        assertEquals(5, hubPagedRequest.getOffset());
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(0);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, "http://a.hub.server/api/items");
+
+        assertFalse(requestService.iterateAllItems(hubPagedRequest).iterator().hasNext());
+        assertEquals(1, requestService.getPagesRequested());
+    }
+
+}
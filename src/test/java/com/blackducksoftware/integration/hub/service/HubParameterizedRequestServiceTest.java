@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.api.item.HubItem;
+import com.blackducksoftware.integration.hub.request.HubPagedRequest;
+
+public class HubParameterizedRequestServiceTest {
+    private static final String ITEMS_URL = "http://a.hub.server/api/items";
+
+    @Test
+    public void testConcurrentPagesKeepOffsetOrder() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(1005);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, ITEMS_URL);
+
+        final List<HubItem> items = requestService.getAllItems(hubPagedRequest, 8);
+
+        assertEquals(1005, items.size());
+        for (int index = 0; index < items.size(); index++) {
+            assertEquals(String.valueOf(index), items.get(index).getJson());
+        }
+        assertEquals(101, requestService.getPagesRequested());
+    }
+
+    @Test
+    public void testConcurrentSinglePage() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(7);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, ITEMS_URL);
+
+        final List<HubItem> items = requestService.getAllItems(hubPagedRequest, 8);
+
+        assertEquals(7, items.size());
+        assertEquals(1, requestService.getPagesRequested());
+    }
+
+    @Test
+    public void testProvidedExecutorIsLimitedAndKept() throws Exception {
+        final MockPagedRequestService requestService = new MockPagedRequestService(1005);
+        final HubPagedRequest hubPagedRequest = requestService.getHubRequestFactory().createGetPagedRequest(10, ITEMS_URL);
+        final ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            final List<HubItem> items = requestService.getAllItems(hubPagedRequest, 3, executorService);
+
+            assertEquals(1005, items.size());
+            for (int index = 0; index < items.size(); index++) {
+                assertEquals(String.valueOf(index), items.get(index).getJson());
+            }
+            assertTrue(requestService.getMaxRequestsInFlight() <= 3);
+            assertFalse(executorService.isShutdown());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
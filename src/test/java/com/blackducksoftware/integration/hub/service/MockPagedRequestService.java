@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (C) 2016 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package com.blackducksoftware.integration.hub.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.blackducksoftware.integration.hub.api.item.HubItem;
+import com.blackducksoftware.integration.hub.api.item.HubPagedResponse;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.notification.processor.MockRestConnection;
+import com.blackducksoftware.integration.hub.request.HubPagedRequest;
+
+/**
+ * Serves totalCount HubItems whose json is their index, without going to a Hub server.
+ */
+public class MockPagedRequestService extends HubParameterizedRequestService<HubItem> {
+    private final int totalCount;
+
+    private final AtomicInteger pagesRequested = new AtomicInteger();
+
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+    private final AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    public MockPagedRequestService(final int totalCount) {
+        super(new MockRestConnection(), HubItem.class);
+        this.totalCount = totalCount;
+    }
+
+    @Override
+    public HubPagedResponse<HubItem> getPagedResponse(final HubPagedRequest hubPagedRequest) throws HubIntegrationException {
+        pagesRequested.incrementAndGet();
+        final int inFlight = requestsInFlight.incrementAndGet();
+        while (true) {
+            final int maxInFlight = maxRequestsInFlight.get();
+            if (inFlight <= maxInFlight || maxRequestsInFlight.compareAndSet(maxInFlight, inFlight)) {
+                break;
+            }
+        }
+        try {
+            // long enough for the other requests to overlap this one
+            Thread.sleep(1);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            requestsInFlight.decrementAndGet();
+        }
+        final List<HubItem> items = new ArrayList<>();
+        final int end = Math.min(totalCount, hubPagedRequest.getOffset() + hubPagedRequest.getLimit());
+        for (int index = hubPagedRequest.getOffset(); index < end; index++) {
+            final HubItem item = new HubItem();
+            item.setJson(String.valueOf(index));
+            items.add(item);
+        }
+        return new HubPagedResponse<>(totalCount, items);
+    }
+
+    public int getPagesRequested() {
+        return pagesRequested.get();
+    }
+
+    public int getMaxRequestsInFlight() {
+        return maxRequestsInFlight.get();
+    }
+
+}